@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -35,7 +36,9 @@ import org.springframework.cloud.contract.spec.internal.Response;
  *
  * @since 1.0.0
  */
-public class Contract {
+public class Contract implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * You can set the level of priority of this contract. If there are two contracts
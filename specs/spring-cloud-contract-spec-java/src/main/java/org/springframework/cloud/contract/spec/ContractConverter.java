@@ -44,6 +44,19 @@ public interface ContractConverter<T> extends ContractStorer<T>, ContractReader<
 	 */
 	Collection<Contract> convertFrom(File file);
 
+	/**
+	 * Converts the given {@link File} to its {@link Contract} representation if the file
+	 * is accepted by this converter. Converters that have to parse the file to check if
+	 * it's accepted should override this method, so that the file gets parsed only once.
+	 * @param file - file to convert
+	 * @return - {@link Contract} representation of the file or {@code null} if the file
+	 * is not accepted
+	 * @since 3.0.1
+	 */
+	default Collection<Contract> tryConvertFrom(File file) {
+		return isAccepted(file) ? convertFrom(file) : null;
+	}
+
 	/**
 	 * Converts the given {@link Contract} to a {@link T} representation.
 	 * @param contract - the parsed contract
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
@@ -33,7 +34,9 @@ import groovy.lang.DelegatesTo;
  * @author Tim Ysewyn
  * @since 1.0.3
  */
-public class BodyMatchers {
+public class BodyMatchers implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	protected final List<BodyMatcher> matchers = new LinkedList<>();
 
@@ -17,6 +17,7 @@
 package org.springframework.cloud.contract.spec.internal;
 
 import java.io.File;
+import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -37,7 +38,9 @@ import java.util.stream.Collectors;
  * @author Tim Ysewyn
  * @since 1.0.0
  */
-public class Common {
+public class Common implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public Map<String, DslProperty> convertObjectsToDslProperties(Map<String, Object> body) {
 		return body.entrySet().stream()
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,7 +32,9 @@ import java.util.function.Consumer;
  * @author Alex Xandra Albert Sim
  * @since 1.2.5
  */
-public class Cookies {
+public class Cookies implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private Set<Cookie> entries = new HashSet<>();
 
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -34,7 +35,9 @@ import java.util.regex.Pattern;
  * @author Tim Ysewyn
  * @since 1.0.0
  */
-public class Headers {
+public class Headers implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private static final BiFunction<String, Header, Object> CLIENT_SIDE = (s, header) -> ContractUtils
 			.convertStubSideRecursively(header);
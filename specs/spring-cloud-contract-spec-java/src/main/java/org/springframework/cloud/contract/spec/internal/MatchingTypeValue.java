@@ -16,12 +16,15 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * Matching type with corresponding values.
  */
-public class MatchingTypeValue {
+public class MatchingTypeValue implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private MatchingType type;
 
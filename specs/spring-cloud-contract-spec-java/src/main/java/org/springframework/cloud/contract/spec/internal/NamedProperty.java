@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
 
@@ -24,7 +25,9 @@ import java.util.Objects;
  *
  * @since 1.0.0
  */
-public class NamedProperty {
+public class NamedProperty implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private static final String NAME = "name";
 
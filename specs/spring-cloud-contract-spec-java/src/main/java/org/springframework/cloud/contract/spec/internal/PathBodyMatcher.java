@@ -16,12 +16,15 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * @author Marcin Grzejszczak
  */
-public class PathBodyMatcher implements BodyMatcher {
+public class PathBodyMatcher implements BodyMatcher, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private String path;
 
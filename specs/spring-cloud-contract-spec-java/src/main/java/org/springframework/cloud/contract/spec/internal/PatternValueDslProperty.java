@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Random;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -26,7 +27,10 @@ import org.apache.commons.lang3.RandomStringUtils;
  * @author Marcin Grzejszczak
  * @author Tim Ysewyn
  */
-abstract class PatternValueDslProperty<T extends DslProperty> implements RegexCreatingProperty<T> {
+abstract class PatternValueDslProperty<T extends DslProperty>
+		implements RegexCreatingProperty<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private final Random random = new Random();
 
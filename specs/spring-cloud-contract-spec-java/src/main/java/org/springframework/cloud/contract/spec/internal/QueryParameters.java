@@ -16,13 +16,16 @@
 
 package org.springframework.cloud.contract.spec.internal;
 
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-public class QueryParameters {
+public class QueryParameters implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private List<QueryParameter> parameters = new LinkedList<QueryParameter>();
 
@@ -17,6 +17,8 @@
 package org.springframework.cloud.contract.spec.internal;
 
 import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -106,12 +108,22 @@ public class RegexProperty extends DslProperty implements CanBeDynamic {
 	}
 
 	public Object generate() {
-		return doGenerate(3);
+		return generate(ThreadLocalRandom.current());
 	}
 
-	private Object doGenerate(int retries) {
+	/**
+	 * Generates a value matching the pattern using the given source of randomness. Pass
+	 * a seeded {@link Random} to get reproducible values.
+	 * @param random source of randomness
+	 * @return generated value
+	 */
+	public Object generate(Random random) {
+		return doGenerate(random, 3);
+	}
+
+	private Object doGenerate(Random random, int retries) {
 		try {
-			String generatedValue = new Xeger(this.pattern.pattern()).generate();
+			String generatedValue = Xeger.cached(this.pattern.pattern(), random).generate();
 			if (Integer.class.equals(this.clazz)) {
 				return Integer.parseInt(generatedValue);
 			}
@@ -135,7 +147,7 @@ public class RegexProperty extends DslProperty implements CanBeDynamic {
 		catch (NumberFormatException ex) {
 			if (retries > 0) {
 				retries = retries - 1;
-				return doGenerate(retries);
+				return doGenerate(random, retries);
 			}
 			throw ex;
 		}
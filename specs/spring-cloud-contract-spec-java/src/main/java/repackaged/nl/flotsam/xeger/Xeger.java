@@ -30,6 +30,8 @@ import dk.brics.automaton.State;
 import dk.brics.automaton.Transition;
 import org.apache.commons.lang3.StringUtils;
 
+import org.springframework.util.ConcurrentLruCache;
+
 /**
  * An object that will generate text from a regular expression. In a way, it's the
  * opposite of a regular expression matcher: an instance of this class will produce text
@@ -43,6 +45,12 @@ public class Xeger {
 	// may lead to stackoverflow when regex is unbounded
 	static int ITERATION_LIMIT = 200;
 
+	// compiling the automaton is by far the most expensive part of the generation
+	static final int CACHE_SIZE = 256;
+
+	private static final ConcurrentLruCache<String, Automaton> AUTOMATONS = new ConcurrentLruCache<>(CACHE_SIZE,
+			Xeger::toAutomaton);
+
 	private final Automaton automaton;
 
 	private Random random;
@@ -55,13 +63,12 @@ public class Xeger {
 	 * @throws IllegalArgumentException If the regular expression is invalid.
 	 */
 	public Xeger(String regex, Random random) {
-		assert regex != null;
+		this(toAutomaton(regex), random);
+	}
+
+	private Xeger(Automaton automaton, Random random) {
 		assert random != null;
-		// https://stackoverflow.com/questions/1578789/how-do-i-generate-text-matching-a-regular-expression-from-a-regular-expression
-		String pattern = regex.replace("\\d", "[0-9]") // Used d=Digit
-				.replace("\\w", "[A-Za-z0-9_]") // Used =Word
-				.replace("\\s", "[ \t\r\n]"); // Used s="White"Space
-		this.automaton = new RegExp(pattern).toAutomaton();
+		this.automaton = automaton;
 		this.random = random;
 		String generatedCharsSysProp = System.getProperty("springCloudContractGeneratedCharsFromRegex");
 		String generatedCharsEnvVar = System.getenv("SPRING_CLOUD_CONTRACT_GENERATED_CHARS_FROM_REGEX");
@@ -82,6 +89,32 @@ public class Xeger {
 		this(regex, new Random());
 	}
 
+	/**
+	 * As {@link Xeger#Xeger(String, java.util.Random)}, but the automaton compiled from
+	 * the regular expression is taken from a bounded cache shared by all threads.
+	 * @param regex as string
+	 * @param random The object that will randomize the way the String is generated. (Not
+	 * <code>null</code>.)
+	 * @return generator for the regular expression
+	 */
+	public static Xeger cached(String regex, Random random) {
+		assert regex != null;
+		return new Xeger(AUTOMATONS.get(regex), random);
+	}
+
+	private static Automaton toAutomaton(String regex) {
+		assert regex != null;
+		// https://stackoverflow.com/questions/1578789/how-do-i-generate-text-matching-a-regular-expression-from-a-regular-expression
+		String pattern = regex.replace("\\d", "[0-9]") // Used d=Digit
+				.replace("\\w", "[A-Za-z0-9_]") // Used =Word
+				.replace("\\s", "[ \t\r\n]"); // Used s="White"Space
+		Automaton automaton = new RegExp(pattern).toAutomaton();
+		// expands a singleton automaton, so that it's not modified when generating
+		// from multiple threads
+		automaton.getInitialState();
+		return automaton;
+	}
+
 	/**
 	 * Generates a random number within the given bounds.
 	 * @param min The minimum number (inclusive).
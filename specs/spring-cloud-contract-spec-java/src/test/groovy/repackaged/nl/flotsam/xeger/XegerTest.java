@@ -21,7 +21,12 @@ package repackaged.nl.flotsam.xeger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.junit.After;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -29,6 +34,11 @@ import static org.junit.Assert.assertTrue;
 
 public class XegerTest {
 
+	@After
+	public void resetLimit() {
+		Xeger.ITERATION_LIMIT = 200;
+	}
+
 	@Test
 	public void shouldGenerateTextCorrectly() {
 		String regex = "[ab]{4,6}c";
@@ -103,4 +113,46 @@ public class XegerTest {
 		return regexList;
 	}
 
+	@Test
+	public void shouldGenerateTheSameTextForTheSameSeedWhenCached() {
+		String regex = "[a-f0-9]{8}-[a-f0-9]{4}";
+		Xeger first = Xeger.cached(regex, new Random(42L));
+		Xeger second = Xeger.cached(regex, new Random(42L));
+		for (int i = 0; i < 100; i++) {
+			String text = first.generate();
+			assertTrue(text.matches(regex));
+			assertEquals(text, second.generate());
+		}
+	}
+
+	@Test
+	public void shouldGenerateTextCorrectlyFromCachedAutomatonInMultipleThreads() throws Exception {
+		// a regex without any choices compiles to a singleton automaton
+		List<String> regexes = new ArrayList<>();
+		regexes.add("foo");
+		regexes.add("\\d{3}-[a-z]+");
+		regexes.add("(true|false)");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				String regex = regexes.get(i % regexes.size());
+				results.add(executor.submit(() -> {
+					for (int j = 0; j < 100; j++) {
+						if (!Xeger.cached(regex, ThreadLocalRandom.current()).generate().matches(regex)) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.spec.internal
 
+import org.apache.commons.logging.LogFactory
 import org.springframework.cloud.contract.spec.Contract
 import org.springframework.cloud.contract.spec.ContractConverter
 import java.io.File
@@ -28,11 +29,20 @@ import javax.script.ScriptEngineManager
  * @author Tim Ysewyn
  * @since 2.2.0
  */
-class KotlinContractConverter : ContractConverter<List<Contract>> {
+class KotlinContractConverter internal constructor(evaluatorFactory: () -> KotlinScriptEvaluator) :
+        ContractConverter<List<Contract>> {
 
     private val ext = "kts"
 
-    constructor() {
+    // Created on first use, the compiler it's built on might not link with the Kotlin version on the classpath
+    private val evaluator by lazy(evaluatorFactory)
+
+    @Volatile
+    private var scriptEngineOnly = false
+
+    constructor() : this({ KotlinScriptEvaluator() })
+
+    init {
         // Sets an {@code idea.use.native.fs.for.win} system property to {@code false}
         // to disable a native engine discovery for Windows: may be resolved in the future Kotlin versions.
         System.setProperty("idea.use.native.fs.for.win", "false")
@@ -43,13 +53,7 @@ class KotlinContractConverter : ContractConverter<List<Contract>> {
     }
 
     override fun convertFrom(file: File): Collection<Contract> {
-        val eval = withUpdatedClassloader(file) {
-            file.reader().use {
-                // Get a new engine every time we need to process a file.
-                // Reusing the script engine could leak context and will fail subsequent evals
-                ScriptEngineManager().getEngineByExtension(ext).eval(it)
-            }
-        }
+        val eval = withUpdatedClassloader(file) { evaluate(file) }
         return when (eval) {
             is Contract -> listOf(eval)
             is Iterable<*> -> eval.filterIsInstance(Contract::class.java)
@@ -60,7 +64,25 @@ class KotlinContractConverter : ContractConverter<List<Contract>> {
 
     override fun convertTo(contract: Collection<Contract>) = contract.toList()
 
-    private fun withUpdatedClassloader(file: File, block: ClassLoader.() -> Any): Any {
+    private fun ClassLoader.evaluate(file: File): Any? {
+        if (!scriptEngineOnly) {
+            try {
+                // The compiled script is reused, but each evaluation gets its own class loader
+                return evaluator.evaluate(file, parent ?: KotlinContractConverter::class.java.classLoader, this)
+            } catch (ex: LinkageError) {
+                log.warn("The Kotlin scripting compiler is not compatible with the Kotlin version on the classpath. " +
+                        "Will evaluate the contracts with the Kotlin script engine", ex)
+                scriptEngineOnly = true
+            }
+        }
+        return file.reader().use {
+            // Get a new engine every time we need to process a file.
+            // Reusing the script engine could leak context and will fail subsequent evals
+            ScriptEngineManager().getEngineByExtension(ext).eval(it)
+        }
+    }
+
+    private fun withUpdatedClassloader(file: File, block: ClassLoader.() -> Any?): Any? {
         val currentClassLoader = Thread.currentThread().contextClassLoader
         try {
             val tempClassLoader = newInstance(arrayOf(file.parentFile.toURI().toURL()), currentClassLoader)
@@ -70,4 +92,8 @@ class KotlinContractConverter : ContractConverter<List<Contract>> {
             Thread.currentThread().contextClassLoader = currentClassLoader
         }
     }
+
+    companion object {
+        private val log = LogFactory.getLog(KotlinContractConverter::class.java)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.spec.internal
+
+import org.apache.commons.logging.LogFactory
+import org.jetbrains.kotlin.scripting.compiler.plugin.impl.ScriptJvmCompilerIsolated
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.spec.ContractDsl
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.InputStream
+import java.io.InvalidClassException
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.io.ObjectStreamClass
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.Arrays
+import java.util.Collections
+import java.util.LinkedList
+import java.util.TreeMap
+import java.util.TreeSet
+import java.util.WeakHashMap
+import kotlin.coroutines.Continuation
+import kotlin.coroutines.EmptyCoroutineContext
+import kotlin.coroutines.startCoroutine
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.script.experimental.api.ResultValue
+import kotlin.script.experimental.api.ResultWithDiagnostics
+import kotlin.script.experimental.api.ScriptCompilationConfiguration
+import kotlin.script.experimental.api.ScriptDiagnostic
+import kotlin.script.experimental.api.ScriptEvaluationConfiguration
+import kotlin.script.experimental.api.valueOrNull
+import kotlin.script.experimental.host.toScriptSource
+import kotlin.script.experimental.jvm.BasicJvmScriptEvaluator
+import kotlin.script.experimental.jvm.baseClassLoader
+import kotlin.script.experimental.jvm.defaultJvmScriptingHostConfiguration
+import kotlin.script.experimental.jvm.jvm
+import kotlin.script.experimental.jvm.loadDependencies
+import kotlin.script.experimental.jvm.updateClasspath
+import kotlin.script.experimental.jvm.util.classpathFromClass
+import kotlin.script.experimental.jvm.util.classpathFromClasspathProperty
+import kotlin.script.experimental.jvm.util.classpathFromClassloader
+
+/**
+ * Evaluates Kotlin scripts with the Kotlin scripting host. A script is compiled once for
+ * a given content and compilation classpath, and the compiled script is kept in memory.
+ * When the {@code spring.cloud.contract.kotlin.scripts-cache.dir} system property is set,
+ * the compiled scripts are stored in that folder too, the least recently used ones above
+ * {@code spring.cloud.contract.kotlin.scripts-cache.max-entries} get removed. Only the
+ * classes of the Kotlin scripting API, JDK collections, boxed primitives and strings are
+ * read from that folder. Every evaluation gets its own class loader, so scripts don't
+ * share any state.
+ *
+ * The scripts are compiled with the compiler of the Kotlin version that the project is
+ * built with, which isn't a public API of the Kotlin scripting host. When it doesn't link
+ * with the Kotlin version on the classpath, {@link KotlinContractConverter} falls back
+ * to the Kotlin script engine.
+ *
+ * @since 3.0.1
+ */
+internal class KotlinScriptEvaluator(private val cacheDir: File? = defaultCacheDir(),
+        private val memoryCache: MutableMap<String, CompiledScript> = sharedMemoryCache,
+        private val maxEntries: Int = defaultMaxEntries()) {
+
+    private val compiler = ScriptJvmCompilerIsolated(defaultJvmScriptingHostConfiguration)
+
+    private val classpaths: MutableMap<ClassLoader, ScriptClasspath> = Collections.synchronizedMap(WeakHashMap())
+
+    /**
+     * Evaluates the script, compiling it first if it's not in the cache.
+     * @param file script to evaluate
+     * @param compilationClassLoader class loader whose classpath the script is compiled
+     * against
+     * @param classLoader parent of the class loader of the script
+     * @return the value of the last expression of the script
+     */
+    fun evaluate(file: File, compilationClassLoader: ClassLoader, classLoader: ClassLoader): Any? {
+        val compiled = compiled(file, compilationClassLoader)
+        val evaluationConfiguration = ScriptEvaluationConfiguration {
+            jvm {
+                baseClassLoader(classLoader)
+                // the compilation classpath is already visible from the class loader
+                loadDependencies(false)
+            }
+        }
+        val result = runSuspend { BasicJvmScriptEvaluator()(compiled, evaluationConfiguration) }
+        return when (val value = result.orFail("evaluate", file).returnValue) {
+            is ResultValue.Value -> value.value
+            is ResultValue.Error -> throw IllegalStateException("Failed to evaluate [$file]", value.error)
+            else -> null
+        }
+    }
+
+    private fun compiled(file: File, classLoader: ClassLoader): CompiledScript {
+        val script = file.readText()
+        val classpath = classpath(classLoader)
+        val key = digest(classpath.fingerprint, script)
+        memoryCache[key]?.let { return it }
+        val cached = read(key)
+        if (cached != null) {
+            memoryCache[key] = cached
+            return cached
+        }
+        val compilationConfiguration = ScriptCompilationConfiguration {
+            jvm {
+                updateClasspath(classpath.files)
+            }
+        }
+        val compiled = compiler.compile(script.toScriptSource(file.name), compilationConfiguration)
+                .orFail("compile", file)
+        memoryCache[key] = compiled
+        write(key, file, compiled)
+        return compiled
+    }
+
+    private fun classpath(classLoader: ClassLoader): ScriptClasspath {
+        return classpaths.getOrPut(classLoader) {
+            val files = compilationClasspath(classLoader)
+            ScriptClasspath(files, digest(FORMAT_VERSION.toString(), KotlinVersion.CURRENT.toString(),
+                    javaClass.getPackage()?.implementationVersion.toString(), *files.map(::fingerprint).toTypedArray()))
+        }
+    }
+
+    /**
+     * The class loader might not expose the whole classpath (e.g. with a manifest-only
+     * jar), then the classpath from the system property is used.
+     */
+    private fun compilationClasspath(classLoader: ClassLoader): List<File> {
+        val required = listOf(Contract::class, ContractDsl::class)
+                .flatMap { classpathFromClass(classLoader, it).orEmpty() }
+        val fromClassLoader = classpathFromClassloader(classLoader).orEmpty()
+        val files = if (fromClassLoader.containsAll(required)) fromClassLoader else classpathFromClasspathProperty().orEmpty()
+        return (files + required).distinct()
+    }
+
+    private fun read(key: String): CompiledScript? {
+        val entry = entry(key) ?: return null
+        if (!entry.isFile) {
+            return null
+        }
+        return try {
+            val compiled = ClassLoaderAwareObjectInputStream(BufferedInputStream(entry.inputStream())).use {
+                it.readObject() as CompiledScript
+            }
+            entry.setLastModified(System.currentTimeMillis())
+            compiled
+        } catch (ex: Exception) {
+            if (log.isDebugEnabled) {
+                log.debug("Failed to read the compiled script [$entry]. Will compile the script again", ex)
+            }
+            null
+        }
+    }
+
+    private fun write(key: String, file: File, compiled: CompiledScript) {
+        val entry = entry(key) ?: return
+        var staging: File? = null
+        try {
+            Files.createDirectories(entry.parentFile.toPath())
+            staging = Files.createTempFile(entry.parentFile.toPath(), ".staging-", ".tmp").toFile()
+            ObjectOutputStream(BufferedOutputStream(staging.outputStream())).use { it.writeObject(compiled) }
+            Files.move(staging.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING)
+            evict(entry.parentFile)
+        } catch (ex: Exception) {
+            if (log.isDebugEnabled) {
+                log.debug("Failed to store the compiled script of [$file] in [$entry]", ex)
+            }
+        } finally {
+            staging?.delete()
+        }
+    }
+
+    private fun entry(key: String): File? = cacheDir?.let { File(it, "$key$ENTRY_SUFFIX") }
+
+    /**
+     * Removes the least recently used compiled scripts above the size limit.
+     */
+    private fun evict(dir: File) {
+        val entries = dir.listFiles { file -> file.name.endsWith(ENTRY_SUFFIX) }.orEmpty()
+        if (entries.size <= maxEntries) {
+            return
+        }
+        entries.sortedBy { it.lastModified() }.take(entries.size - maxEntries).forEach {
+            if (!it.delete() && log.isDebugEnabled) {
+                log.debug("Failed to remove the compiled script [$it]")
+            }
+        }
+    }
+
+    private fun <T> ResultWithDiagnostics<T>.orFail(action: String, file: File): T =
+            valueOrNull() ?: throw IllegalStateException("Failed to $action [$file]: " + reports
+                    .filter { it.severity >= ScriptDiagnostic.Severity.ERROR }
+                    .joinToString("\n") { it.render() }, reports.mapNotNull { it.exception }.firstOrNull())
+
+    /**
+     * Compilation classpath with a checksum of its entries.
+     */
+    private class ScriptClasspath(val files: List<File>, val fingerprint: String)
+
+    /**
+     * Compiled scripts reference classes of the Kotlin scripting libraries. Only the
+     * classes that compiled scripts consist of are resolved.
+     */
+    private class ClassLoaderAwareObjectInputStream(input: InputStream) : ObjectInputStream(input) {
+
+        override fun resolveClass(desc: ObjectStreamClass): Class<*> {
+            if (!isAllowed(desc.name)) {
+                throw InvalidClassException(desc.name, "Class is not allowed in the compiled scripts cache")
+            }
+            return try {
+                Class.forName(desc.name, false, KotlinScriptEvaluator::class.java.classLoader)
+            } catch (ex: ClassNotFoundException) {
+                super.resolveClass(desc)
+            }
+        }
+
+        override fun resolveProxyClass(interfaces: Array<out String>): Class<*> =
+                throw InvalidClassException("Proxy classes are not allowed in the compiled scripts cache")
+
+        private fun isAllowed(className: String): Boolean {
+            var name = className
+            if (name.startsWith("[")) {
+                // arrays of primitives or of allowed classes
+                name = name.substringAfterLast('[')
+                if (name.length == 1) {
+                    return true
+                }
+                name = name.substring(1, name.length - 1)
+            }
+            return ALLOWED_PACKAGES.any { name.startsWith(it) } || name in ALLOWED_CLASSES
+        }
+    }
+
+    companion object {
+
+        private val log = LogFactory.getLog(KotlinScriptEvaluator::class.java)
+
+        /**
+         * Version of the layout of the cached scripts.
+         */
+        private const val FORMAT_VERSION = 1
+
+        private const val CACHE_DIR_PROPERTY = "spring.cloud.contract.kotlin.scripts-cache.dir"
+
+        private const val MAX_ENTRIES_PROPERTY = "spring.cloud.contract.kotlin.scripts-cache.max-entries"
+
+        private const val DEFAULT_MAX_ENTRIES = 1000
+
+        private const val ENTRY_SUFFIX = ".bin"
+
+        private val ALLOWED_PACKAGES = listOf("kotlin.script.experimental.", "kotlin.collections.",
+                "java.util.Collections$")
+
+        private val ALLOWED_CLASSES = setOf(String::class.java, java.lang.Boolean::class.java,
+                java.lang.Byte::class.java, java.lang.Character::class.java, java.lang.Short::class.java,
+                java.lang.Integer::class.java, java.lang.Long::class.java, java.lang.Float::class.java,
+                java.lang.Double::class.java, java.lang.Number::class.java, java.lang.Enum::class.java,
+                ArrayList::class.java, LinkedList::class.java, HashMap::class.java, LinkedHashMap::class.java,
+                HashSet::class.java, LinkedHashSet::class.java, TreeMap::class.java, TreeSet::class.java,
+                Arrays.asList<Any>().javaClass, File::class.java,
+                Pair::class.java, Triple::class.java, Unit::class.java).map { it.name }.toSet() +
+                // the bytecode of the compiled script
+                "org.jetbrains.kotlin.scripting.compiler.plugin.impl.KJvmCompiledModuleInMemoryImpl"
+
+        private const val MEMORY_CACHE_SIZE = 1000
+
+        /**
+         * Compiled scripts shared by all evaluators, the least recently used are removed first.
+         */
+        private val sharedMemoryCache: MutableMap<String, CompiledScript> = Collections.synchronizedMap(
+                object : LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CompiledScript>) =
+                            size > MEMORY_CACHE_SIZE
+                })
+
+        private fun defaultCacheDir(): File? {
+            val dir = System.getProperty(CACHE_DIR_PROPERTY)
+            return if (dir.isNullOrBlank()) null else File(dir)
+        }
+
+        private fun defaultMaxEntries(): Int =
+                System.getProperty(MAX_ENTRIES_PROPERTY)?.takeIf { it.isNotBlank() }?.toInt() ?: DEFAULT_MAX_ENTRIES
+
+        private fun fingerprint(file: File): String = if (file.isDirectory) {
+            file.walkTopDown().filter { it.isFile }.sortedBy { it.path }
+                    .joinToString("|") { "${it.path}:${it.length()}:${it.lastModified()}" }
+        } else {
+            "${file.path}:${file.length()}:${file.lastModified()}"
+        }
+
+        private fun digest(vararg values: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            values.forEach { digest.update(it.toByteArray()); digest.update(0) }
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+
+        /**
+         * The evaluator doesn't suspend, so the result is available once the coroutine
+         * returns.
+         */
+        private fun <T> runSuspend(block: suspend () -> T): T {
+            var result: Result<T>? = null
+            block.startCoroutine(Continuation(EmptyCoroutineContext) { result = it })
+            return checkNotNull(result) { "The script evaluation was suspended" }.getOrThrow()
+        }
+    }
+}
@@ -53,5 +53,28 @@ class KotlinContractConverterTests {
         contracts.forEach(Contract::assertContract)
     }
 
+    @Test
+    fun `should convert the same contract definition many times`() {
+        val converter = KotlinContractConverter()
+        val contracts = converter.convertFrom(file("contracts/multipleDefinitions.kts"))
+        val convertedAgain = converter.convertFrom(file("contracts/multipleDefinitions.kts"))
+        assertEquals(contracts, convertedAgain)
+    }
+
+    @Test
+    fun `should fall back to the script engine when the scripting compiler doesn't link`() {
+        var created = 0
+        val converter = KotlinContractConverter {
+            created++
+            throw NoSuchMethodError("ScriptJvmCompilerIsolated")
+        }
+        val contracts = converter.convertFrom(file("contracts/multipleDefinitions.kts"))
+        val convertedAgain = converter.convertFrom(file("contracts/multipleDefinitions.kts"))
+        assertEquals(2, contracts.size)
+        contracts.forEach(Contract::assertContract)
+        assertEquals(contracts, convertedAgain)
+        assertEquals(1, created)
+    }
+
     private fun file(filename: String) = File(javaClass.classLoader.getResource(filename)!!.toURI())
 }
\ No newline at end of file
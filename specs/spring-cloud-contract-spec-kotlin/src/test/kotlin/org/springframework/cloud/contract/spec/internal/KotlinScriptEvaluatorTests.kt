@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.spec.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.springframework.cloud.contract.spec.Contract
+import java.io.File
+import java.io.ObjectOutputStream
+import java.nio.file.Files
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.script.experimental.api.CompiledScript
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNotEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class KotlinScriptEvaluatorTests {
+
+    @TempDir
+    lateinit var tmp: File
+
+    private val classLoader = javaClass.classLoader
+
+    @Test
+    fun `should compile a script once and evaluate it in isolation`() {
+        val memoryCache = ConcurrentHashMap<String, CompiledScript>()
+        val evaluator = KotlinScriptEvaluator(null, memoryCache)
+
+        val first = evaluator.evaluate(script("counter.kts", COUNTER), classLoader, classLoader)
+        val compiled = memoryCache.values.single()
+        val second = evaluator.evaluate(script("counter.kts", COUNTER), classLoader, classLoader)
+
+        assertSame(compiled, memoryCache.values.single())
+        assertEquals(1, first)
+        assertEquals(1, second)
+    }
+
+    @Test
+    fun `should read the compiled script from the disk cache`() {
+        val cacheDir = File(tmp, "cache")
+        val file = file("contracts/singleDefinition.kts")
+        val contract = KotlinScriptEvaluator(cacheDir, ConcurrentHashMap()).evaluate(file, classLoader, classLoader)
+        val entry = entries(cacheDir).single()
+        val stored = fileKey(entry)
+        val memoryCache = ConcurrentHashMap<String, CompiledScript>()
+
+        val cached = KotlinScriptEvaluator(cacheDir, memoryCache).evaluate(file, classLoader, classLoader)
+
+        // the entry would be replaced if the script was compiled again
+        assertEquals(stored, fileKey(entries(cacheDir).single()))
+        assertEquals(contract, cached)
+        assertTrue(cached is Contract)
+        assertEquals(1, memoryCache.size)
+    }
+
+    @Test
+    fun `should remove the least recently used compiled scripts above the limit`() {
+        val cacheDir = File(tmp, "cache")
+        val evaluator = KotlinScriptEvaluator(cacheDir, ConcurrentHashMap(), 1)
+
+        evaluator.evaluate(script("first.kts", "1 + 1"), classLoader, classLoader)
+        val first = entries(cacheDir).single()
+        first.setLastModified(1000L)
+        evaluator.evaluate(script("second.kts", "2 + 2"), classLoader, classLoader)
+
+        assertEquals(1, entries(cacheDir).size)
+        assertFalse(first.exists())
+    }
+
+    @Test
+    fun `should not read classes that are not part of compiled scripts from the disk cache`() {
+        val cacheDir = File(tmp, "cache")
+        val script = script("value.kts", "1 + 1")
+        KotlinScriptEvaluator(cacheDir, ConcurrentHashMap()).evaluate(script, classLoader, classLoader)
+        val entry = entries(cacheDir).single()
+        ObjectOutputStream(entry.outputStream()).use { it.writeObject(listOf(AtomicInteger(1))) }
+        val stored = fileKey(entry)
+
+        val value = KotlinScriptEvaluator(cacheDir, ConcurrentHashMap()).evaluate(script, classLoader, classLoader)
+
+        assertEquals(2, value)
+        assertNotEquals(stored, fileKey(entries(cacheDir).single()))
+    }
+
+    @Test
+    fun `should compile the script again when it changed`() {
+        val memoryCache = ConcurrentHashMap<String, CompiledScript>()
+        val evaluator = KotlinScriptEvaluator(null, memoryCache)
+
+        val first = evaluator.evaluate(script("value.kts", "1 + 1"), classLoader, classLoader)
+        val second = evaluator.evaluate(script("value.kts", "2 + 2"), classLoader, classLoader)
+
+        assertEquals(2, first)
+        assertEquals(4, second)
+        assertEquals(2, memoryCache.size)
+        assertNotSame(memoryCache.values.first(), memoryCache.values.last())
+    }
+
+    @Test
+    fun `should fail when the script does not compile`() {
+        val evaluator = KotlinScriptEvaluator(null, ConcurrentHashMap())
+
+        val exception = assertFailsWith<IllegalStateException> {
+            evaluator.evaluate(script("broken.kts", "foo("), classLoader, classLoader)
+        }
+
+        assertTrue(exception.message!!.startsWith("Failed to compile"))
+    }
+
+    private fun entries(cacheDir: File) = cacheDir.listFiles { it -> it.name.endsWith(".bin") }!!.toList()
+
+    private fun fileKey(file: File) = Files.readAttributes(file.toPath(), BasicFileAttributes::class.java).fileKey()
+
+    private fun script(name: String, content: String) = File(tmp, name).apply { writeText(content) }
+
+    private fun file(filename: String) = File(javaClass.classLoader.getResource(filename)!!.toURI())
+
+    companion object {
+
+        /**
+         * Would return 2 on the second evaluation if the script class was shared.
+         */
+        private const val COUNTER = """
+            object Counter { var count = 0 }
+            Counter.count += 1
+            Counter.count
+        """
+    }
+}
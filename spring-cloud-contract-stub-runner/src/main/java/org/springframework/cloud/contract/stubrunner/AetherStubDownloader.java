@@ -20,6 +20,7 @@ import java.io.File;
 import java.net.URI;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -71,6 +72,11 @@ public class AetherStubDownloader implements StubDownloader {
 	// Preloading class for the shutdown hook not to throw ClassNotFound
 	private static final Class CLAZZ = TemporaryFileStorage.class;
 
+	/**
+	 * Set to {@code false} to read the stubs straight from the jar instead of unpacking it.
+	 */
+	private static final String UNPACK_STUBS_PROPERTY = "stubs.unpack";
+
 	private final List<RemoteRepository> remoteRepos;
 
 	private final RepositorySystem repositorySystem;
@@ -83,8 +89,19 @@ public class AetherStubDownloader implements StubDownloader {
 
 	private final Settings settings;
 
+	private final StubUnpackCache unpackCache;
+
+	private final boolean unpackStubs;
+
 	public AetherStubDownloader(StubRunnerOptions stubRunnerOptions) {
 		this.deleteStubsAfterTest = stubRunnerOptions.isDeleteStubsAfterTest();
+		// generating stubs at runtime rewrites the mappings on disk, so the stubs get
+		// unpacked to a private folder instead of the shared cache
+		this.unpackCache = stubRunnerOptions.isGenerateStubs() ? null
+				: StubUnpackCache.fromProperties(stubRunnerOptions.getProperties());
+		this.unpackStubs = !"false".equals(
+				StubRunnerPropertyUtils.getProperty(stubRunnerOptions.getProperties(), UNPACK_STUBS_PROPERTY))
+				|| stubRunnerOptions.isGenerateStubs();
 		if (log.isDebugEnabled()) {
 			log.debug("Will be resolving versions for the following options: [" + stubRunnerOptions + "]");
 		}
@@ -121,6 +138,8 @@ public class AetherStubDownloader implements StubDownloader {
 	public AetherStubDownloader(RepositorySystem repositorySystem, List<RemoteRepository> remoteRepositories,
 			RepositorySystemSession session, Settings settings) {
 		this.deleteStubsAfterTest = true;
+		this.unpackCache = StubUnpackCache.fromProperties(new HashMap<>());
+		this.unpackStubs = true;
 		this.remoteRepos = remoteRepositories;
 		this.settings = settings;
 		this.repositorySystem = repositorySystem;
@@ -132,6 +151,17 @@ public class AetherStubDownloader implements StubDownloader {
 		registerShutdownHook();
 	}
 
+	private File unpackStubJar(URI stubJarUri) {
+		if (!this.unpackStubs) {
+			log.info("Stubs will be read straight from JAR [URI: " + stubJarUri + "]");
+			return new File(stubJarUri);
+		}
+		if (this.unpackCache != null) {
+			return this.unpackCache.unpack(new File(stubJarUri));
+		}
+		return unpackStubJarToATemporaryFolder(stubJarUri);
+	}
+
 	private static File unpackStubJarToATemporaryFolder(URI stubJarUri) {
 		File tmpDirWhereStubsWillBeUnzipped = TemporaryFileStorage.createTempDir(TEMP_DIR_PREFIX);
 		log.info("Unpacking stub from JAR [URI: " + stubJarUri + "]");
@@ -203,7 +233,7 @@ public class AetherStubDownloader implements StubDownloader {
 			}
 			ArtifactResult result = this.repositorySystem.resolveArtifact(this.session, request);
 			log.info("Resolved artifact [" + artifact + "] to " + result.getArtifact().getFile());
-			File temporaryFile = unpackStubJarToATemporaryFolder(result.getArtifact().getFile().toURI());
+			File temporaryFile = unpackStubJar(result.getArtifact().getFile().toURI());
 			log.info("Unpacked file to [" + temporaryFile + "]");
 			return temporaryFile;
 		}
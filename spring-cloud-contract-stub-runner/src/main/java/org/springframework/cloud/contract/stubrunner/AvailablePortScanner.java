@@ -19,6 +19,8 @@ package org.springframework.cloud.contract.stubrunner;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -32,6 +34,12 @@ class AvailablePortScanner {
 
 	private static final int MAX_RETRY_COUNT = 1000;
 
+	/**
+	 * Ports that were picked but might not have been bound yet. Since stubs can be
+	 * started in parallel we need to ensure that two threads don't pick the same port.
+	 */
+	private static final Set<Integer> RESERVED_PORTS = ConcurrentHashMap.newKeySet();
+
 	private final int minPortNumber;
 
 	private final int maxPortNumber;
@@ -60,8 +68,16 @@ class AvailablePortScanner {
 			try {
 				int numberOfPortsToBind = this.maxPortNumber - this.minPortNumber + 1;
 				int portToScan = new Random().nextInt(numberOfPortsToBind) + this.minPortNumber;
-				checkIfPortIsAvailable(portToScan);
-				return executeLogicForAvailablePort(portToScan, closure);
+				if (!RESERVED_PORTS.add(portToScan)) {
+					continue;
+				}
+				try {
+					checkIfPortIsAvailable(portToScan);
+					return executeLogicForAvailablePort(portToScan, closure);
+				}
+				finally {
+					RESERVED_PORTS.remove(portToScan);
+				}
 			}
 			catch (IOException exception) {
 				if (log.isDebugEnabled()) {
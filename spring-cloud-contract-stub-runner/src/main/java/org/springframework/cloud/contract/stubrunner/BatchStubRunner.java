@@ -17,10 +17,13 @@
 package org.springframework.cloud.contract.stubrunner;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -36,20 +39,65 @@ public class BatchStubRunner implements StubRunning {
 
 	private final Iterable<StubRunner> stubRunners;
 
+	private final int startupParallelism;
+
+	/**
+	 * Stubs started by the first call to {@link #runStubs()}. Once started, the stubs
+	 * don't change until the runner gets closed, so subsequent calls (e.g. from the stub
+	 * runner server's controller) don't iterate over all runners again.
+	 */
+	private volatile RunningStubs runningStubs;
+
 	public BatchStubRunner(Iterable<StubRunner> stubRunners) {
+		this(stubRunners, 1);
+	}
+
+	/**
+	 * @param stubRunners stub runners to manage
+	 * @param startupParallelism number of threads used to start the stubs, {@code 1}
+	 * means that the stubs are started sequentially
+	 */
+	public BatchStubRunner(Iterable<StubRunner> stubRunners, int startupParallelism) {
 		this.stubRunners = stubRunners;
+		this.startupParallelism = startupParallelism;
 	}
 
 	@Override
 	public RunningStubs runStubs() {
+		RunningStubs stubs = this.runningStubs;
+		if (stubs != null) {
+			return stubs;
+		}
+		synchronized (this) {
+			if (this.runningStubs == null) {
+				this.runningStubs = startStubs();
+			}
+			return this.runningStubs;
+		}
+	}
+
+	private RunningStubs startStubs() {
+		List<StubRunner> runners = new ArrayList<>();
+		this.stubRunners.forEach(runners::add);
+		// if any stub fails to start in parallel, the already started ones get stopped
+		List<RunningStubs> started = ParallelStartup.run(runners, this.startupParallelism, StubRunner::runStubs,
+				BatchStubRunner::stop);
 		Map<StubConfiguration, Integer> map = new LinkedHashMap<>();
-		for (StubRunner value : this.stubRunners) {
-			RunningStubs runningStubs = value.runStubs();
+		for (RunningStubs runningStubs : started) {
 			map.putAll(runningStubs.validNamesAndPorts());
 		}
 		return new RunningStubs(map);
 	}
 
+	private static void stop(StubRunner stubRunner) {
+		try {
+			stubRunner.close();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
 	@Override
 	public URL findStubUrl(String groupId, String artifactId) {
 		for (StubRunner stubRunner : this.stubRunners) {
@@ -170,6 +218,7 @@ public class BatchStubRunner implements StubRunning {
 
 	@Override
 	public void close() throws IOException {
+		this.runningStubs = null;
 		for (StubRunner stubRunner : this.stubRunners) {
 			stubRunner.close();
 		}
@@ -61,7 +61,8 @@ public class BatchStubRunnerFactory {
 	public BatchStubRunner buildBatchStubRunner() {
 		StubRunnerFactory stubRunnerFactory = new StubRunnerFactory(this.stubRunnerOptions, this.stubDownloader,
 				this.contractVerifierMessaging);
-		return new BatchStubRunner(stubRunnerFactory.createStubsFromServiceConfiguration());
+		return new BatchStubRunner(stubRunnerFactory.createStubsFromServiceConfiguration(),
+				this.stubRunnerOptions.getStartupParallelism());
 	}
 
 }
@@ -22,6 +22,9 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.jcraft.jsch.IdentityRepository;
@@ -39,6 +42,7 @@ import org.apache.commons.logging.LogFactory;
 import org.eclipse.jgit.api.CheckoutCommand;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CreateBranchCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ListBranchCommand;
 import org.eclipse.jgit.api.PullCommand;
@@ -47,13 +51,17 @@ import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.TransportConfigCallback;
 import org.eclipse.jgit.api.errors.EmptyCommitException;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
 import org.eclipse.jgit.transport.OpenSshConfig;
 import org.eclipse.jgit.transport.SshTransport;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.util.FS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -112,9 +120,24 @@ class GitRepo {
 	 * @return file where the project was cloned
 	 */
 	File cloneProject(URI projectUri) {
+		return cloneProject(projectUri, null);
+	}
+
+	/**
+	 * Clones only the given branch of the project, without checking out any files. The
+	 * files can be checked out later with {@link #checkoutPaths(File, String, Collection)}.
+	 * @param projectUri - URI of the project
+	 * @param branch - the only branch to clone
+	 * @return file where the project was cloned
+	 */
+	File cloneProjectWithoutCheckout(URI projectUri, String branch) {
+		return cloneProject(projectUri, branch);
+	}
+
+	private File cloneProject(URI projectUri, String singleBranch) {
 		try {
 			log.info("Cloning repo from [" + projectUri + "] to [" + this.basedir + "]");
-			Git git = cloneToBasedir(projectUri, this.basedir);
+			Git git = cloneToBasedir(projectUri, this.basedir, singleBranch);
 			if (git != null) {
 				git.close();
 			}
@@ -164,6 +187,70 @@ class GitRepo {
 		}
 	}
 
+	/**
+	 * Fetches changes for the project without touching the working tree.
+	 * @param project - a Git project
+	 */
+	void fetch(File project) {
+		try (Git git = this.gitFactory.open(file(project))) {
+			this.gitFactory.fetch(git).call();
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Lists all folders of the project at the given revision. Reads only the trees from
+	 * the object database, not the working tree.
+	 * @param project - a Git project
+	 * @param revision - revision to read the folders from
+	 * @return slash separated paths of the folders relative to the project root, or an
+	 * empty list if the revision doesn't exist
+	 */
+	List<String> folders(File project, String revision) {
+		try (Git git = this.gitFactory.open(file(project))) {
+			Repository repository = git.getRepository();
+			ObjectId commitId = repository.resolve(revision);
+			if (commitId == null) {
+				log.warn("Revision [" + revision + "] not found in [" + project + "]");
+				return Collections.emptyList();
+			}
+			List<String> folders = new ArrayList<>();
+			try (RevWalk revWalk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+				treeWalk.addTree(revWalk.parseCommit(commitId).getTree());
+				while (treeWalk.next()) {
+					if (treeWalk.isSubtree()) {
+						folders.add(treeWalk.getPathString());
+						treeWalk.enterSubtree();
+					}
+				}
+			}
+			return folders;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Checks out only the given paths from the given revision.
+	 * @param project - a Git project
+	 * @param revision - revision to check out the paths from
+	 * @param paths - slash separated paths relative to the project root
+	 */
+	void checkoutPaths(File project, String revision, Collection<String> paths) {
+		try (Git git = this.gitFactory.open(file(project))) {
+			git.checkout().setStartPoint(revision).addPaths(new ArrayList<>(paths)).call();
+			if (log.isDebugEnabled()) {
+				log.debug("Checked out paths " + paths + " from revision [" + revision + "]");
+			}
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/**
 	 * Performs a commit.
 	 * @param project - a Git project
@@ -212,13 +299,17 @@ class GitRepo {
 		return ResourceUtils.getFile(project.toURI()).getAbsoluteFile();
 	}
 
-	private Git cloneToBasedir(URI projectUrl, File destinationFolder) {
+	private Git cloneToBasedir(URI projectUrl, File destinationFolder, String singleBranch) {
 		String projectGitUrl = sanitizeGitUrl(projectUrl);
 		if (log.isDebugEnabled()) {
 			log.debug("Project git url [" + projectGitUrl + "]");
 		}
 		CloneCommand command = this.gitFactory.getCloneCommandByCloneRepository().setURI(projectGitUrl)
 				.setDirectory(destinationFolder);
+		if (singleBranch != null) {
+			command.setBranch(singleBranch).setCloneAllBranches(false)
+					.setBranchesToClone(Collections.singletonList("refs/heads/" + singleBranch)).setNoCheckout(true);
+		}
 		try {
 			Git git = command.call();
 			if (git.getRepository().getRemoteNames().isEmpty()) {
@@ -395,6 +486,10 @@ class GitRepo {
 			return git.push().setCredentialsProvider(this.provider).setTransportConfigCallback(this.callback);
 		}
 
+		FetchCommand fetch(Git git) {
+			return git.fetch().setCredentialsProvider(this.provider).setTransportConfigCallback(this.callback);
+		}
+
 		PullCommand pull(Git git) {
 			return git.pull().setCredentialsProvider(this.provider).setTransportConfigCallback(this.callback);
 		}
@@ -17,7 +17,9 @@
 package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.stream.Collectors;
 
 /**
  * Describes an HTTP Server Stub.
@@ -74,6 +76,18 @@ public interface HttpServerStub {
 	 */
 	HttpServerStub registerMappings(Collection<File> stubFiles);
 
+	/**
+	 * Registers the stub mappings in the HTTP server stub. The paths may point to entries
+	 * of a stub jar. By default the paths get converted to files, entries of a stub jar
+	 * get extracted to temporary files. Should return itself to allow chaining.
+	 * @param stubPaths collection of paths containing stubs
+	 * @return this
+	 * @since 3.0.1
+	 */
+	default HttpServerStub registerMappingPaths(Collection<Path> stubPaths) {
+		return registerMappings(stubPaths.stream().map(TemporaryFileStorage::toFile).collect(Collectors.toList()));
+	}
+
 	/**
 	 * @return a collection of registered mappings.
 	 */
@@ -85,4 +99,16 @@ public interface HttpServerStub {
 	 */
 	boolean isAccepted(File file);
 
+	/**
+	 * Override it if the implementation can read the stub mappings straight from a stub
+	 * jar. By default entries of a stub jar get extracted to temporary files that are
+	 * checked with {@link #isAccepted(File)}.
+	 * @param path path to check if can be accepted, may point to an entry of a stub jar
+	 * @return {@code true} if the path is a valid stub mapping
+	 * @since 3.0.1
+	 */
+	default boolean isAccepted(Path path) {
+		return isAccepted(TemporaryFileStorage.toFile(path));
+	}
+
 }
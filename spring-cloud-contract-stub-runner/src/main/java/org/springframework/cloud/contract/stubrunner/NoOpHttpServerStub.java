@@ -17,6 +17,7 @@
 package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Collection;
 
 /**
@@ -49,6 +50,11 @@ class NoOpHttpServerStub implements HttpServerStub {
 		return this;
 	}
 
+	@Override
+	public HttpServerStub registerMappingPaths(Collection<Path> stubPaths) {
+		return this;
+	}
+
 	@Override
 	public String registeredMappings() {
 		return "";
@@ -59,4 +65,9 @@ class NoOpHttpServerStub implements HttpServerStub {
 		return true;
 	}
 
+	@Override
+	public boolean isAccepted(Path path) {
+		return true;
+	}
+
 }
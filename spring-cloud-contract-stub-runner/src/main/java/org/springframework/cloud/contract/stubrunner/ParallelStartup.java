@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs the startup of stubs (downloading, unpacking, starting servers) on a bounded
+ * executor. The results are returned in the same order as the passed elements. If any of
+ * the tasks fails, the tasks that haven't been started yet are skipped, the elements
+ * whose tasks succeeded are rolled back and an exception containing all failures is
+ * thrown. Without parallelism the tasks run one after another as before, the first
+ * failure is rethrown and nothing is rolled back.
+ *
+ * @since 3.0.1
+ */
+final class ParallelStartup {
+
+	private static final Log log = LogFactory.getLog(ParallelStartup.class);
+
+	private ParallelStartup() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	static <T, R> List<R> run(Collection<T> elements, int parallelism, Function<T, R> task) {
+		return run(elements, parallelism, task, element -> {
+		});
+	}
+
+	/**
+	 * @param elements elements to run the task for
+	 * @param parallelism maximum number of threads
+	 * @param task task to run for each element
+	 * @param rollback called for each element whose task succeeded when any other task
+	 * running in parallel failed (e.g. stops an already started stub)
+	 * @param <T> type of elements
+	 * @param <R> type of results
+	 * @return results in the order of the elements
+	 */
+	static <T, R> List<R> run(Collection<T> elements, int parallelism, Function<T, R> task,
+			Consumer<T> rollback) {
+		if (parallelism <= 1 || elements.size() <= 1) {
+			return runSequentially(elements, task);
+		}
+		int threads = Math.min(parallelism, elements.size());
+		if (log.isDebugEnabled()) {
+			log.debug("Will start [" + elements.size() + "] stubs using [" + threads + "] threads");
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new StartupThreadFactory());
+		try {
+			return runInParallel(elements, task, rollback, executor);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T, R> List<R> runSequentially(Collection<T> elements, Function<T, R> task) {
+		List<R> results = new ArrayList<>();
+		for (T element : elements) {
+			results.add(task.apply(element));
+		}
+		return results;
+	}
+
+	private static <T, R> List<R> runInParallel(Collection<T> elements, Function<T, R> task,
+			Consumer<T> rollback, ExecutorService executor) {
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Future<R>> futures = new ArrayList<>();
+		for (T element : elements) {
+			futures.add(executor.submit(() -> {
+				// fail fast - whatever hasn't been started yet won't get started
+				if (failed.get()) {
+					return null;
+				}
+				try {
+					return task.apply(element);
+				}
+				catch (RuntimeException | Error ex) {
+					failed.set(true);
+					throw ex;
+				}
+			}));
+		}
+		List<R> results = new ArrayList<>(futures.size());
+		List<T> succeeded = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		List<T> list = new ArrayList<>(elements);
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				R result = futures.get(i).get();
+				results.add(result);
+				// tasks skipped because of a failure don't return anything
+				if (result != null) {
+					succeeded.add(list.get(i));
+				}
+			}
+			catch (ExecutionException ex) {
+				failures.add(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the stubs to start", ex);
+			}
+		}
+		if (!failures.isEmpty()) {
+			IllegalStateException exception = startupFailure(failures);
+			rollback(succeeded, rollback, exception);
+			throw exception;
+		}
+		return results;
+	}
+
+	private static <T> void rollback(List<T> succeeded, Consumer<T> rollback, Throwable failure) {
+		for (T element : succeeded) {
+			try {
+				rollback.accept(element);
+			}
+			catch (RuntimeException ex) {
+				failure.addSuppressed(ex);
+			}
+		}
+	}
+
+	private static IllegalStateException startupFailure(List<Throwable> failures) {
+		IllegalStateException exception = new IllegalStateException(
+				"Failed to start [" + failures.size() + "] stub(s). First failure [" + failures.get(0) + "]",
+				failures.get(0));
+		for (int i = 1; i < failures.size(); i++) {
+			exception.addSuppressed(failures.get(i));
+		}
+		return exception;
+	}
+
+	private static final class StartupThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "stub-runner-startup-" + this.counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -16,39 +16,76 @@
 
 package org.springframework.cloud.contract.stubrunner;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 /**
  * Structure representing executed stubs. Contains the configuration of each stub together
- * with the port on which its executed.
+ * with the port on which its executed. The entries are indexed by artifact id and by group
+ * and artifact id when the structure gets created, so that looking up a port doesn't
+ * require iterating over all stubs.
  *
  * @author Marcin Grzejszczak
  */
 public class RunningStubs {
 
-	final private Map<StubConfiguration, Integer> namesAndPorts = new LinkedHashMap<>();
+	final private Map<StubConfiguration, Integer> namesAndPorts;
+
+	final private Map<String, Entry<StubConfiguration, Integer>> byArtifactId = new HashMap<>();
+
+	final private Map<String, List<Entry<StubConfiguration, Integer>>> byGroupAndArtifactId = new HashMap<>();
+
+	final private Map<String, Integer> ivyToPort;
 
 	public RunningStubs(Map<StubConfiguration, Integer> map) {
-		this.namesAndPorts.putAll(map);
+		this.namesAndPorts = Collections.unmodifiableMap(new LinkedHashMap<>(map));
+		this.ivyToPort = index();
 	}
 
 	public RunningStubs(Collection<RunningStubs> runningStubs) {
+		Map<StubConfiguration, Integer> map = new LinkedHashMap<>();
 		for (RunningStubs it : runningStubs) {
-			this.namesAndPorts.putAll(it.namesAndPorts);
+			map.putAll(it.namesAndPorts);
+		}
+		this.namesAndPorts = Collections.unmodifiableMap(map);
+		this.ivyToPort = index();
+	}
+
+	private Map<String, Integer> index() {
+		Map<String, Integer> ivyToPort = new LinkedHashMap<>();
+		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
+			StubConfiguration configuration = it.getKey();
+			// the first matching entry wins, as it would when iterating
+			this.byArtifactId.putIfAbsent(configuration.artifactId, it);
+			this.byGroupAndArtifactId
+					.computeIfAbsent(configuration.groupId + ":" + configuration.artifactId, s -> new ArrayList<>(1))
+					.add(it);
+			ivyToPort.put(configuration.toColonSeparatedDependencyNotation(), it.getValue());
 		}
+		return Collections.unmodifiableMap(ivyToPort);
 	}
 
 	public Integer getPort(String artifactId) {
-		return getEntry(artifactId) == null ? null : getEntry(artifactId).getValue();
+		Map.Entry<StubConfiguration, Integer> entry = getEntry(artifactId);
+		return entry == null ? null : entry.getValue();
 	}
 
 	public Map.Entry<StubConfiguration, Integer> getEntry(String artifactId) {
-		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
+		String[] strings = artifactId.split(":", -1);
+		if (strings.length == 1) {
+			return this.byArtifactId.get(artifactId);
+		}
+		List<Entry<StubConfiguration, Integer>> candidates = this.byGroupAndArtifactId
+				.getOrDefault(strings[0] + ":" + strings[1], Collections.emptyList());
+		for (Entry<StubConfiguration, Integer> it : candidates) {
 			if (it.getKey().matchesIvyNotation(artifactId)) {
 				return it;
 			}
@@ -57,12 +94,7 @@ public class RunningStubs {
 	}
 
 	public Integer getPort(String groupId, String artifactId) {
-		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
-			if (it.getKey().matchesIvyNotation(groupId + ":" + artifactId)) {
-				return it.getValue();
-			}
-		}
-		return null;
+		return getPort(groupId + ":" + artifactId);
 	}
 
 	public boolean isPresent(String artifactId) {
@@ -86,11 +118,7 @@ public class RunningStubs {
 	}
 
 	public Map<String, Integer> toIvyToPortMapping() {
-		Map<String, Integer> result = new LinkedHashMap<>();
-		for (Entry<StubConfiguration, Integer> it : this.namesAndPorts.entrySet()) {
-			result.put(it.getKey().toColonSeparatedDependencyNotation(), it.getValue());
-		}
-		return result;
+		return this.ivyToPort;
 	}
 
 	public Map<StubConfiguration, Integer> validNamesAndPorts() {
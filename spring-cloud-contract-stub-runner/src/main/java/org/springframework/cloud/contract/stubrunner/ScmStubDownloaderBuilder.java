@@ -28,12 +28,18 @@ import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
@@ -44,6 +50,7 @@ import org.springframework.cloud.contract.stubrunner.spring.StubRunnerProperties
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -120,12 +127,20 @@ class GitContractsRepo {
 
 	static final Map<Resource, File> CACHED_LOCATIONS = new ConcurrentHashMap<>();
 
+	static final Map<Resource, File> CACHED_SPARSE_LOCATIONS = new ConcurrentHashMap<>();
+
 	private static final Log log = LogFactory.getLog(GitContractsRepo.class);
 
 	private static final String TEMP_DIR_PREFIX = "git-contracts";
 
 	private final StubRunnerOptions options;
 
+	/**
+	 * Indexes of the repos used by this instance. Each repo gets updated at most once
+	 * per instance.
+	 */
+	private final Map<Resource, GitContractsIndex> indexes = new ConcurrentHashMap<>();
+
 	GitContractsRepo(StubRunnerOptions options) {
 		this.options = options;
 	}
@@ -155,6 +170,110 @@ class GitContractsRepo {
 		return file;
 	}
 
+	/**
+	 * Clones or updates the repo on first access and indexes its folders.
+	 * @param repo - location of the repo
+	 * @return index of the folders of the repo
+	 */
+	GitContractsIndex index(Resource repo) {
+		return this.indexes.computeIfAbsent(repo, this::updatedIndex);
+	}
+
+	private GitContractsIndex updatedIndex(Resource repo) {
+		GitStubDownloaderProperties properties = new GitStubDownloaderProperties(repo, this.options);
+		if (!properties.sparseCheckout) {
+			File file = clonedRepo(repo);
+			return new GitContractsIndex(file, new GitRepo(file, properties).folders(file, "HEAD"), null);
+		}
+		File file = CACHED_SPARSE_LOCATIONS.get(repo);
+		if (file == null) {
+			File tmpDir = TemporaryFileStorage.createTempDir(TEMP_DIR_PREFIX);
+			file = new GitRepo(tmpDir, properties).cloneProjectWithoutCheckout(properties.url, properties.branch);
+			CACHED_SPARSE_LOCATIONS.put(repo, file);
+			if (log.isDebugEnabled()) {
+				log.debug("Cloned branch [" + properties.branch + "] without checking out any files to [" + file
+						+ "]");
+			}
+		}
+		else {
+			if (log.isDebugEnabled()) {
+				log.debug("The project has already been cloned to [" + file + "]. Will fetch the latest changes.");
+			}
+			new GitRepo(file, properties).fetch(file);
+		}
+		File repoRoot = file;
+		GitRepo gitRepo = new GitRepo(repoRoot, properties);
+		String revision = "refs/remotes/origin/" + properties.branch;
+		return new GitContractsIndex(repoRoot, gitRepo.folders(repoRoot, revision), paths -> {
+			// files removed in the fetched revision have to disappear too
+			paths.forEach(path -> FileSystemUtils.deleteRecursively(new File(repoRoot, path)));
+			gitRepo.checkoutPaths(repoRoot, revision, paths);
+		});
+	}
+
+}
+
+/**
+ * Index of the folders of a cloned contracts repo, built once from the Git tree, so that
+ * the folders of an artifact are found without walking the whole working tree.
+ */
+class GitContractsIndex {
+
+	private static final Log log = LogFactory.getLog(GitContractsIndex.class);
+
+	private final File repo;
+
+	private final Map<String, Set<String>> foldersByName = new HashMap<>();
+
+	/**
+	 * Checks out the given folders or {@code null} if the whole tree is checked out.
+	 */
+	private final Consumer<Collection<String>> checkout;
+
+	private final Set<String> checkedOut = new LinkedHashSet<>();
+
+	GitContractsIndex(File repo, List<String> folders, Consumer<Collection<String>> checkout) {
+		this.repo = repo;
+		this.checkout = checkout;
+		for (String folder : folders) {
+			int lastSlash = folder.lastIndexOf('/');
+			// [group.artifact] or [group/artifact]
+			add(folder.substring(lastSlash + 1), folder);
+			if (lastSlash > -1) {
+				int previousSlash = folder.lastIndexOf('/', lastSlash - 1);
+				add(folder.substring(previousSlash + 1), folder);
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Indexed [" + folders.size() + "] folders of the repo [" + repo + "]");
+		}
+	}
+
+	private void add(String name, String folder) {
+		this.foldersByName.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(folder);
+	}
+
+	/**
+	 * @param stubConfiguration - stub to look for
+	 * @return folders that contain all versions of the given artifact
+	 */
+	synchronized List<Path> artifactFolders(StubConfiguration stubConfiguration) {
+		Set<String> folders = new LinkedHashSet<>();
+		folders.addAll(this.foldersByName.getOrDefault(
+				stubConfiguration.groupId + "." + stubConfiguration.artifactId, Collections.emptySet()));
+		folders.addAll(this.foldersByName.getOrDefault(
+				stubConfiguration.groupId + "/" + stubConfiguration.artifactId, Collections.emptySet()));
+		if (this.checkout != null) {
+			List<String> missing = new ArrayList<>(folders);
+			missing.removeAll(this.checkedOut);
+			if (!missing.isEmpty()) {
+				this.checkout.accept(missing);
+				this.checkedOut.addAll(missing);
+			}
+		}
+		return folders.stream().map(folder -> new File(this.repo, folder).toPath()).collect(Collectors.toList());
+	}
+
 }
 
 class GitStubDownloader implements StubDownloader {
@@ -185,11 +304,13 @@ class GitStubDownloader implements StubDownloader {
 						+ "]");
 			}
 			Resource repo = this.stubRunnerOptions.getStubRepositoryRoot();
-			File clonedRepo = this.gitContractsRepo.clonedRepo(repo);
-			FileWalker walker = new FileWalker(stubConfiguration);
-			Files.walkFileTree(clonedRepo.toPath(), walker);
-			if (walker.foundFile != null) {
-				return new AbstractMap.SimpleEntry<>(stubConfiguration, walker.foundFile.toFile());
+			GitContractsIndex index = this.gitContractsRepo.index(repo);
+			for (Path artifactFolder : index.artifactFolders(stubConfiguration)) {
+				FileWalker walker = new FileWalker(stubConfiguration);
+				Files.walkFileTree(artifactFolder, walker);
+				if (walker.foundFile != null) {
+					return new AbstractMap.SimpleEntry<>(stubConfiguration, walker.foundFile.toFile());
+				}
 			}
 		}
 		catch (IOException e) {
@@ -221,6 +342,8 @@ class GitStubDownloaderProperties {
 
 	private static final String GIT_ENSURE_GIT_SUFFIX_PROPERTY = "git.ensure-git-suffix";
 
+	private static final String GIT_SPARSE_CHECKOUT_PROPERTY = "git.sparse-checkout";
+
 	final URI url;
 
 	final String username;
@@ -231,6 +354,8 @@ class GitStubDownloaderProperties {
 
 	final Boolean ensureGitSuffix;
 
+	final boolean sparseCheckout;
+
 	GitStubDownloaderProperties(Resource repo, StubRunnerOptions options) {
 		String repoUrl;
 		Map<String, String> args = options.getProperties();
@@ -253,11 +378,13 @@ class GitStubDownloaderProperties {
 		this.branch = StringUtils.hasText(branch) ? branch : "master";
 		String ensureGitSuffix = StubRunnerPropertyUtils.getProperty(args, GIT_ENSURE_GIT_SUFFIX_PROPERTY);
 		this.ensureGitSuffix = StringUtils.hasText(ensureGitSuffix) ? Boolean.parseBoolean(ensureGitSuffix) : true;
+		this.sparseCheckout = Boolean
+				.parseBoolean(StubRunnerPropertyUtils.getProperty(args, GIT_SPARSE_CHECKOUT_PROPERTY));
 
 		if (log.isDebugEnabled()) {
 			log.debug("Repo url is [" + repoUrl + "], modified url string " + "is [" + modifiedRepo + "] URL is ["
-					+ this.url + "]  branch is [" + this.branch + "] and ensureGitSuffix is [" + this.ensureGitSuffix
-					+ "]");
+					+ this.url + "]  branch is [" + this.branch + "], ensureGitSuffix is [" + this.ensureGitSuffix
+					+ "] and sparseCheckout is [" + this.sparseCheckout + "]");
 		}
 	}
 
@@ -16,18 +16,22 @@
 
 package org.springframework.cloud.contract.stubrunner;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,22 +39,43 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.spec.ContractConverter;
 import org.springframework.cloud.contract.stubrunner.provider.wiremock.WireMockHttpServerStub;
+import org.springframework.cloud.contract.verifier.util.ContractCache;
 import org.springframework.cloud.contract.verifier.util.ContractScanner;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.StringUtils;
 
 /**
- * Wraps the folder with stub mappings.
+ * Wraps the folder with stub mappings. The stub mappings can also be read straight from a
+ * stub jar, without unpacking it. In that case only the remaining files (e.g. the
+ * contracts) get extracted, since the contract converters work with files.
  */
-class StubRepository {
+class StubRepository implements Closeable {
 
 	private static final Log log = LogFactory.getLog(StubRepository.class);
 
-	final List<File> stubs;
+	private static final String JAR_EXTENSION = ".jar";
+
+	/**
+	 * Folder in which the converted contracts are kept between runs. The cache is
+	 * disabled when not set.
+	 */
+	static final String CONTRACTS_CACHE_DIR_PROPERTY = "contracts-cache.dir";
+
+	/**
+	 * Maximum number of contract files kept in the cache.
+	 */
+	static final String CONTRACTS_CACHE_MAX_ENTRIES_PROPERTY = "contracts-cache.max-entries";
+
+	final List<Path> stubs;
 
 	final Collection<Contract> contracts;
 
 	private final File path;
 
+	private final FileSystem jarFileSystem;
+
+	private final Path root;
+
 	private final List<ContractConverter> contractConverters;
 
 	private final List<HttpServerStub> httpServerStubs;
@@ -58,7 +83,7 @@ class StubRepository {
 	private final StubRunnerOptions options;
 
 	StubRepository(File repository, List<HttpServerStub> httpServerStubs, StubRunnerOptions options) {
-		if (!repository.isDirectory()) {
+		if (!repository.isDirectory() && !isJar(repository)) {
 			throw new IllegalArgumentException("Missing descriptor repository under path [" + repository + "]");
 		}
 		this.contractConverters = SpringFactoriesLoader.loadFactories(ContractConverter.class, null);
@@ -68,6 +93,8 @@ class StubRepository {
 		this.httpServerStubs = httpServerStubs;
 		this.path = repository;
 		this.options = options;
+		this.jarFileSystem = repository.isDirectory() ? null : openJar(repository);
+		this.root = this.jarFileSystem != null ? this.jarFileSystem.getPath("/") : repository.toPath();
 		this.stubs = stubs();
 		this.contracts = contracts();
 		if (log.isTraceEnabled()) {
@@ -79,11 +106,26 @@ class StubRepository {
 		this(repository, new ArrayList<>(), new StubRunnerOptionsBuilder().build());
 	}
 
+	private static boolean isJar(File repository) {
+		return repository.isFile() && repository.getName().endsWith(JAR_EXTENSION);
+	}
+
+	private static FileSystem openJar(File jar) {
+		try {
+			// not registered in the zip file system provider, so every repository gets its
+			// own instance that it can close
+			return FileSystems.newFileSystem(jar.toPath(), (ClassLoader) null);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Failed to read the stub jar [" + jar + "]", ex);
+		}
+	}
+
 	public File getPath() {
 		return this.path;
 	}
 
-	public List<File> getStubs() {
+	public List<Path> getStubs() {
 		return this.stubs;
 	}
 
@@ -101,23 +143,26 @@ class StubRepository {
 	/**
 	 * @return the list of stubs
 	 */
-	private List<File> stubs() {
+	private List<Path> stubs() {
 		return new ArrayList<>(collectedStubs());
 	}
 
-	private List<File> collectedStubs() {
-		return this.path.exists() ? collectMappings(this.path) : Collections.<File>emptyList();
+	private List<Path> collectedStubs() {
+		return this.path.exists() ? collectMappings(this.root) : Collections.<Path>emptyList();
 	}
 
-	private List<File> collectMappings(File descriptorsDirectory) {
-		final List<File> mappingDescriptors = new ArrayList<>();
+	private List<Path> collectMappings(Path descriptorsDirectory) {
+		final List<Path> mappingDescriptors = new ArrayList<>();
+		// when created here, the default stub (and the mappings it parsed while accepting
+		// the paths) is dropped once the mappings are collected
+		HttpServerStub defaultHttpServerStub = this.httpServerStubs.stream()
+				.filter(WireMockHttpServerStub.class::isInstance).findFirst().orElseGet(WireMockHttpServerStub::new);
 		try {
-			Files.walkFileTree(Paths.get(descriptorsDirectory.toURI()), new SimpleFileVisitor<Path>() {
+			Files.walkFileTree(descriptorsDirectory, new SimpleFileVisitor<Path>() {
 				@Override
 				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-					File file = path.toFile();
-					if (httpServerStubAccepts(file) && isStubPerConsumerPathMatching(file)) {
-						mappingDescriptors.add(file);
+					if (isStubPerConsumerPathMatching(path) && httpServerStubAccepts(path, defaultHttpServerStub)) {
+						mappingDescriptors.add(path);
 					}
 					return super.visitFile(path, attrs);
 				}
@@ -129,38 +174,94 @@ class StubRepository {
 		return mappingDescriptors;
 	}
 
-	private ContractConverter contractConverter(File file) {
-		for (ContractConverter converter : this.contractConverters) {
-			if (converter.isAccepted(file)) {
-				return converter;
-			}
-		}
-		return null;
-	}
-
-	private boolean httpServerStubAccepts(File file) {
+	private boolean httpServerStubAccepts(Path path, HttpServerStub defaultHttpServerStub) {
 		for (HttpServerStub httpServerStub : this.httpServerStubs) {
-			if (httpServerStub.isAccepted(file)) {
+			if (httpServerStub != defaultHttpServerStub && httpServerStub.isAccepted(path)) {
 				return true;
 			}
 		}
 		// the default implementation
-		return new WireMockHttpServerStub().isAccepted(file);
+		return defaultHttpServerStub.isAccepted(path);
+	}
+
+	private ContractCache contractCache() {
+		String dir = StubRunnerPropertyUtils.getProperty(this.options.getProperties(), CONTRACTS_CACHE_DIR_PROPERTY);
+		if (!StringUtils.hasText(dir)) {
+			return null;
+		}
+		String maxEntries = StubRunnerPropertyUtils.getProperty(this.options.getProperties(),
+				CONTRACTS_CACHE_MAX_ENTRIES_PROPERTY);
+		return new ContractCache(new File(dir),
+				StringUtils.hasText(maxEntries) ? Integer.parseInt(maxEntries) : ContractCache.DEFAULT_MAX_ENTRIES,
+				this.contractConverters);
 	}
 
 	private Collection<Contract> contractDescriptors() {
-		return (this.path.exists()
-				? ContractScanner.collectContractDescriptors(this.path, this::isStubPerConsumerPathMatching)
-				: Collections.<Contract>emptySet());
+		if (!this.path.exists()) {
+			return Collections.<Contract>emptySet();
+		}
+		if (this.jarFileSystem == null) {
+			return ContractScanner.collectContractDescriptors(this.path, this::isStubPerConsumerPathMatching,
+					this.contractConverters, contractCache());
+		}
+		File extracted = extractNonMappingFiles();
+		return extracted != null
+				? ContractScanner.collectContractDescriptors(extracted, file -> true, this.contractConverters,
+						contractCache())
+				: Collections.<Contract>emptySet();
+	}
+
+	/**
+	 * The contract converters work with files, so the files from the jar that aren't stub
+	 * mappings get extracted to a temporary folder.
+	 * @return folder with the extracted files or {@code null} if there was nothing to
+	 * extract
+	 */
+	private File extractNonMappingFiles() {
+		Set<Path> mappings = new HashSet<>(this.stubs);
+		File tmp = TemporaryFileStorage.createTempDir("jar-contracts");
+		List<Path> extracted = new ArrayList<>();
+		try {
+			Files.walkFileTree(this.root, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+					if (!mappings.contains(path) && isStubPerConsumerPathMatching(path)) {
+						Path target = tmp.toPath().resolve(StubRepository.this.root.relativize(path).toString());
+						Files.createDirectories(target.getParent());
+						Files.copy(path, target);
+						extracted.add(target);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to extract files from the stub jar [" + this.path + "]", e);
+		}
+		if (extracted.isEmpty()) {
+			tmp.delete();
+			return null;
+		}
+		TemporaryFileStorage.add(tmp);
+		if (log.isDebugEnabled()) {
+			log.debug("Extracted [" + extracted.size() + "] files that are not stub mappings from the stub jar ["
+					+ this.path + "] to [" + tmp + "]");
+		}
+		return tmp;
 	}
 
 	private boolean isStubPerConsumerPathMatching(File file) {
+		return isStubPerConsumerPathMatching(file.toPath());
+	}
+
+	private boolean isStubPerConsumerPathMatching(Path path) {
 		if (!this.options.isStubsPerConsumer()) {
 			return true;
 		}
 		String consumerName = this.options.getConsumerName();
-		String searchedConsumerName = File.separator + consumerName + File.separator;
-		String absolutePath = file.getAbsolutePath();
+		String separator = path.getFileSystem().getSeparator();
+		String searchedConsumerName = separator + consumerName + separator;
+		String absolutePath = path.toAbsolutePath().toString();
 		boolean stubPerConsumerMatching = absolutePath.contains(searchedConsumerName);
 		if (log.isDebugEnabled()) {
 			log.debug("Absolute path [" + absolutePath + "] contains [" + searchedConsumerName + "] in its path ["
@@ -169,4 +270,14 @@ class StubRepository {
 		return stubPerConsumerMatching;
 	}
 
+	@Override
+	public void close() throws IOException {
+		if (this.jarFileSystem != null) {
+			// the accepted mappings are keyed by the paths of the closed jar
+			this.httpServerStubs.stream().filter(WireMockHttpServerStub.class::isInstance)
+					.map(WireMockHttpServerStub.class::cast).forEach(WireMockHttpServerStub::clearAcceptedMappings);
+			this.jarFileSystem.close();
+		}
+	}
+
 }
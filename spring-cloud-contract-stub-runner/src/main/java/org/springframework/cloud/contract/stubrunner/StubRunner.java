@@ -30,6 +30,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.stubrunner.provider.wiremock.WireMockHttpServerStub;
 import org.springframework.cloud.contract.verifier.messaging.MessageVerifier;
 import org.springframework.cloud.contract.verifier.messaging.noop.NoOpStubMessages;
 import org.springframework.core.io.support.SpringFactoriesLoader;
@@ -64,6 +65,11 @@ public class StubRunner implements StubRunning {
 		this.stubsConfiguration = stubsConfiguration;
 		this.stubRunnerOptions = stubRunnerOptions;
 		List<HttpServerStub> serverStubs = SpringFactoriesLoader.loadFactories(HttpServerStub.class, null);
+		if (serverStubs.isEmpty()) {
+			// the default impl is the WireMock one, the same instance validates and
+			// registers the mappings so that they get parsed only once
+			serverStubs.add(new WireMockHttpServerStub());
+		}
 		this.stubRepository = new StubRepository(new File(repositoryPath), serverStubs, this.stubRunnerOptions);
 		AvailablePortScanner portScanner = new AvailablePortScanner(stubRunnerOptions.getMinPortValue(),
 				stubRunnerOptions.getMaxPortValue());
@@ -181,6 +187,7 @@ public class StubRunner implements StubRunning {
 		if (this.localStubRunner != null) {
 			this.localStubRunner.shutdown();
 		}
+		this.stubRepository.close();
 		TemporaryFileStorage.cleanup(this.stubRunnerOptions.isDeleteStubsAfterTest());
 	}
 
@@ -16,8 +16,8 @@
 
 package org.springframework.cloud.contract.stubrunner;
 
-import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -266,7 +266,7 @@ class StubRunnerExecutor implements StubFinder {
 
 	private StubServer startStubServers(HttpServerStubConfigurer configurer, final StubRunnerOptions stubRunnerOptions,
 			final StubConfiguration stubConfiguration, StubRepository repository) {
-		final List<File> mappings = repository.getStubs();
+		final List<Path> mappings = repository.getStubs();
 		final Collection<Contract> contracts = repository.contracts;
 		Integer port = stubRunnerOptions.port(stubConfiguration);
 		boolean randomPort = randomPort(port);
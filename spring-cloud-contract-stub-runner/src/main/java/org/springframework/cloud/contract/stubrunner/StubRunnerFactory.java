@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -70,27 +71,30 @@ class StubRunnerFactory {
 			log.warn("No stubs to download have been passed. Most likely you have forgotten to pass "
 					+ "them either via annotation or a property");
 		}
-		Collection<StubRunner> result = new ArrayList<>();
-		for (StubConfiguration stubsConfiguration : this.stubRunnerOptions.getDependencies()) {
-			Map.Entry<StubConfiguration, File> entry = this.stubDownloader.downloadAndUnpackStubJar(stubsConfiguration);
+		List<StubRunner> result = ParallelStartup.run(this.stubRunnerOptions.getDependencies(),
+				this.stubRunnerOptions.getStartupParallelism(), this::downloadAndCreateStubRunner);
+		result.removeIf(Objects::isNull);
+		return result;
+	}
+
+	private StubRunner downloadAndCreateStubRunner(StubConfiguration stubsConfiguration) {
+		Map.Entry<StubConfiguration, File> entry = this.stubDownloader.downloadAndUnpackStubJar(stubsConfiguration);
+		if (log.isDebugEnabled()) {
+			log.debug("For stub configuration [" + stubsConfiguration + "] the downloaded entry is [" + entry + "]");
+		}
+		if (entry == null) {
+			return null;
+		}
+		Path path = resolvePath(entry.getValue());
+		File unpackedLocation = path.toFile();
+		if (this.stubRunnerOptions.isGenerateStubs()) {
 			if (log.isDebugEnabled()) {
 				log.debug(
-						"For stub configuration [" + stubsConfiguration + "] the downloaded entry is [" + entry + "]");
-			}
-			if (entry != null) {
-				Path path = resolvePath(entry.getValue());
-				File unpackedLocation = path.toFile();
-				if (this.stubRunnerOptions.isGenerateStubs()) {
-					if (log.isDebugEnabled()) {
-						log.debug(
-								"Flag to generate stubs at runtime was switched on. Will remove the current mappings and will generate new ones.");
-					}
-					generateMappingsAtRuntime(path);
-				}
-				result.add(createStubRunner(entry.getKey(), unpackedLocation));
+						"Flag to generate stubs at runtime was switched on. Will remove the current mappings and will generate new ones.");
 			}
+			generateMappingsAtRuntime(path);
 		}
-		return result;
+		return createStubRunner(entry.getKey(), unpackedLocation);
 	}
 
 	private void generateMappingsAtRuntime(Path path) {
@@ -140,6 +140,12 @@ public class StubRunnerOptions {
 	 */
 	final String serverId;
 
+	/**
+	 * Number of threads used to download and start the stubs. With the default value of
+	 * {@code 1} stubs are started one after another.
+	 */
+	private int startupParallelism = 1;
+
 	StubRunnerOptions(Integer minPortValue, Integer maxPortValue, Resource stubRepositoryRoot,
 			StubRunnerProperties.StubsMode stubsMode, String stubsClassifier,
 			Collection<StubConfiguration> dependencies, Map<StubConfiguration, Integer> stubIdsToPortMapping,
@@ -147,6 +153,20 @@ public class StubRunnerOptions {
 			boolean stubsPerConsumer, String consumerName, String mappingsOutputFolder, boolean deleteStubsAfterTest,
 			boolean generateStubs, boolean failOnNoStubs, Map<String, String> properties,
 			Class<? extends HttpServerStubConfigurer> httpServerStubConfigurer, String serverId) {
+		this(minPortValue, maxPortValue, stubRepositoryRoot, stubsMode, stubsClassifier, dependencies,
+				stubIdsToPortMapping, username, password, stubRunnerProxyOptions, stubsPerConsumer, consumerName,
+				mappingsOutputFolder, deleteStubsAfterTest, generateStubs, failOnNoStubs, properties,
+				httpServerStubConfigurer, serverId, 1);
+	}
+
+	StubRunnerOptions(Integer minPortValue, Integer maxPortValue, Resource stubRepositoryRoot,
+			StubRunnerProperties.StubsMode stubsMode, String stubsClassifier,
+			Collection<StubConfiguration> dependencies, Map<StubConfiguration, Integer> stubIdsToPortMapping,
+			String username, String password, final StubRunnerProxyOptions stubRunnerProxyOptions,
+			boolean stubsPerConsumer, String consumerName, String mappingsOutputFolder, boolean deleteStubsAfterTest,
+			boolean generateStubs, boolean failOnNoStubs, Map<String, String> properties,
+			Class<? extends HttpServerStubConfigurer> httpServerStubConfigurer, String serverId,
+			int startupParallelism) {
 		this.minPortValue = minPortValue;
 		this.maxPortValue = maxPortValue;
 		this.stubRepositoryRoot = stubRepositoryRoot;
@@ -166,6 +186,7 @@ public class StubRunnerOptions {
 		this.properties = properties;
 		this.httpServerStubConfigurer = httpServerStubConfigurer;
 		this.serverId = serverId;
+		this.startupParallelism = startupParallelism;
 	}
 
 	public static StubRunnerOptions fromSystemProps() {
@@ -185,7 +206,8 @@ public class StubRunnerOptions {
 						Boolean.parseBoolean(System.getProperty("stubrunner.delete-stubs-after-test", "true")))
 				.withGenerateStubs(Boolean.parseBoolean(System.getProperty("stubrunner.generate-stubs", "false")))
 				.withFailOnNoStubs(Boolean.parseBoolean(System.getProperty("stubrunner.fail-on-no-stubs", "false")))
-				.withProperties(stubRunnerProps()).withServerId(System.getProperty("stubrunner.server-id", ""));
+				.withProperties(stubRunnerProps()).withServerId(System.getProperty("stubrunner.server-id", ""))
+				.withStartupParallelism(Integer.parseInt(System.getProperty("stubrunner.startup-parallelism", "1")));
 		builder = httpStubConfigurer(builder);
 		String proxyHost = System.getProperty("stubrunner.proxy.host");
 		if (proxyHost != null) {
@@ -329,6 +351,10 @@ public class StubRunnerOptions {
 		return this.httpServerStubConfigurer;
 	}
 
+	public int getStartupParallelism() {
+		return this.startupParallelism;
+	}
+
 	@Override
 	public String toString() {
 		return "StubRunnerOptions{" + "minPortValue=" + this.minPortValue + ", maxPortValue=" + this.maxPortValue
@@ -338,7 +364,7 @@ public class StubRunnerOptions {
 				+ '\'' + ", password='" + obfuscate(this.password) + '\'' + ", stubRunnerProxyOptions='"
 				+ this.stubRunnerProxyOptions + "', stubsPerConsumer='" + this.stubsPerConsumer + '\''
 				+ ", httpServerStubConfigurer='" + this.httpServerStubConfigurer + '\'' + ", serverId='" + this.serverId
-				+ '\'' + '}';
+				+ '\'' + ", startupParallelism=" + this.startupParallelism + '}';
 	}
 
 	private String obfuscate(String string) {
@@ -80,6 +80,8 @@ public class StubRunnerOptionsBuilder {
 
 	private String serverId;
 
+	private int startupParallelism = 1;
+
 	public StubRunnerOptionsBuilder() {
 	}
 
@@ -208,6 +210,7 @@ public class StubRunnerOptionsBuilder {
 		this.properties = options.getProperties();
 		this.httpServerStubConfigurer = options.getHttpServerStubConfigurer();
 		this.serverId = options.getServerId();
+		this.startupParallelism = options.getStartupParallelism();
 		return this;
 	}
 
@@ -246,12 +249,17 @@ public class StubRunnerOptionsBuilder {
 		return this;
 	}
 
+	public StubRunnerOptionsBuilder withStartupParallelism(int startupParallelism) {
+		this.startupParallelism = startupParallelism;
+		return this;
+	}
+
 	public StubRunnerOptions build() {
 		return new StubRunnerOptions(this.minPortValue, this.maxPortValue, this.stubRepositoryRoot, this.stubsMode,
 				this.stubsClassifier, buildDependencies(), this.stubIdsToPortMapping, this.username, this.password,
 				this.stubRunnerProxyOptions, this.stubsPerConsumer, this.consumerName, this.mappingsOutputFolder,
 				this.deleteStubsAfterTest, this.generateStubs, this.failOnNoStubs, this.properties,
-				this.httpServerStubConfigurer, this.serverId);
+				this.httpServerStubConfigurer, this.serverId, this.startupParallelism);
 	}
 
 	private Collection<StubConfiguration> buildDependencies() {
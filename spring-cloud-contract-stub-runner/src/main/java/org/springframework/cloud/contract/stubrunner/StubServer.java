@@ -16,9 +16,9 @@
 
 package org.springframework.cloud.contract.stubrunner;
 
-import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -33,13 +33,13 @@ class StubServer {
 
 	final StubConfiguration stubConfiguration;
 
-	final Collection<File> mappings;
+	final Collection<Path> mappings;
 
 	final Collection<Contract> contracts;
 
 	private final HttpServerStub httpServerStub;
 
-	StubServer(StubConfiguration stubConfiguration, Collection<File> mappings, Collection<Contract> contracts,
+	StubServer(StubConfiguration stubConfiguration, Collection<Path> mappings, Collection<Contract> contracts,
 			HttpServerStub httpServerStub) {
 		this.stubConfiguration = stubConfiguration;
 		this.mappings = mappings;
@@ -53,7 +53,7 @@ class StubServer {
 	}
 
 	private StubServer stubServer() {
-		this.httpServerStub.registerMappings(this.mappings);
+		this.httpServerStub.registerMappingPaths(this.mappings);
 		log.info("Started stub server for project [" + this.stubConfiguration.toColonSeparatedDependencyNotation()
 				+ "] on port " + this.httpServerStub.port() + " with [" + this.mappings.size() + "] mappings");
 		if (this.mappings.isEmpty() && getPort() != -1) {
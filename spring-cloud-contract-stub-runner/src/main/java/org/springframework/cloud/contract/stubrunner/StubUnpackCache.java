@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import static org.springframework.cloud.contract.stubrunner.util.ZipCategory.unzipTo;
+
+/**
+ * Persistent cache of unpacked stub jars, shared by all JVMs on the machine that point to
+ * the same cache folder. Each jar is unpacked to a folder named after the SHA-256 checksum
+ * of its content, so the same bytes are unpacked only once.
+ *
+ * A jar gets unpacked to a staging folder that is then atomically renamed to its target
+ * location, so that nobody sees a partially unpacked jar. A JVM that uses an entry holds
+ * a shared lock on the entry's lock file until it exits. The least recently used entries
+ * above the size limit get removed, together with their lock files, only if no JVM holds
+ * their lock. Entries are meant to be read only, stubs that get modified (e.g. generated
+ * at runtime) must not be unpacked to the cache.
+ *
+ * @since 3.0.1
+ */
+final class StubUnpackCache {
+
+	/**
+	 * Folder in which the unpacked stubs are stored. The cache is disabled when not set.
+	 */
+	static final String CACHE_DIR_PROPERTY = "unpack-cache.dir";
+
+	/**
+	 * Maximum number of unpacked jars kept in the cache.
+	 */
+	static final String MAX_ENTRIES_PROPERTY = "unpack-cache.max-entries";
+
+	static final int DEFAULT_MAX_ENTRIES = 100;
+
+	private static final Log log = LogFactory.getLog(StubUnpackCache.class);
+
+	private static final String STAGING_PREFIX = ".staging-";
+
+	private static final String EVICTED_PREFIX = ".evicted-";
+
+	private static final String LOCK_SUFFIX = ".lock";
+
+	/**
+	 * Locks held by this JVM, released by the OS when the JVM exits. File locks are held
+	 * on behalf of the whole JVM, so they can't be acquired twice.
+	 */
+	private static final Map<Path, FileLock> HELD_LOCKS = new ConcurrentHashMap<>();
+
+	private final Path cacheDir;
+
+	private final int maxEntries;
+
+	StubUnpackCache(File cacheDir, int maxEntries) {
+		this.cacheDir = cacheDir.toPath().toAbsolutePath();
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * @param properties stub runner properties
+	 * @return cache or {@code null} if the cache folder wasn't set
+	 */
+	static StubUnpackCache fromProperties(Map<String, String> properties) {
+		String dir = StubRunnerPropertyUtils.getProperty(properties, CACHE_DIR_PROPERTY);
+		if (!StringUtils.hasText(dir)) {
+			return null;
+		}
+		String maxEntries = StubRunnerPropertyUtils.getProperty(properties, MAX_ENTRIES_PROPERTY);
+		return new StubUnpackCache(new File(dir),
+				StringUtils.hasText(maxEntries) ? Integer.parseInt(maxEntries) : DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Returns the folder with the unpacked content of the jar. Unpacks the jar if it's
+	 * not present in the cache.
+	 * @param jar stub jar to unpack
+	 * @return folder with the unpacked jar
+	 */
+	File unpack(File jar) {
+		try {
+			Files.createDirectories(this.cacheDir);
+			String key = checksum(jar);
+			Path target = this.cacheDir.resolve(key);
+			holdSharedLock(key);
+			if (Files.isDirectory(target)) {
+				if (log.isDebugEnabled()) {
+					log.debug("Stub jar [" + jar + "] is already unpacked to [" + target + "]");
+				}
+				Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+				return target.toFile();
+			}
+			publish(jar, target);
+			evict();
+			return target.toFile();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to unpack [" + jar + "] to the cache at [" + this.cacheDir + "]",
+					ex);
+		}
+	}
+
+	private void publish(File jar, Path target) throws IOException {
+		Path staging = this.cacheDir.resolve(STAGING_PREFIX + target.getFileName() + "-" + UUID.randomUUID());
+		Files.createDirectory(staging);
+		log.info("Unpacking stub from JAR [" + jar + "] to the cache at [" + target + "]");
+		try {
+			unzipTo(jar, staging.toFile());
+			Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (FileAlreadyExistsException ex) {
+			// another JVM was faster
+			if (log.isDebugEnabled()) {
+				log.debug("Stub jar [" + jar + "] got unpacked to [" + target + "] in the meantime");
+			}
+		}
+		catch (FileSystemException ex) {
+			// some file systems report a non empty target folder differently
+			if (!Files.isDirectory(target)) {
+				throw ex;
+			}
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(staging);
+		}
+	}
+
+	private void evict() throws IOException {
+		List<Path> entries = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.cacheDir, Files::isDirectory)) {
+			for (Path entry : stream) {
+				String name = entry.getFileName().toString();
+				if (!name.startsWith(STAGING_PREFIX) && !name.startsWith(EVICTED_PREFIX)) {
+					entries.add(entry);
+				}
+			}
+		}
+		if (entries.size() <= this.maxEntries) {
+			return;
+		}
+		entries.sort(Comparator.comparing(StubUnpackCache::lastModified));
+		int toRemove = entries.size() - this.maxEntries;
+		for (Path entry : entries) {
+			if (toRemove == 0) {
+				return;
+			}
+			if (remove(entry)) {
+				toRemove--;
+			}
+		}
+	}
+
+	private boolean remove(Path entry) throws IOException {
+		Path lockFile = lockFile(entry.getFileName().toString());
+		synchronized (HELD_LOCKS) {
+			if (HELD_LOCKS.containsKey(lockFile)) {
+				return false;
+			}
+			return removeUnlessUsed(entry, lockFile);
+		}
+	}
+
+	private boolean removeUnlessUsed(Path entry, Path lockFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE); FileLock lock = channel.tryLock()) {
+			if (lock == null || !Files.isDirectory(entry)) {
+				// used by another JVM or already removed by one
+				return false;
+			}
+			Path evicted = this.cacheDir.resolve(EVICTED_PREFIX + entry.getFileName() + "-" + UUID.randomUUID());
+			Files.move(entry, evicted, StandardCopyOption.ATOMIC_MOVE);
+			if (log.isDebugEnabled()) {
+				log.debug("Removing [" + entry + "] from the stub cache");
+			}
+			FileSystemUtils.deleteRecursively(evicted);
+			// deleted while still locked, a JVM waiting for this lock will notice that
+			// the file is gone and lock a new one (see holdSharedLock)
+			deleteLockFile(lockFile);
+			return true;
+		}
+	}
+
+	private static void deleteLockFile(Path lockFile) {
+		try {
+			Files.deleteIfExists(lockFile);
+		}
+		catch (IOException ex) {
+			// e.g. on Windows open files can't be deleted
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to delete the lock file [" + lockFile + "]", ex);
+			}
+		}
+	}
+
+	private void holdSharedLock(String key) throws IOException {
+		Path lockFile = lockFile(key);
+		if (HELD_LOCKS.containsKey(lockFile)) {
+			return;
+		}
+		synchronized (HELD_LOCKS) {
+			if (HELD_LOCKS.containsKey(lockFile)) {
+				return;
+			}
+			HELD_LOCKS.put(lockFile, sharedLock(lockFile));
+		}
+	}
+
+	private static FileLock sharedLock(Path lockFile) throws IOException {
+		while (true) {
+			Object fileKey = fileKey(lockFile, true);
+			FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			// blocks while another JVM removes this entry
+			FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+			// the remover deletes the lock file together with the entry, if it happened
+			// while we were waiting we hold a lock on a file that nobody else will see
+			Object lockedFileKey = fileKey(lockFile, false);
+			if (fileKey != null && fileKey.equals(lockedFileKey)) {
+				return lock;
+			}
+			channel.close();
+		}
+	}
+
+	/**
+	 * @return key identifying the file (e.g. its inode), {@link Boolean#TRUE} if the file
+	 * exists but the file system has no file keys or {@code null} if the file doesn't
+	 * exist
+	 */
+	private static Object fileKey(Path file, boolean create) throws IOException {
+		try {
+			if (create) {
+				Files.createFile(file);
+			}
+		}
+		catch (FileAlreadyExistsException ex) {
+			// already created by someone else
+		}
+		try {
+			Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+			return fileKey != null ? fileKey : Boolean.TRUE;
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	private Path lockFile(String key) {
+		return this.cacheDir.resolve(key + LOCK_SUFFIX);
+	}
+
+	private static FileTime lastModified(Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		}
+		catch (IOException ex) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static String checksum(File jar) throws IOException {
+		try (InputStream stream = Files.newInputStream(jar.toPath())) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
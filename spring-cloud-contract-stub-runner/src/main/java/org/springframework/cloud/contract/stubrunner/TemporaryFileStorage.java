@@ -18,6 +18,7 @@ package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -104,6 +105,28 @@ final class TemporaryFileStorage {
 		}
 	}
 
+	/**
+	 * Returns the file behind the path. Paths that aren't on the default file system
+	 * (e.g. entries of a stub jar) get copied to a temporary folder first.
+	 * @param path path to convert
+	 * @return file with the content of the path
+	 */
+	static File toFile(Path path) {
+		if (path.getFileSystem() == FileSystems.getDefault()) {
+			return path.toFile();
+		}
+		File tmp = createTempDir("stub-mapping");
+		add(tmp);
+		Path target = tmp.toPath().resolve(path.getFileName().toString());
+		try {
+			Files.copy(path, target);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Failed to extract [" + path + "] to a temporary file", e);
+		}
+		return target.toFile();
+	}
+
 	// taken from Guava
 	static File createTempDir(String tempDirPrefix) {
 		File baseDir = new File(System.getProperty("java.io.tmpdir"));
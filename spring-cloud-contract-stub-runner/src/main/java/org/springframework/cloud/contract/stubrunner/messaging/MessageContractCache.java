@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * Bounded, concurrent cache of contracts matched for messages. Each messaging selector,
+ * and so each destination, has its own cache.
+ *
+ * Entries are keyed by the values of the headers that the contracts match on. Neither
+ * the payload nor the other headers (e.g. the id, timestamp or offset that the broker
+ * sets for each message) are part of the key, so the key is cheap to compute and doesn't
+ * retain the message. Since the payload is not part of the key, each entry holds all the
+ * contracts whose headers match, in the order of the contracts, and the first of them
+ * whose body matches the payload gets returned. That's the same contract the matcher
+ * would find, but the headers of the contracts don't have to be matched again.
+ *
+ * Messages created from the output of a contract are cached by their id. When the cache
+ * is full the oldest entries get evicted.
+ *
+ * @since 3.0.1
+ */
+public final class MessageContractCache {
+
+	/**
+	 * Default maximum number of entries.
+	 */
+	public static final int DEFAULT_SIZE = 1024;
+
+	private static final Log log = LogFactory.getLog(MessageContractCache.class);
+
+	private final MessageContractMatcher matcher;
+
+	private final BoundedMap<List<String>, List<Contract>> byHeaders;
+
+	private final BoundedMap<Object, Contract> byMessageId;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final int maxSize;
+
+	public MessageContractCache(MessageContractMatcher matcher) {
+		this(DEFAULT_SIZE, matcher);
+	}
+
+	public MessageContractCache(int maxSize, MessageContractMatcher matcher) {
+		this.matcher = matcher;
+		this.maxSize = maxSize;
+		this.byHeaders = new BoundedMap<>(maxSize);
+		this.byMessageId = new BoundedMap<>(maxSize);
+	}
+
+	/**
+	 * Returns the first contract matching the message. Only the contracts whose headers
+	 * match the message get cached.
+	 * @param messageId id of the message, may be {@code null}
+	 * @param payload payload of the message
+	 * @param headers headers of the message
+	 * @return matching contract or {@code null} if none matches
+	 */
+	public Contract get(Object messageId, Object payload, Map<String, ?> headers) {
+		Contract contract = messageId != null ? this.byMessageId.get(messageId) : null;
+		if (contract != null) {
+			this.hits.increment();
+			return contract;
+		}
+		List<String> key = key(headers);
+		List<Contract> candidates = this.byHeaders.get(key);
+		boolean cached = candidates != null;
+		if (!cached) {
+			candidates = this.matcher.headerMatchingContracts(headers);
+			if (!candidates.isEmpty()) {
+				this.byHeaders.put(key, candidates);
+				logStats();
+			}
+		}
+		contract = this.matcher.firstBodyMatchingContract(candidates, payload, headers);
+		if (cached && contract != null) {
+			this.hits.increment();
+		}
+		else {
+			this.misses.increment();
+		}
+		return contract;
+	}
+
+	/**
+	 * Stores the contract for a message created from its output.
+	 * @param messageId id of the message, nothing gets stored when {@code null}
+	 * @param contract contract that the message was created from
+	 */
+	public void put(Object messageId, Contract contract) {
+		if (messageId != null) {
+			this.byMessageId.put(messageId, contract);
+			logStats();
+		}
+	}
+
+	private List<String> key(Map<String, ?> headers) {
+		List<String> names = this.matcher.headerNames();
+		String[] values = new String[names.size()];
+		for (int i = 0; i < values.length; i++) {
+			Object value = headers != null ? headers.get(names.get(i)) : null;
+			values[i] = value != null ? value.toString() : null;
+		}
+		return Arrays.asList(values);
+	}
+
+	private void logStats() {
+		if (log.isTraceEnabled()) {
+			log.trace("Message contract cache stats " + this);
+		}
+	}
+
+	/**
+	 * @return number of lookups that returned a cached contract
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return number of lookups that had to match the message against the contracts
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * @return number of cached entries
+	 */
+	public int size() {
+		return this.byHeaders.size() + this.byMessageId.size();
+	}
+
+	@Override
+	public String toString() {
+		return "MessageContractCache{" + "size=" + size() + ", maxSize=" + this.maxSize + ", hits=" + getHits()
+				+ ", misses=" + getMisses() + '}';
+	}
+
+	private static final class BoundedMap<K, V> {
+
+		private final Map<K, V> cache = new ConcurrentHashMap<>();
+
+		private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+		private final int maxSize;
+
+		private BoundedMap(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		private V get(K key) {
+			return this.cache.get(key);
+		}
+
+		private void put(K key, V value) {
+			if (this.cache.put(key, value) == null) {
+				this.insertionOrder.add(key);
+			}
+			while (this.cache.size() > this.maxSize) {
+				K eldest = this.insertionOrder.poll();
+				if (eldest == null) {
+					break;
+				}
+				this.cache.remove(eldest);
+			}
+		}
+
+		private int size() {
+			return this.cache.size();
+		}
+
+	}
+
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.toomuchcoding.jsonassert.JsonAssertion;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.internal.BodyMatcher;
+import org.springframework.cloud.contract.spec.internal.BodyMatchers;
+import org.springframework.cloud.contract.spec.internal.FromFileProperty;
+import org.springframework.cloud.contract.spec.internal.Header;
+import org.springframework.cloud.contract.spec.internal.RegexProperty;
+import org.springframework.cloud.contract.verifier.messaging.internal.ContractVerifierObjectMapper;
+import org.springframework.cloud.contract.verifier.util.ContentType;
+import org.springframework.cloud.contract.verifier.util.ContentUtils;
+import org.springframework.cloud.contract.verifier.util.JsonPaths;
+import org.springframework.cloud.contract.verifier.util.JsonToJsonPathsConverter;
+import org.springframework.cloud.contract.verifier.util.MapConverter;
+import org.springframework.cloud.contract.verifier.util.MethodBufferingJsonVerifiable;
+
+/**
+ * Finds the contract that matches an inbound message. Used by the messaging selectors of
+ * all the supported brokers.
+ *
+ * The header predicates and stub side bodies of all contracts are resolved once, when the
+ * matcher gets created. JSON paths are built the first time they are needed and reused
+ * afterwards. Contracts are indexed by their first header with an exact value so that a
+ * message gets compared only with the contracts that can possibly match it. The payload
+ * of a message is serialized and parsed at most once, regardless of the number of
+ * candidate contracts. If many contracts match, the first one from the list wins.
+ *
+ * @since 3.0.1
+ */
+public final class MessageContractMatcher {
+
+	private static final Log log = LogFactory.getLog(MessageContractMatcher.class);
+
+	private final ContractVerifierObjectMapper objectMapper = new ContractVerifierObjectMapper();
+
+	private final List<CompiledContract> contracts = new ArrayList<>();
+
+	private final Map<String, Map<String, List<CompiledContract>>> indexedContracts = new LinkedHashMap<>();
+
+	private final List<CompiledContract> notIndexedContracts = new ArrayList<>();
+
+	private final Map<Contract, CompiledContract> compiledContracts = new IdentityHashMap<>();
+
+	private final List<String> headerNames;
+
+	public MessageContractMatcher(List<Contract> contracts) {
+		Set<String> headerNames = new TreeSet<>();
+		for (Contract contract : contracts) {
+			CompiledContract compiled = new CompiledContract(this.contracts.size(), contract);
+			this.contracts.add(compiled);
+			this.compiledContracts.putIfAbsent(contract, compiled);
+			compiled.headers.forEach(header -> headerNames.add(header.name));
+			HeaderPredicate indexedHeader = compiled.indexedHeader();
+			if (indexedHeader == null) {
+				this.notIndexedContracts.add(compiled);
+			}
+			else {
+				this.indexedContracts.computeIfAbsent(indexedHeader.name, s -> new HashMap<>())
+						.computeIfAbsent(indexedHeader.exactValue, s -> new ArrayList<>()).add(compiled);
+			}
+		}
+		this.headerNames = Collections.unmodifiableList(new ArrayList<>(headerNames));
+	}
+
+	/**
+	 * @return sorted names of the headers that any of the contracts matches on
+	 */
+	public List<String> headerNames() {
+		return this.headerNames;
+	}
+
+	/**
+	 * @param payload payload of the message
+	 * @param headers headers of the message
+	 * @return first contract matching the message or {@code null} if none matches
+	 */
+	public Contract matchingContract(Object payload, Map<String, ?> headers) {
+		InboundMessage message = new InboundMessage(payload, headers);
+		for (CompiledContract contract : candidates(headers)) {
+			if (contract.matches(message)) {
+				return contract.contract;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param headers headers of the message
+	 * @return contracts whose headers match the given ones, in the order of the contracts
+	 */
+	public List<Contract> headerMatchingContracts(Map<String, ?> headers) {
+		List<Contract> contracts = new ArrayList<>();
+		for (CompiledContract contract : candidates(headers)) {
+			if (contract.unmatchedHeaders(headers).isEmpty()) {
+				contracts.add(contract.contract);
+			}
+		}
+		return contracts;
+	}
+
+	/**
+	 * @param contracts contracts of this matcher whose headers match the message, as
+	 * returned by {@link #headerMatchingContracts(Map)}
+	 * @param payload payload of the message
+	 * @param headers headers of the message
+	 * @return first of the given contracts whose body matches the payload or
+	 * {@code null} if none matches
+	 */
+	public Contract firstBodyMatchingContract(List<Contract> contracts, Object payload,
+			Map<String, ?> headers) {
+		InboundMessage message = new InboundMessage(payload, headers);
+		for (Contract contract : contracts) {
+			CompiledContract compiled = this.compiledContracts.get(contract);
+			if (compiled != null && compiled.matchesBody(message)) {
+				return contract;
+			}
+		}
+		return null;
+	}
+
+	private Iterable<CompiledContract> candidates(Map<String, ?> headers) {
+		if (this.indexedContracts.isEmpty()) {
+			return this.contracts;
+		}
+		TreeSet<CompiledContract> candidates = new TreeSet<>(this.notIndexedContracts);
+		this.indexedContracts.forEach((name, byValue) -> {
+			Object value = headers.get(name);
+			if (value != null) {
+				candidates.addAll(byValue.getOrDefault(value.toString(), Collections.emptyList()));
+			}
+		});
+		if (log.isTraceEnabled()) {
+			log.trace("Found [" + candidates.size() + "] candidate contracts out of [" + this.contracts.size() + "]");
+		}
+		return candidates;
+	}
+
+	private static String unmatchedText(Object expectedValue) {
+		return expectedValue instanceof RegexProperty
+				? "match pattern [" + ((RegexProperty) expectedValue).pattern() + "]"
+				: "be equal to [" + expectedValue + "]";
+	}
+
+	/**
+	 * Payload and headers of the message that is being matched. The JSON representation
+	 * and the content type of the payload are computed lazily and only once.
+	 */
+	private final class InboundMessage {
+
+		private final Object payload;
+
+		private final Map<String, ?> headers;
+
+		private DocumentContext parsedJson;
+
+		private ContentType contentType;
+
+		private InboundMessage(Object payload, Map<String, ?> headers) {
+			this.payload = payload;
+			this.headers = headers;
+		}
+
+		private DocumentContext parsedJson() {
+			if (this.parsedJson == null) {
+				try {
+					this.parsedJson = JsonPath.parse(objectMapper.writeValueAsString(this.payload));
+				}
+				catch (JsonProcessingException e) {
+					throw new IllegalStateException("Cannot serialize to JSON", e);
+				}
+			}
+			return this.parsedJson;
+		}
+
+		private ContentType contentType() {
+			if (this.contentType == null) {
+				this.contentType = ContentUtils.getClientContentType(this.payload);
+			}
+			return this.contentType;
+		}
+
+	}
+
+	private static final class HeaderPredicate {
+
+		private final String name;
+
+		private final Object value;
+
+		private final Pattern pattern;
+
+		private final String exactValue;
+
+		private HeaderPredicate(Header header) {
+			this.name = header.getName();
+			this.value = header.getClientValue();
+			boolean regex = this.value instanceof RegexProperty || this.value instanceof Pattern;
+			this.pattern = regex ? new RegexProperty(this.value).getPattern() : null;
+			this.exactValue = regex ? null : String.valueOf(this.value);
+		}
+
+		private boolean matches(Object valueInHeader) {
+			if (valueInHeader == null) {
+				return false;
+			}
+			if (this.pattern != null) {
+				return this.pattern.matcher(valueInHeader.toString()).matches();
+			}
+			return valueInHeader.toString().equals(this.exactValue);
+		}
+
+	}
+
+	private final class CompiledContract implements Comparable<CompiledContract> {
+
+		private final int order;
+
+		private final Contract contract;
+
+		private final List<HeaderPredicate> headers = new ArrayList<>();
+
+		private final ContentType contentTypeFromHeaders;
+
+		private final BodyMatchers matchers;
+
+		private final Object dslBody;
+
+		private final byte[] dslBytes;
+
+		private final Pattern dslPattern;
+
+		private volatile List<String> jsonPaths;
+
+		private CompiledContract(int order, Contract contract) {
+			this.order = order;
+			this.contract = contract;
+			for (Header header : contract.getInput().getMessageHeaders().getEntries()) {
+				this.headers.add(new HeaderPredicate(header));
+			}
+			this.contentTypeFromHeaders = ContentUtils
+					.recognizeContentTypeFromHeader(contract.getInput().getMessageHeaders());
+			this.matchers = contract.getInput().getBodyMatchers();
+			Object body = MapConverter.getStubSideValues(contract.getInput().getMessageBody());
+			byte[] bytes = null;
+			if (body instanceof FromFileProperty) {
+				FromFileProperty property = (FromFileProperty) body;
+				if (property.isString()) {
+					// continue processing as if body was pure string
+					body = property.asString();
+				}
+				else {
+					bytes = property.asBytes();
+				}
+			}
+			this.dslBody = body;
+			this.dslBytes = bytes;
+			this.dslPattern = body instanceof RegexProperty || body instanceof Pattern
+					? new RegexProperty(body).getPattern() : null;
+		}
+
+		private HeaderPredicate indexedHeader() {
+			return this.headers.stream().filter(header -> header.exactValue != null).findFirst().orElse(null);
+		}
+
+		private boolean matches(InboundMessage message) {
+			List<String> unmatchedHeaders = unmatchedHeaders(message.headers);
+			if (!unmatchedHeaders.isEmpty()) {
+				if (log.isDebugEnabled()) {
+					log.debug("Contract [" + this.contract + "] hasn't matched the following headers "
+							+ unmatchedHeaders);
+				}
+				return false;
+			}
+			return matchesBody(message);
+		}
+
+		private boolean matchesBody(InboundMessage message) {
+			if (this.dslBytes != null) {
+				return matchesBytes(message.payload);
+			}
+			return matchesContent(message);
+		}
+
+		private List<String> unmatchedHeaders(Map<String, ?> messageHeaders) {
+			List<String> unmatchedHeaders = new ArrayList<>();
+			for (HeaderPredicate header : this.headers) {
+				Object valueInHeader = messageHeaders.get(header.name);
+				if (!header.matches(valueInHeader)) {
+					unmatchedHeaders.add("Header with name [" + header.name + "] was supposed to "
+							+ unmatchedText(header.value) + " but the value is ["
+							+ (valueInHeader != null ? valueInHeader.toString() : "null") + "]");
+				}
+			}
+			return unmatchedHeaders;
+		}
+
+		private boolean matchesBytes(Object inputMessage) {
+			if (log.isDebugEnabled()) {
+				log.debug("Will compare file content");
+			}
+			if (!(inputMessage instanceof byte[])) {
+				if (log.isDebugEnabled()) {
+					log.debug("Contract provided byte comparison, but the input message is of type ["
+							+ (inputMessage != null ? inputMessage.getClass() : null) + "]. Can't compare the two.");
+				}
+				return false;
+			}
+			boolean matches = Arrays.equals(this.dslBytes, (byte[]) inputMessage);
+			if (log.isDebugEnabled() && !matches) {
+				log.debug("Contract provided byte comparison, but the byte arrays don't match");
+			}
+			return matches;
+		}
+
+		private boolean matchesContent(InboundMessage message) {
+			boolean matches;
+			Object inputMessage = message.payload;
+			ContentType type = this.contentTypeFromHeaders != ContentType.UNKNOWN ? this.contentTypeFromHeaders
+					: message.contentType();
+			if (type == ContentType.JSON) {
+				matches = matchesJson(message);
+			}
+			else if (this.dslPattern != null && inputMessage instanceof String) {
+				matches = this.dslPattern.matcher((String) inputMessage).matches();
+				bodyUnmatchedLog(matches, this.dslPattern);
+			}
+			else {
+				matches = this.dslBody != null && this.dslBody.equals(inputMessage);
+				bodyUnmatchedLog(matches, inputMessage);
+			}
+			return matches;
+		}
+
+		private void bodyUnmatchedLog(boolean matches, Object pattern) {
+			if (log.isDebugEnabled() && !matches) {
+				log.debug("Body was supposed to " + unmatchedText(pattern) + " but the value is [" + this.dslBody
+						+ "]");
+			}
+		}
+
+		private boolean matchesJson(InboundMessage message) {
+			DocumentContext parsedJson = message.parsedJson();
+			List<String> unmatchedJsonPath = new ArrayList<>();
+			boolean matches = true;
+			for (String jsonPath : jsonPaths()) {
+				matches &= matchesJsonPath(unmatchedJsonPath, parsedJson, jsonPath);
+			}
+			if (!unmatchedJsonPath.isEmpty()) {
+				if (log.isDebugEnabled()) {
+					log.debug("Contract [" + this.contract + "] didn't match the body due to " + unmatchedJsonPath);
+				}
+			}
+			return matches;
+		}
+
+		private List<String> jsonPaths() {
+			List<String> jsonPaths = this.jsonPaths;
+			if (jsonPaths == null) {
+				jsonPaths = new ArrayList<>();
+				Object matchingInputMessage = JsonToJsonPathsConverter.removeMatchingJsonPaths(this.dslBody,
+						this.matchers);
+				JsonPaths paths = JsonToJsonPathsConverter
+						.transformToJsonPathWithStubsSideValuesAndNoArraySizeCheck(matchingInputMessage);
+				for (MethodBufferingJsonVerifiable path : paths) {
+					jsonPaths.add(path.jsonPath());
+				}
+				if (this.matchers != null && this.matchers.hasMatchers()) {
+					for (BodyMatcher matcher : this.matchers.matchers()) {
+						jsonPaths.add(JsonToJsonPathsConverter.convertJsonPathAndRegexToAJsonPath(matcher,
+								this.dslBody));
+					}
+				}
+				this.jsonPaths = jsonPaths;
+			}
+			return jsonPaths;
+		}
+
+		private boolean matchesJsonPath(List<String> unmatchedJsonPath, DocumentContext parsedJson,
+				String jsonPath) {
+			try {
+				JsonAssertion.assertThat(parsedJson).matchesJsonPath(jsonPath);
+				return true;
+			}
+			catch (Exception e) {
+				unmatchedJsonPath.add(e.getLocalizedMessage());
+				return false;
+			}
+		}
+
+		@Override
+		public int compareTo(CompiledContract other) {
+			return Integer.compare(this.order, other.order);
+		}
+
+	}
+
+}
@@ -75,16 +75,18 @@ public class StubRunnerIntegrationConfiguration {
 			}
 			for (Entry<String, List<Contract>> entries : map.entrySet()) {
 				final String flowName = name + "_" + entries.getKey() + "_" + entries.getValue().hashCode();
+				// filter, transformer and router share the selector and its cache
+				StubRunnerIntegrationMessageSelector selector = new StubRunnerIntegrationMessageSelector(entries.getValue());
 				IntegrationFlowBuilder builder = IntegrationFlows.from(entries.getKey())
-						.filter(new StubRunnerIntegrationMessageSelector(entries.getValue()),
+						.filter(selector,
 								new Consumer<FilterEndpointSpec>() {
 									@Override
 									public void accept(FilterEndpointSpec e) {
 										e.id(flowName + ".filter");
 									}
 								})
-						.transform(new StubRunnerIntegrationTransformer(entries.getValue()))
-						.route(new StubRunnerIntegrationRouter(entries.getValue(), beanFactory));
+						.transform(new StubRunnerIntegrationTransformer(selector))
+						.route(new StubRunnerIntegrationRouter(selector, beanFactory));
 				beanFactory.initializeBean(builder.get(), flowName);
 				beanFactory.getBean(flowName + ".filter", Lifecycle.class).start();
 			}
@@ -36,7 +36,11 @@ class StubRunnerIntegrationRouter extends AbstractMessageRouter {
 	private final BeanFactory beanFactory;
 
 	StubRunnerIntegrationRouter(List<Contract> groovyDsls, BeanFactory beanFactory) {
-		this.selector = new StubRunnerIntegrationMessageSelector(groovyDsls);
+		this(new StubRunnerIntegrationMessageSelector(groovyDsls), beanFactory);
+	}
+
+	StubRunnerIntegrationRouter(StubRunnerIntegrationMessageSelector selector, BeanFactory beanFactory) {
+		this.selector = selector;
 		this.beanFactory = beanFactory;
 	}
 
@@ -41,7 +41,11 @@ class StubRunnerIntegrationTransformer {
 	}
 
 	StubRunnerIntegrationTransformer(List<Contract> groovyDsls) {
-		this.selector = new StubRunnerIntegrationMessageSelector(groovyDsls);
+		this(new StubRunnerIntegrationMessageSelector(groovyDsls));
+	}
+
+	StubRunnerIntegrationTransformer(StubRunnerIntegrationMessageSelector selector) {
+		this.selector = selector;
 	}
 
 	public Message<?> transform(Message<?> source) {
@@ -36,14 +36,11 @@ class StubRunnerJmsRouter implements MessageListener {
 
 	private final BeanFactory beanFactory;
 
-	private final List<Contract> contracts;
-
 	private JmsTemplate jmsTemplate;
 
 	StubRunnerJmsRouter(List<Contract> groovyDsls, BeanFactory beanFactory) {
 		this.selector = new StubRunnerJmsMessageSelector(groovyDsls);
 		this.beanFactory = beanFactory;
-		this.contracts = groovyDsls;
 	}
 
 	@Override
@@ -52,7 +49,7 @@ class StubRunnerJmsRouter implements MessageListener {
 		if (dsl != null && dsl.getOutputMessage() != null && dsl.getOutputMessage().getSentTo() != null) {
 			String destination = dsl.getOutputMessage().getSentTo().getClientValue();
 			jmsTemplate().send(destination,
-					session -> new StubRunnerJmsTransformer(this.contracts).transform(session, dsl));
+					session -> new StubRunnerJmsTransformer(this.selector).transform(session, dsl));
 		}
 	}
 
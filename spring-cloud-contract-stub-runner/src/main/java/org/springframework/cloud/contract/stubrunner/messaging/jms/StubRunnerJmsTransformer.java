@@ -39,7 +39,11 @@ class StubRunnerJmsTransformer {
 	private final StubRunnerJmsMessageSelector selector;
 
 	StubRunnerJmsTransformer(List<Contract> groovyDsls) {
-		this.selector = new StubRunnerJmsMessageSelector(groovyDsls);
+		this(new StubRunnerJmsMessageSelector(groovyDsls));
+	}
+
+	StubRunnerJmsTransformer(StubRunnerJmsMessageSelector selector) {
+		this.selector = selector;
 	}
 
 	public Message transform(Session session, Contract groovyDsl) {
@@ -47,14 +47,11 @@ class StubRunnerKafkaRouter implements MessageListener<Object, Object> {
 
 	private final BeanFactory beanFactory;
 
-	private final List<Contract> contracts;
-
 	private KafkaTemplate kafkaTemplate;
 
 	StubRunnerKafkaRouter(List<Contract> groovyDsls, BeanFactory beanFactory) {
 		this.selector = new StubRunnerKafkaMessageSelector(groovyDsls);
 		this.beanFactory = beanFactory;
-		this.contracts = groovyDsls;
 	}
 
 	private KafkaTemplate kafkaTemplate() {
@@ -77,7 +74,7 @@ class StubRunnerKafkaRouter implements MessageListener<Object, Object> {
 				log.debug("Found a matching contract with an output message. Will send it to the [" + destination
 						+ "] destination");
 			}
-			Message<?> transform = new StubRunnerKafkaTransformer(this.contracts).transform(dsl);
+			Message<?> transform = new StubRunnerKafkaTransformer(this.selector).transform(dsl);
 			String defaultTopic = kafkaTemplate().getDefaultTopic();
 			try {
 				kafkaTemplate().setDefaultTopic(destination);
@@ -36,7 +36,11 @@ class StubRunnerKafkaTransformer {
 	private final StubRunnerKafkaMessageSelector selector;
 
 	StubRunnerKafkaTransformer(List<Contract> groovyDsls) {
-		this.selector = new StubRunnerKafkaMessageSelector(groovyDsls);
+		this(new StubRunnerKafkaMessageSelector(groovyDsls));
+	}
+
+	StubRunnerKafkaTransformer(StubRunnerKafkaMessageSelector selector) {
+		this.selector = selector;
 	}
 
 	public Message<?> transform(Contract groovyDsl) {
@@ -36,7 +36,11 @@ class StubRunnerMessageRouter extends AbstractMessageRouter {
 	private final BeanFactory beanFactory;
 
 	StubRunnerMessageRouter(List<Contract> groovyDsls, BeanFactory beanFactory) {
-		this.selector = new StubRunnerStreamMessageSelector(groovyDsls);
+		this(new StubRunnerStreamMessageSelector(groovyDsls), beanFactory);
+	}
+
+	StubRunnerMessageRouter(StubRunnerStreamMessageSelector selector, BeanFactory beanFactory) {
+		this.selector = selector;
 		this.beanFactory = beanFactory;
 	}
 
@@ -106,16 +106,18 @@ public class StubRunnerStreamConfiguration {
 			}
 			for (Entry<String, List<Contract>> entries : map.entrySet()) {
 				final String flowName = name + "_" + entries.getKey() + "_" + entries.getValue().hashCode();
+				// filter, transformer and router share the selector and its cache
+				StubRunnerStreamMessageSelector selector = new StubRunnerStreamMessageSelector(entries.getValue());
 				IntegrationFlowBuilder builder = IntegrationFlows.from(entries.getKey())
-						.filter(new StubRunnerStreamMessageSelector(entries.getValue()),
+						.filter(selector,
 								new Consumer<FilterEndpointSpec>() {
 									@Override
 									public void accept(FilterEndpointSpec e) {
 										e.id(flowName + ".filter");
 									}
 								})
-						.transform(new StubRunnerStreamTransformer(entries.getValue()))
-						.route(new StubRunnerMessageRouter(entries.getValue(), beanFactory));
+						.transform(new StubRunnerStreamTransformer(selector))
+						.route(new StubRunnerMessageRouter(selector, beanFactory));
 				beanFactory.initializeBean(builder.get(), flowName);
 				beanFactory.getBean(flowName + ".filter", Lifecycle.class).start();
 			}
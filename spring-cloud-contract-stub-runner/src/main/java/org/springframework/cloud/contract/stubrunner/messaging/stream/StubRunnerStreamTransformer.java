@@ -41,7 +41,11 @@ class StubRunnerStreamTransformer {
 	}
 
 	StubRunnerStreamTransformer(List<Contract> groovyDsls) {
-		this.selector = new StubRunnerStreamMessageSelector(groovyDsls);
+		this(new StubRunnerStreamMessageSelector(groovyDsls));
+	}
+
+	StubRunnerStreamTransformer(StubRunnerStreamMessageSelector selector) {
+		this.selector = selector;
 	}
 
 	public Message<?> transform(Message<?> source) {
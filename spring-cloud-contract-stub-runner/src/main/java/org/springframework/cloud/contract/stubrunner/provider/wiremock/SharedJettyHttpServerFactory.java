@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.provider.wiremock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.tomakehurst.wiremock.common.JettySettings;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.jetty9.JettyHttpServer;
+import wiremock.org.eclipse.jetty.io.NetworkTrafficListener;
+import wiremock.org.eclipse.jetty.server.ConnectionFactory;
+import wiremock.org.eclipse.jetty.server.ServerConnector;
+import wiremock.org.eclipse.jetty.server.SslConnectionFactory;
+import wiremock.org.eclipse.jetty.server.handler.HandlerCollection;
+
+/**
+ * Builds WireMock HTTP servers that run in the {@link SharedJettyServer} instead of
+ * starting a Jetty server each.
+ *
+ * @since 3.0.1
+ */
+class SharedJettyHttpServerFactory implements HttpServerFactory {
+
+	private final int workerThreads;
+
+	SharedJettyHttpServerFactory(int workerThreads) {
+		this.workerThreads = workerThreads;
+	}
+
+	@Override
+	public HttpServer buildHttpServer(Options options, AdminRequestHandler adminRequestHandler,
+			StubRequestHandler stubRequestHandler) {
+		return new SharedJettyHttpServer(options, adminRequestHandler, stubRequestHandler, this.workerThreads);
+	}
+
+	/**
+	 * Lets WireMock set up the handlers and the connectors as usual, but never starts its
+	 * own Jetty server. The handlers and the connectors' settings are attached to the
+	 * shared server instead.
+	 */
+	static class SharedJettyHttpServer extends JettyHttpServer {
+
+		private static final int INVALID_PORT = -1;
+
+		private final int workerThreads;
+
+		// assigned while the JettyHttpServer constructor runs, so no initializers here
+		private HandlerCollection handler;
+
+		private List<SharedJettyServer.ConnectorTemplate> templates;
+
+		private volatile List<ServerConnector> connectors;
+
+		SharedJettyHttpServer(Options options, AdminRequestHandler adminRequestHandler,
+				StubRequestHandler stubRequestHandler, int workerThreads) {
+			super(options, adminRequestHandler, stubRequestHandler);
+			this.workerThreads = workerThreads;
+		}
+
+		@Override
+		protected HandlerCollection createHandler(Options options, AdminRequestHandler adminRequestHandler,
+				StubRequestHandler stubRequestHandler) {
+			this.handler = super.createHandler(options, adminRequestHandler, stubRequestHandler);
+			return this.handler;
+		}
+
+		@Override
+		protected ServerConnector createServerConnector(String bindAddress, JettySettings jettySettings, int port,
+				NetworkTrafficListener listener, ConnectionFactory... connectionFactories) {
+			ServerConnector connector = super.createServerConnector(bindAddress, jettySettings, port, listener,
+					connectionFactories);
+			if (this.templates == null) {
+				this.templates = new ArrayList<>();
+			}
+			this.templates.add(new SharedJettyServer.ConnectorTemplate(connector, listener));
+			return connector;
+		}
+
+		@Override
+		public synchronized void start() {
+			if (isRunning()) {
+				return;
+			}
+			this.connectors = SharedJettyServer.INSTANCE.attach(
+					this.templates != null ? this.templates : Collections.emptyList(), this.handler,
+					this.workerThreads);
+		}
+
+		@Override
+		public synchronized void stop() {
+			if (this.connectors != null) {
+				SharedJettyServer.INSTANCE.detach(this.connectors, this.handler);
+				this.connectors = null;
+			}
+			// stops the executor of asynchronous responses, the own Jetty server never ran
+			super.stop();
+		}
+
+		@Override
+		public boolean isRunning() {
+			List<ServerConnector> connectors = this.connectors;
+			return connectors != null && connectors.stream().allMatch(ServerConnector::isRunning);
+		}
+
+		@Override
+		public int port() {
+			return localPort(false);
+		}
+
+		@Override
+		public int httpsPort() {
+			return localPort(true);
+		}
+
+		private int localPort(boolean https) {
+			List<ServerConnector> connectors = this.connectors;
+			if (connectors == null) {
+				return INVALID_PORT;
+			}
+			return connectors.stream()
+					.filter(connector -> (connector.getConnectionFactory(SslConnectionFactory.class) != null) == https)
+					.findFirst().map(ServerConnector::getLocalPort).orElse(INVALID_PORT);
+		}
+
+	}
+
+}
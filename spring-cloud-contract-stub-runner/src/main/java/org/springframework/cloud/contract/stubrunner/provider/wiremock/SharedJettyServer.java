@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.provider.wiremock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import wiremock.javax.servlet.ServletException;
+import wiremock.javax.servlet.http.HttpServletRequest;
+import wiremock.javax.servlet.http.HttpServletResponse;
+import wiremock.org.eclipse.jetty.io.ArrayByteBufferPool;
+import wiremock.org.eclipse.jetty.io.NetworkTrafficListener;
+import wiremock.org.eclipse.jetty.server.ConnectionFactory;
+import wiremock.org.eclipse.jetty.server.Connector;
+import wiremock.org.eclipse.jetty.server.Handler;
+import wiremock.org.eclipse.jetty.server.NetworkTrafficServerConnector;
+import wiremock.org.eclipse.jetty.server.Request;
+import wiremock.org.eclipse.jetty.server.Server;
+import wiremock.org.eclipse.jetty.server.ServerConnector;
+import wiremock.org.eclipse.jetty.server.handler.AbstractHandler;
+import wiremock.org.eclipse.jetty.util.component.LifeCycle;
+import wiremock.org.eclipse.jetty.util.thread.QueuedThreadPool;
+import wiremock.org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+
+/**
+ * Single Jetty server that hosts the HTTP servers of many WireMock instances. Each
+ * WireMock instance keeps its own connectors (and so its own ports) and handlers, so the
+ * stub mappings stay isolated, while the threads, the scheduler and the buffers are
+ * shared.
+ *
+ * A connector accepts connections in its selector thread, so each port costs one thread.
+ * The other threads of the pool handle the requests of all ports. The server is stopped
+ * when the last WireMock instance detaches from it.
+ *
+ * @since 3.0.1
+ */
+final class SharedJettyServer {
+
+	static final SharedJettyServer INSTANCE = new SharedJettyServer();
+
+	private static final Log log = LogFactory.getLog(SharedJettyServer.class);
+
+	private static final int SELECTORS = 1;
+
+	private static final int MIN_THREADS = 8;
+
+	private final QueuedThreadPool threadPool = new QueuedThreadPool();
+
+	private final Server server = new Server(this.threadPool);
+
+	private final ScheduledExecutorScheduler scheduler = new ScheduledExecutorScheduler(
+			"stub-runner-shared-jetty-scheduler", false);
+
+	private final ArrayByteBufferPool bufferPool = new ArrayByteBufferPool();
+
+	private final ConnectorRoutingHandler handler = new ConnectorRoutingHandler();
+
+	private int workerThreads;
+
+	private int selectorThreads;
+
+	private SharedJettyServer() {
+		this.threadPool.setName("stub-runner-shared-jetty");
+		this.server.addBean(this.scheduler);
+		this.server.addBean(this.bufferPool);
+		this.server.setHandler(this.handler);
+		this.server.setStopTimeout(0);
+	}
+
+	/**
+	 * Starts connectors with the settings of the given ones and routes their requests to
+	 * the given handler.
+	 * @param templates connectors built by WireMock for its own Jetty server
+	 * @param handler handlers of the WireMock instance
+	 * @param workerThreads number of threads handling the requests of all ports, used
+	 * when the server is not running yet
+	 * @return started connectors
+	 */
+	synchronized List<ServerConnector> attach(List<ConnectorTemplate> templates, Handler handler,
+			int workerThreads) {
+		List<ServerConnector> connectors = new ArrayList<>();
+		try {
+			if (!this.server.isStarted()) {
+				this.workerThreads = workerThreads;
+				updateMaxThreads(0);
+				this.server.start();
+			}
+			handler.setServer(this.server);
+			handler.start();
+			for (ConnectorTemplate template : templates) {
+				ServerConnector connector = connector(template);
+				connectors.add(connector);
+				this.handler.handlers.put(connector, handler);
+				updateMaxThreads(SELECTORS);
+				this.server.addConnector(connector);
+				if (!connector.isStarted()) {
+					connector.start();
+				}
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Attached connectors " + connectors + " to the shared Jetty server");
+			}
+			return connectors;
+		}
+		catch (Exception ex) {
+			detach(connectors, handler);
+			throw new IllegalStateException("Failed to start connectors " + connectors + " in the shared Jetty server",
+					ex);
+		}
+	}
+
+	/**
+	 * Stops the connectors and the handler. The server is stopped when no connectors are
+	 * left.
+	 * @param connectors connectors returned by
+	 * {@link #attach(List, Handler, int)}
+	 * @param handler handlers of the WireMock instance
+	 */
+	synchronized void detach(List<ServerConnector> connectors, Handler handler) {
+		for (ServerConnector connector : connectors) {
+			this.handler.handlers.remove(connector);
+			stopQuietly(connector);
+			this.server.removeConnector(connector);
+			updateMaxThreads(-SELECTORS);
+		}
+		stopQuietly(handler);
+		if (this.server.getConnectors().length == 0) {
+			stopQuietly(this.server);
+		}
+	}
+
+	int maxThreads() {
+		return this.threadPool.getMaxThreads();
+	}
+
+	private ServerConnector connector(ConnectorTemplate template) {
+		ServerConnector settings = template.connector;
+		NetworkTrafficServerConnector connector = new NetworkTrafficServerConnector(this.server, this.threadPool,
+				this.scheduler, this.bufferPool, 0, SELECTORS,
+				settings.getConnectionFactories().toArray(new ConnectionFactory[0]));
+		connector.setHost(settings.getHost());
+		connector.setPort(settings.getPort());
+		connector.setIdleTimeout(settings.getIdleTimeout());
+		connector.setAcceptQueueSize(settings.getAcceptQueueSize());
+		if (template.listener != null) {
+			connector.addNetworkTrafficListener(template.listener);
+		}
+		return connector;
+	}
+
+	/**
+	 * Every connector holds one thread of the pool for its selector.
+	 */
+	private void updateMaxThreads(int selectorsDelta) {
+		this.selectorThreads += selectorsDelta;
+		int maxThreads = this.workerThreads + this.selectorThreads;
+		this.threadPool.setMinThreads(Math.min(MIN_THREADS, maxThreads));
+		this.threadPool.setMaxThreads(maxThreads);
+	}
+
+	private void stopQuietly(LifeCycle lifeCycle) {
+		try {
+			lifeCycle.stop();
+		}
+		catch (Exception ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to stop [" + lifeCycle + "]", ex);
+			}
+		}
+	}
+
+	/**
+	 * Connector built by WireMock together with the traffic listener it was created with.
+	 */
+	static final class ConnectorTemplate {
+
+		final ServerConnector connector;
+
+		final NetworkTrafficListener listener;
+
+		ConnectorTemplate(ServerConnector connector, NetworkTrafficListener listener) {
+			this.connector = connector;
+			this.listener = listener;
+		}
+
+	}
+
+	/**
+	 * Passes each request to the handler of the WireMock instance that owns the connector
+	 * of the request.
+	 */
+	private static final class ConnectorRoutingHandler extends AbstractHandler {
+
+		private final Map<Connector, Handler> handlers = new ConcurrentHashMap<>();
+
+		@Override
+		public void handle(String target, Request baseRequest, HttpServletRequest request,
+				HttpServletResponse response) throws IOException, ServletException {
+			Handler handler = this.handlers.get(baseRequest.getHttpChannel().getConnector());
+			if (handler != null) {
+				handler.handle(target, baseRequest, request, response);
+			}
+		}
+
+	}
+
+}
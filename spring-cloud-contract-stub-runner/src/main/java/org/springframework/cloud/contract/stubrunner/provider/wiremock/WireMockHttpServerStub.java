@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -35,8 +37,6 @@ import com.github.tomakehurst.wiremock.common.JsonException;
 import com.github.tomakehurst.wiremock.common.Slf4jNotifier;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.extension.Extension;
-import com.github.tomakehurst.wiremock.security.ClientAuthenticator;
-import com.github.tomakehurst.wiremock.security.NoClientAuthenticator;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +45,8 @@ import wiremock.com.github.jknack.handlebars.Helper;
 import org.springframework.cloud.contract.stubrunner.HttpServerStub;
 import org.springframework.cloud.contract.stubrunner.HttpServerStubConfiguration;
 import org.springframework.cloud.contract.stubrunner.HttpServerStubConfigurer;
+import org.springframework.cloud.contract.stubrunner.StubRunnerOptions;
+import org.springframework.cloud.contract.stubrunner.StubRunnerPropertyUtils;
 import org.springframework.cloud.contract.verifier.builder.handlebars.HandlebarsEscapeHelper;
 import org.springframework.cloud.contract.verifier.builder.handlebars.HandlebarsJsonPathHelper;
 import org.springframework.cloud.contract.verifier.dsl.wiremock.DefaultResponseTransformer;
@@ -70,11 +72,29 @@ public class WireMockHttpServerStub implements HttpServerStub {
 
 	private static final int INVALID_PORT = -1;
 
+	/**
+	 * Runs all the stubs in a single Jetty server with a shared thread pool. Each stub
+	 * keeps its own port and mappings.
+	 */
+	static final String SHARED_SERVER_ENABLED_PROPERTY = "shared-server.enabled";
+
+	/**
+	 * Number of threads of the shared Jetty server handling the requests of all stubs.
+	 */
+	static final String SHARED_SERVER_THREADS_PROPERTY = "shared-server.threads";
+
+	private static final int DEFAULT_SHARED_SERVER_THREADS = 50;
+
 	private WireMockServer wireMockServer;
 
 	private boolean https = false;
 
-	private WireMockConfiguration wireMockConfiguration;
+	/**
+	 * Mappings parsed while checking whether a file is a valid mapping. They are reused
+	 * when the mappings get registered so that each file is read and parsed only once.
+	 * Cleared once the mappings got registered or the server got stopped.
+	 */
+	private final Map<Path, StubMapping> acceptedMappings = new ConcurrentHashMap<>();
 
 	private WireMockConfiguration config() {
 		if (ClassUtils.isPresent("org.springframework.cloud.contract.wiremock.WireMockSpring", null)) {
@@ -126,12 +146,15 @@ public class WireMockHttpServerStub implements HttpServerStub {
 		}
 		int port = configuration.port;
 		WireMockConfiguration wireMockConfiguration = config().port(port).notifier(new Slf4jNotifier(true));
+		if (sharedServerEnabled(configuration.stubRunnerOptions)) {
+			wireMockConfiguration.httpServerFactory(
+					new SharedJettyHttpServerFactory(sharedServerThreads(configuration.stubRunnerOptions)));
+		}
 		if (configuration.configurer.isAccepted(wireMockConfiguration)) {
 			@SuppressWarnings("unchecked")
 			HttpServerStubConfigurer<WireMockConfiguration> configurer = configuration.configurer;
 			wireMockConfiguration = configurer.configure(wireMockConfiguration, configuration);
 		}
-		this.wireMockConfiguration = wireMockConfiguration;
 		this.https = wireMockConfiguration.httpsSettings().enabled();
 		port = this.https ? wireMockConfiguration.httpsSettings().port() : wireMockConfiguration.portNumber();
 		this.wireMockServer = new WireMockServer(wireMockConfiguration);
@@ -144,6 +167,16 @@ public class WireMockHttpServerStub implements HttpServerStub {
 		return this;
 	}
 
+	private boolean sharedServerEnabled(StubRunnerOptions options) {
+		return options != null && Boolean
+				.parseBoolean(StubRunnerPropertyUtils.getProperty(options.getProperties(), SHARED_SERVER_ENABLED_PROPERTY));
+	}
+
+	private int sharedServerThreads(StubRunnerOptions options) {
+		String threads = StubRunnerPropertyUtils.getProperty(options.getProperties(), SHARED_SERVER_THREADS_PROPERTY);
+		return StringUtils.hasText(threads) ? Integer.parseInt(threads) : DEFAULT_SHARED_SERVER_THREADS;
+	}
+
 	@Override
 	public int httpsPort() {
 		return this.https ? port() : INVALID_PORT;
@@ -161,6 +194,7 @@ public class WireMockHttpServerStub implements HttpServerStub {
 
 	@Override
 	public HttpServerStub stop() {
+		this.acceptedMappings.clear();
 		if (!isRunning()) {
 			if (log.isTraceEnabled()) {
 				log.trace("Trying to stop a non started server!");
@@ -173,10 +207,15 @@ public class WireMockHttpServerStub implements HttpServerStub {
 
 	@Override
 	public HttpServerStub registerMappings(Collection<File> stubFiles) {
+		return registerMappingPaths(stubFiles.stream().map(File::toPath).collect(Collectors.toList()));
+	}
+
+	@Override
+	public HttpServerStub registerMappingPaths(Collection<Path> stubPaths) {
 		if (!isRunning()) {
 			throw new IllegalStateException("Server not started!");
 		}
-		registerStubMappings(stubFiles);
+		registerStubMappings(stubPaths);
 		return this;
 	}
 
@@ -195,21 +234,42 @@ public class WireMockHttpServerStub implements HttpServerStub {
 
 	@Override
 	public boolean isAccepted(File file) {
-		return file.getName().endsWith(".json") && validMapping(file);
+		return isAccepted(file.toPath());
 	}
 
-	private boolean validMapping(File file) {
+	@Override
+	public boolean isAccepted(Path path) {
+		return path.getFileName() != null && path.getFileName().toString().endsWith(".json") && validMapping(path);
+	}
+
+	private boolean validMapping(Path path) {
 		try {
-			getMapping(file);
+			this.acceptedMappings.put(path, getMapping(path));
 			return true;
 		}
 		catch (IllegalStateException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("File [" + path + "] is not a valid WireMock stub mapping", e);
+			}
 			return false;
 		}
 	}
 
+	/**
+	 * Drops the mappings that were parsed while accepting the paths but haven't been
+	 * registered yet. Called when the stub jar that the paths point to gets closed.
+	 * @since 3.0.1
+	 */
+	public void clearAcceptedMappings() {
+		this.acceptedMappings.clear();
+	}
+
 	StubMapping getMapping(File file) {
-		try (InputStream stream = Files.newInputStream(file.toPath())) {
+		return getMapping(file.toPath());
+	}
+
+	StubMapping getMapping(Path path) {
+		try (InputStream stream = Files.newInputStream(path)) {
 			return StubMapping.buildFrom(StreamUtils.copyToString(stream, Charset.forName("UTF-8")));
 		}
 		catch (IOException | JsonException e) {
@@ -217,34 +277,31 @@ public class WireMockHttpServerStub implements HttpServerStub {
 		}
 	}
 
-	private void registerStubMappings(Collection<File> stubFiles) {
-		WireMock wireMock = wireMock();
-		registerDefaultHealthChecks(wireMock);
-		registerStubs(stubFiles, wireMock);
-	}
-
-	private WireMock wireMock() {
-		String scheme = this.https ? "https" : "http";
-		String host = "localhost";
-		int port = port();
-		String urlPathPrefix = null;
-		String hostHeader = null;
-		String proxyHost = this.wireMockConfiguration.proxyHostHeader();
-		int proxyPort = this.wireMockConfiguration.proxyVia().port();
-		ClientAuthenticator authenticator = NoClientAuthenticator.noClientAuthenticator();
-		return new WireMock(scheme, host, port, urlPathPrefix, hostHeader, proxyHost, proxyPort, authenticator);
+	/**
+	 * Registers the mappings directly in the embedded {@link WireMockServer}, without
+	 * going through its HTTP admin API.
+	 * @param stubPaths paths to the stub mappings
+	 */
+	private void registerStubMappings(Collection<Path> stubPaths) {
+		long start = System.currentTimeMillis();
+		registerDefaultHealthChecks();
+		List<StubMapping> stubMappings = registerStubs(stubPaths);
+		if (log.isInfoEnabled()) {
+			log.info("Registered [" + stubMappings.size() + "] stub mappings for server at port [" + port()
+					+ "] in [" + (System.currentTimeMillis() - start) + "] ms");
+		}
 	}
 
-	private void registerDefaultHealthChecks(WireMock wireMock) {
-		registerHealthCheck(wireMock, "/ping");
-		registerHealthCheck(wireMock, "/health");
+	private void registerDefaultHealthChecks() {
+		registerHealthCheck("/ping");
+		registerHealthCheck("/health");
 	}
 
-	private void registerStubs(Collection<File> sortedMappings, WireMock wireMock) {
+	private List<StubMapping> registerStubs(Collection<Path> sortedMappings) {
 		List<StubMapping> stubMappings = new ArrayList<>();
-		for (File mappingDescriptor : sortedMappings) {
+		for (Path mappingDescriptor : sortedMappings) {
 			try {
-				stubMappings.add(registerDescriptor(wireMock, mappingDescriptor));
+				stubMappings.add(registerDescriptor(mappingDescriptor));
 				if (log.isDebugEnabled()) {
 					log.debug("Registered stub mappings from [" + mappingDescriptor + "]");
 				}
@@ -255,22 +312,28 @@ public class WireMockHttpServerStub implements HttpServerStub {
 				}
 			}
 		}
+		// the mappings that were accepted but not registered are not needed anymore
+		this.acceptedMappings.clear();
 		PortAndMappings portAndMappings = SERVERS.get(this);
 		SERVERS.put(this, new PortAndMappings(portAndMappings.random, portAndMappings.port, stubMappings));
+		return stubMappings;
 	}
 
-	private StubMapping registerDescriptor(WireMock wireMock, File mappingDescriptor) {
-		StubMapping mapping = getMapping(mappingDescriptor);
-		wireMock.register(mapping);
+	private StubMapping registerDescriptor(Path mappingDescriptor) {
+		StubMapping mapping = this.acceptedMappings.remove(mappingDescriptor);
+		if (mapping == null) {
+			mapping = getMapping(mappingDescriptor);
+		}
+		this.wireMockServer.addStubMapping(mapping);
 		return mapping;
 	}
 
-	private void registerHealthCheck(WireMock wireMock, String url) {
-		registerHealthCheck(wireMock, url, "OK");
+	private void registerHealthCheck(String url) {
+		registerHealthCheck(url, "OK");
 	}
 
-	private void registerHealthCheck(WireMock wireMock, String url, String body) {
-		wireMock.register(
+	private void registerHealthCheck(String url, String body) {
+		this.wireMockServer.stubFor(
 				WireMock.get(WireMock.urlEqualTo(url)).willReturn(WireMock.aResponse().withBody(body).withStatus(200)));
 	}
 
@@ -114,7 +114,8 @@ public class StubRunnerConfiguration {
 				.withDeleteStubsAfterTest(Boolean.parseBoolean(resolvePlaceholder(props.isDeleteStubsAfterTest())))
 				.withGenerateStubs(Boolean.parseBoolean(resolvePlaceholder(props.isGenerateStubs())))
 				.withProperties(props.getProperties()).withHttpServerStubConfigurer(props.getHttpServerStubConfigurer())
-				.withServerId(resolvePlaceholder(props.getServerId()));
+				.withServerId(resolvePlaceholder(props.getServerId()))
+				.withStartupParallelism(Integer.parseInt(resolvePlaceholder(props.getStartupParallelism())));
 	}
 
 	private String[] resolvePlaceholder(String[] string) {
@@ -136,6 +136,12 @@ public class StubRunnerProperties {
 	 */
 	private String serverId;
 
+	/**
+	 * Number of threads used to download and start the stubs. With the default value of
+	 * {@code 1} stubs are started one after another.
+	 */
+	private int startupParallelism = 1;
+
 	public int getMinPort() {
 		return this.minPort;
 	}
@@ -294,6 +300,14 @@ public class StubRunnerProperties {
 		this.serverId = serverId;
 	}
 
+	public int getStartupParallelism() {
+		return this.startupParallelism;
+	}
+
+	public void setStartupParallelism(int startupParallelism) {
+		this.startupParallelism = startupParallelism;
+	}
+
 	@Override
 	public String toString() {
 		return "StubRunnerProperties{" + "minPort=" + this.minPort + ", maxPort=" + this.maxPort + ", repositoryRoot="
@@ -50,6 +50,21 @@ class AetherStubDownloaderSpec extends Specification {
 			entry == null
 	}
 
+	def 'should not use the shared unpack cache when stubs get generated at runtime'() {
+		given:
+			StubRunnerOptions stubRunnerOptions = new StubRunnerOptionsBuilder()
+					.withStubsMode(StubRunnerProperties.StubsMode.LOCAL)
+					.withGenerateStubs(true)
+					.withProperties(["unpack-cache.dir": folder.newFolder("cache").absolutePath])
+					.build()
+
+		when:
+			AetherStubDownloader aetherStubDownloader = new AetherStubDownloader(stubRunnerOptions)
+
+		then:
+			aetherStubDownloader.unpackCache == null
+	}
+
 	def 'should throw an exception when local m2 gets replaced with a temp dir and a jar is not found in remote'() {
 		given:
 			StubRunnerOptions stubRunnerOptions = new StubRunnerOptionsBuilder()
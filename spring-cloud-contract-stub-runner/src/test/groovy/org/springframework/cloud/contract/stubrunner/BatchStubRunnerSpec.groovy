@@ -50,6 +50,87 @@ class BatchStubRunnerSpec extends Specification {
 			exception.message == "No label with name [non existing label] was found. Here you have the list of dependencies and their labels [Dependency [a:b:c] has labels [foo]]"
 	}
 
+	def 'should start stubs in parallel and keep their order'() {
+		given:
+			List<StubRunner> runners = (1..10).collect { int index ->
+				StubRunner runner = Mock(StubRunner)
+				runner.runStubs() >> {
+					sleep(10 * (10 - index))
+					return new RunningStubs([(new StubConfiguration("group:artifact${index}")): 10000 + index])
+				}
+				return runner
+			}
+			BatchStubRunner batchStubRunner = new BatchStubRunner(runners, 4)
+		when:
+			RunningStubs runningStubs = batchStubRunner.runStubs()
+		then:
+			runningStubs.validNamesAndPorts().values().toList() == (1..10).collect { 10000 + it }
+	}
+
+	def 'should aggregate all startup failures when starting stubs in parallel'() {
+		given:
+			StubRunner failing = Mock(StubRunner)
+			failing.runStubs() >> { throw new IllegalStateException("first") }
+			StubRunner otherFailing = Mock(StubRunner)
+			otherFailing.runStubs() >> { throw new IllegalStateException("second") }
+			BatchStubRunner batchStubRunner = new BatchStubRunner([failing, otherFailing], 2)
+		when:
+			batchStubRunner.runStubs()
+		then:
+			IllegalStateException exception = thrown(IllegalStateException)
+			([exception.cause] + exception.suppressed.toList())*.message.sort() == ['first', 'second']
+	}
+
+	def 'should stop the started stubs when another stub fails to start in parallel'() {
+		given:
+			StubRunner started = Mock(StubRunner)
+			started.runStubs() >> new RunningStubs([(new StubConfiguration("group:artifact")): 10000])
+			StubRunner failing = Mock(StubRunner)
+			failing.runStubs() >> {
+				sleep(50)
+				throw new IllegalStateException("failed")
+			}
+			BatchStubRunner batchStubRunner = new BatchStubRunner([started, failing], 2)
+		when:
+			batchStubRunner.runStubs()
+		then:
+			thrown(IllegalStateException)
+			1 * started.close()
+			0 * failing.close()
+	}
+
+	def 'should not stop the started stubs when another stub fails to start sequentially'() {
+		given:
+			StubRunner started = Mock(StubRunner)
+			started.runStubs() >> new RunningStubs([(new StubConfiguration("group:artifact")): 10000])
+			StubRunner failing = Mock(StubRunner)
+			failing.runStubs() >> { throw new IllegalStateException("failed") }
+			BatchStubRunner batchStubRunner = new BatchStubRunner([started, failing], 1)
+		when:
+			batchStubRunner.runStubs()
+		then:
+			IllegalStateException ex = thrown(IllegalStateException)
+			ex.message == "failed"
+			0 * started.close()
+	}
+
+	def 'should start the stubs only once until closed'() {
+		given:
+			StubRunner runner = Mock(StubRunner)
+			BatchStubRunner batchStubRunner = new BatchStubRunner([runner])
+		when:
+			RunningStubs first = batchStubRunner.runStubs()
+			RunningStubs second = batchStubRunner.runStubs()
+		then:
+			1 * runner.runStubs() >> new RunningStubs([(new StubConfiguration("group:artifact")): 10000])
+			first.is(second)
+		when:
+			batchStubRunner.close()
+			batchStubRunner.runStubs()
+		then:
+			1 * runner.runStubs() >> new RunningStubs([(new StubConfiguration("group:artifact")): 10000])
+	}
+
 	Collection<StubRunner> runners() {
 		StubRunner runner = Mock(StubRunner)
 		runner.findStubUrl("group", "knownArtifact") >> KNOWN_STUB_URL
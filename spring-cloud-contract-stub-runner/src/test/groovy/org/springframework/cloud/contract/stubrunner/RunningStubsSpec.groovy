@@ -84,4 +84,23 @@ class RunningStubsSpec extends Specification {
 			runningStubs.isPresent('missing artifact id') == false
 	}
 
+	def "should find the first matching stub when many stubs are running"() {
+		given:
+			Map<StubConfiguration, Integer> stubs = new LinkedHashMap<>()
+			(1..150).each {
+				stubs.put(new StubConfiguration("group${it % 3}", "artifact${it}", 'version', 'stubs'), 10000 + it)
+			}
+			stubs.put(new StubConfiguration('othergroup', 'artifact1', 'version', 'stubs'), 20000)
+			RunningStubs runningStubs = new RunningStubs(stubs)
+		expect:
+			runningStubs.getPort('artifact1') == 10001
+			runningStubs.getPort('othergroup', 'artifact1') == 20000
+			runningStubs.getPort('group1:artifact1:+:stubs') == 10001
+			runningStubs.getPort('group0:artifact150') == 10150
+			runningStubs.getPort('group2:artifact150') == null
+			runningStubs.getEntry('group1:artifact1:version:stubs').value == 10001
+			runningStubs.toIvyToPortMapping().size() == 151
+			runningStubs.toIvyToPortMapping()['othergroup:artifact1:version:stubs'] == 20000
+	}
+
 }
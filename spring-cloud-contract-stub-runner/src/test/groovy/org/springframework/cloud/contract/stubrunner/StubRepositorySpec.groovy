@@ -16,19 +16,32 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.Specification
 
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.stubrunner.provider.wiremock.WireMockHttpServerStub
+
 class StubRepositorySpec extends Specification {
 	public static
 	final File REPOSITORY_LOCATION = new File('src/test/resources/repository')
 
+	@Rule
+	TemporaryFolder folder = new TemporaryFolder()
+
 	def 'should retrieve all descriptors for given project'() {
 		given:
 			StubRepository repository = new StubRepository(REPOSITORY_LOCATION,
 					[], new StubRunnerOptionsBuilder().build())
 			int expectedDescriptorsSize = 8
 		when:
-			List<File> descriptors = repository.getStubs()
+			List<Path> descriptors = repository.getStubs()
 		then:
 			descriptors.size() == expectedDescriptorsSize
 	}
@@ -38,7 +51,7 @@ class StubRepositorySpec extends Specification {
 			StubRepository repository = new StubRepository(new File('src/test/resources/emptyrepo'),
 					[], new StubRunnerOptionsBuilder().build())
 		when:
-			List<File> descriptors = repository.getStubs()
+			List<Path> descriptors = repository.getStubs()
 		then:
 			descriptors.empty
 	}
@@ -59,8 +72,119 @@ class StubRepositorySpec extends Specification {
 					.withConsumerName("ping").build())
 			int expectedDescriptorsSize = 1
 		when:
-			List<File> descriptors = repository.stubs
+			List<Path> descriptors = repository.stubs
 		then:
 			descriptors.size() == expectedDescriptorsSize
 	}
+
+	def 'should read the mappings straight from a stub jar'() {
+		given:
+			File jar = jarOf(REPOSITORY_LOCATION)
+			StubRepository repository = new StubRepository(jar,
+					[], new StubRunnerOptionsBuilder().build())
+		when:
+			List<Path> descriptors = repository.getStubs()
+			Collection<Contract> contracts = repository.getContracts()
+		then:
+			descriptors.size() == 8
+			descriptors.every { it.fileSystem != REPOSITORY_LOCATION.toPath().fileSystem }
+			contracts.size() == new StubRepository(REPOSITORY_LOCATION).getContracts().size()
+		cleanup:
+			repository?.close()
+	}
+
+	def 'should retrieve only those mappings from a stub jar that contain the consumer name'() {
+		given:
+			StubRepository repository = new StubRepository(jarOf(REPOSITORY_LOCATION),
+					[], new StubRunnerOptionsBuilder()
+					.withStubPerConsumer(true)
+					.withConsumerName("ping").build())
+		when:
+			List<Path> descriptors = repository.stubs
+		then:
+			descriptors.size() == 1
+			descriptors.first().fileName.toString() == "ping.json"
+		cleanup:
+			repository?.close()
+	}
+
+	def 'should extract the mappings from a stub jar for http server stubs that work with files'() {
+		given:
+			FileOnlyHttpServerStub httpServerStub = new FileOnlyHttpServerStub()
+			StubRepository repository = new StubRepository(jarOf(REPOSITORY_LOCATION),
+					[httpServerStub], new StubRunnerOptionsBuilder().build())
+		when:
+			httpServerStub.registerMappingPaths(repository.stubs)
+		then:
+			repository.stubs.size() == 8
+			httpServerStub.registered.size() == 8
+			httpServerStub.registered.every { it.isFile() && it.name.endsWith(".json") }
+		cleanup:
+			repository?.close()
+	}
+
+	def 'should drop the accepted mappings when the stub jar gets closed'() {
+		given:
+			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
+			StubRepository repository = new StubRepository(jarOf(REPOSITORY_LOCATION),
+					[httpServerStub], new StubRunnerOptionsBuilder().build())
+			assert !httpServerStub.acceptedMappings.isEmpty()
+		when:
+			repository.close()
+		then:
+			httpServerStub.acceptedMappings.isEmpty()
+	}
+
+	private File jarOf(File directory) {
+		File jar = folder.newFile("stubs.jar")
+		new ZipOutputStream(new FileOutputStream(jar)).withCloseable { ZipOutputStream zip ->
+			Files.walk(directory.toPath()).filter { Files.isRegularFile(it) }.each { Path file ->
+				zip.putNextEntry(new ZipEntry(directory.toPath().relativize(file).toString().replace(File.separator, "/")))
+				zip.write(Files.readAllBytes(file))
+				zip.closeEntry()
+			}
+		}
+		return jar
+	}
+
+	static class FileOnlyHttpServerStub implements HttpServerStub {
+
+		final List<File> registered = []
+
+		@Override
+		int port() {
+			return -1
+		}
+
+		@Override
+		boolean isRunning() {
+			return false
+		}
+
+		@Override
+		HttpServerStub start(HttpServerStubConfiguration configuration) {
+			return this
+		}
+
+		@Override
+		HttpServerStub stop() {
+			return this
+		}
+
+		@Override
+		HttpServerStub registerMappings(Collection<File> stubFiles) {
+			this.registered.addAll(stubFiles)
+			return this
+		}
+
+		@Override
+		String registeredMappings() {
+			return ""
+		}
+
+		@Override
+		boolean isAccepted(File file) {
+			return file.name.endsWith(".json")
+		}
+	}
 }
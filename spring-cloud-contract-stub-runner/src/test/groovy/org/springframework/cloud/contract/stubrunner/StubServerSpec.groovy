@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.contract.stubrunner
 
+import java.nio.file.Path
+
 import spock.lang.Specification
 
 import org.springframework.cloud.contract.stubrunner.provider.wiremock.WireMockHttpServerStub
@@ -29,7 +31,7 @@ class StubServerSpec extends Specification {
 
 	def 'should register stub mappings upon server start'() {
 		given:
-			List<File> mappingDescriptors = new StubRepository(repository).getStubs()
+			List<Path> mappingDescriptors = new StubRepository(repository).getStubs()
 			StubServer pingStubServer = new StubServer(stubConfiguration, mappingDescriptors, [],
 					new WireMockHttpServerStub()).start(new HttpServerStubConfiguration(new HttpServerStubConfigurer.NoOpHttpServerStubConfigurer(), StubRunnerOptions.fromSystemProps(), new StubConfiguration("a:b:c:d"), STUB_SERVER_PORT))
 		when:
@@ -41,7 +43,7 @@ class StubServerSpec extends Specification {
 
 	def 'should provide stub server URL'() {
 		given:
-			List<File> mappingDescriptors = new StubRepository(repository).getStubs()
+			List<Path> mappingDescriptors = new StubRepository(repository).getStubs()
 			StubServer pingStubServer = new StubServer(stubConfiguration, mappingDescriptors, [],
 					new WireMockHttpServerStub()).start(new HttpServerStubConfiguration(new HttpServerStubConfigurer.NoOpHttpServerStubConfigurer(), StubRunnerOptions.fromSystemProps(), new StubConfiguration("a:b:c:d"), STUB_SERVER_PORT))
 		when:
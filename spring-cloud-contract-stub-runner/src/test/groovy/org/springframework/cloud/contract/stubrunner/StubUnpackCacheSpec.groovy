@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner
+
+import java.nio.file.Files
+import java.nio.file.attribute.FileTime
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class StubUnpackCacheSpec extends Specification {
+
+	@Rule
+	TemporaryFolder folder = new TemporaryFolder()
+
+	def "should unpack the same jar only once"() {
+		given:
+			File cacheDir = folder.newFolder("cache")
+			File stubJar = jar("first.jar", "mappings/foo.json": "{}", "contracts/foo.groovy": "foo")
+			File sameContent = jar("second.jar", "mappings/foo.json": "{}", "contracts/foo.groovy": "foo")
+		when:
+			File unpacked = new StubUnpackCache(cacheDir, 10).unpack(stubJar)
+		then:
+			new File(unpacked, "mappings/foo.json").text == "{}"
+			new File(unpacked, "contracts/foo.groovy").text == "foo"
+		when:
+			new File(unpacked, "marker").text = "already unpacked"
+			File unpackedAgain = new StubUnpackCache(cacheDir, 10).unpack(sameContent)
+		then:
+			unpackedAgain == unpacked
+			new File(unpackedAgain, "marker").exists()
+	}
+
+	def "should unpack jars with different content to different folders"() {
+		given:
+			File cacheDir = folder.newFolder("cache")
+			StubUnpackCache cache = new StubUnpackCache(cacheDir, 10)
+		when:
+			File first = cache.unpack(jar("first.jar", "mappings/foo.json": "{\"foo\":1}"))
+			File second = cache.unpack(jar("second.jar", "mappings/foo.json": "{\"foo\":2}"))
+		then:
+			first != second
+			new File(first, "mappings/foo.json").text == "{\"foo\":1}"
+			new File(second, "mappings/foo.json").text == "{\"foo\":2}"
+	}
+
+	def "should remove least recently used entries that are not in use"() {
+		given:
+			File cacheDir = folder.newFolder("cache")
+			File oldest = new File(cacheDir, "oldest")
+			File older = new File(cacheDir, "older")
+			[oldest, older].eachWithIndex { File entry, int index ->
+				new File(entry, "mappings").mkdirs()
+				Files.setLastModifiedTime(entry.toPath(), FileTime.fromMillis(1000L * (index + 1)))
+			}
+		when:
+			File unpacked = new StubUnpackCache(cacheDir, 2).unpack(jar("stubs.jar", "mappings/foo.json": "{}"))
+		then:
+			unpacked.exists()
+			!oldest.exists()
+			!new File(cacheDir, "oldest.lock").exists()
+			older.exists()
+			cacheDir.listFiles().findAll { it.name.startsWith(".") }.isEmpty()
+	}
+
+	def "should not remove entries used by this JVM"() {
+		given:
+			File cacheDir = folder.newFolder("cache")
+			StubUnpackCache cache = new StubUnpackCache(cacheDir, 1)
+		when:
+			File first = cache.unpack(jar("first.jar", "mappings/foo.json": "1"))
+			File second = cache.unpack(jar("second.jar", "mappings/foo.json": "2"))
+		then:
+			first.exists()
+			second.exists()
+	}
+
+	def "should unpack a jar once when many threads request it at the same time"() {
+		given:
+			File cacheDir = folder.newFolder("cache")
+			File stubJar = jar("stubs.jar", "mappings/foo.json": "{}")
+			ExecutorService executor = Executors.newFixedThreadPool(8)
+		when:
+			List<File> unpacked = executor.invokeAll((1..16).collect {
+				return { new StubUnpackCache(cacheDir, 10).unpack(stubJar) } as Callable<File>
+			})*.get()
+		then:
+			unpacked.unique().size() == 1
+			new File(unpacked.first(), "mappings/foo.json").text == "{}"
+			cacheDir.listFiles().findAll { it.isDirectory() }.size() == 1
+		cleanup:
+			executor.shutdownNow()
+	}
+
+	private File jar(Map<String, String> entries, String name) {
+		File jar = new File(folder.root, name)
+		new ZipOutputStream(new FileOutputStream(jar)).withCloseable { ZipOutputStream zip ->
+			entries.each { String entryName, String content ->
+				zip.putNextEntry(new ZipEntry(entryName))
+				zip.write(content.bytes)
+				zip.closeEntry()
+			}
+		}
+		return jar
+	}
+
+}
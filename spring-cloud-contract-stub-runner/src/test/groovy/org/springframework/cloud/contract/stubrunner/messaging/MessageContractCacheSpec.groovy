@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging
+
+import spock.lang.Specification
+
+import org.springframework.cloud.contract.spec.Contract
+
+class MessageContractCacheSpec extends Specification {
+
+	Contract first = Contract.make {
+		input {
+			messageFrom "foo"
+			messageHeaders {
+				header("type", "first")
+			}
+			messageBody(id: 1)
+		}
+	}
+
+	Contract second = Contract.make {
+		input {
+			messageFrom "foo"
+			messageHeaders {
+				header("type", "second")
+			}
+			messageBody(id: 2)
+		}
+	}
+
+	MessageContractMatcher matcher = new MessageContractMatcher([first, second])
+
+	def "should key the entries only by the headers that the contracts match on"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(matcher)
+		when:
+			cache.get(UUID.randomUUID(), [id: 1], [type: "first", offset: 1, timestamp: 10])
+			Contract contract = cache.get(UUID.randomUUID(), [id: 1], [type: "first", offset: 2, timestamp: 20])
+		then:
+			contract == first
+			cache.size() == 1
+			cache.hits == 1
+			cache.misses == 1
+	}
+
+	def "should not return the cached contract when the payload doesn't match it"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(matcher)
+			cache.get(null, [id: 1], [type: "first"])
+		when:
+			Contract contract = cache.get(null, [id: 3], [type: "first"])
+		then:
+			contract == null
+			cache.hits == 0
+			cache.misses == 2
+	}
+
+	def "should return the first matching contract when the cached contracts overlap"() {
+		given:
+			Contract anyId = Contract.make {
+				input {
+					messageFrom "foo"
+					messageHeaders {
+						header("type", "first")
+					}
+					messageBody(id: $(consumer(regex("[0-9]+")), producer(3)))
+				}
+			}
+			MessageContractMatcher overlapping = new MessageContractMatcher([first, anyId])
+			MessageContractCache cache = new MessageContractCache(overlapping)
+		when:
+			Contract anyIdMatch = cache.get(null, [id: 3], [type: "first"])
+			Contract firstMatch = cache.get(null, [id: 1], [type: "first"])
+			Contract firstMatchAgain = cache.get(null, [id: 1], [type: "first"])
+		then:
+			anyIdMatch == anyId
+			firstMatch == first
+			firstMatchAgain == first
+			overlapping.matchingContract([id: 1], [type: "first"]) == first
+			cache.size() == 1
+			cache.hits == 2
+			cache.misses == 1
+	}
+
+	def "should not share the entry when the matched headers differ"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(matcher)
+		when:
+			Contract firstMatch = cache.get(null, [id: 1], [type: "first"])
+			Contract secondMatch = cache.get(null, [id: 2], [type: "second"])
+		then:
+			firstMatch == first
+			secondMatch == second
+			cache.size() == 2
+			cache.misses == 2
+	}
+
+	def "should not cache messages that matched no contract"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(matcher)
+		when:
+			2.times { cache.get(null, [id: 1], [:]) }
+		then:
+			cache.misses == 2
+			cache.size() == 0
+	}
+
+	def "should return the contract of a message created from its output by the message id"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(matcher)
+			UUID id = UUID.randomUUID()
+			cache.put(id, second)
+		when:
+			Contract contract = cache.get(id, [output: true], [:])
+		then:
+			contract == second
+			cache.hits == 1
+	}
+
+	def "should evict the oldest entries when the cache is full"() {
+		given:
+			MessageContractCache cache = new MessageContractCache(2, matcher)
+		when:
+			(1..5).each { cache.put(it, first) }
+		then:
+			cache.size() == 2
+		when:
+			cache.get(5, [:], [:])
+			cache.get(1, [:], [:])
+		then:
+			cache.hits == 1
+			cache.misses == 1
+	}
+
+}
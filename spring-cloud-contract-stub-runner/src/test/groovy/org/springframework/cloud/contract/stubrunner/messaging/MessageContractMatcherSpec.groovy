@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.stubrunner.messaging
+
+import spock.lang.Specification
+
+import org.springframework.cloud.contract.spec.Contract
+
+class MessageContractMatcherSpec extends Specification {
+
+	Contract created = contract("created", "type", "created")
+
+	Contract anyType = Contract.make {
+		name "any"
+		input {
+			messageFrom "foo"
+			messageHeaders {
+				header("type", $(c(regex("[a-z]+")), p("updated")))
+			}
+			messageBody(id: 1)
+		}
+	}
+
+	Contract updated = contract("updated", "type", "updated")
+
+	Contract deleted = contract("deleted", "type", "deleted")
+
+	MessageContractMatcher matcher = new MessageContractMatcher([created, anyType, updated, deleted])
+
+	def "should match the contract indexed by the exact header value"() {
+		expect:
+			matcher.matchingContract([id: 1], [type: "created"]) == created
+	}
+
+	def "should pick the first declared contract when indexed and not indexed contracts match"() {
+		expect:
+			matcher.matchingContract([id: 1], [type: "deleted"]) == anyType
+	}
+
+	def "should not match when the indexed header is missing"() {
+		expect:
+			matcher.matchingContract([id: 1], [other: "created"]) == null
+	}
+
+	def "should not match when the body doesn't match the indexed contract"() {
+		given:
+			MessageContractMatcher matcher = new MessageContractMatcher([created, deleted])
+		expect:
+			matcher.matchingContract([id: 2], [type: "created"]) == null
+	}
+
+	def "should reuse the compiled json paths for subsequent messages"() {
+		expect:
+			(1..3).every { matcher.matchingContract([id: 1], [type: "created"]) == created }
+	}
+
+	private static Contract contract(String contractName, String headerName, String headerValue) {
+		return Contract.make {
+			name contractName
+			input {
+				messageFrom "foo"
+				messageHeaders {
+					header(headerName, headerValue)
+				}
+				messageBody(id: 1)
+			}
+		}
+	}
+
+}
@@ -22,6 +22,7 @@ import spock.lang.Specification
 import org.springframework.cloud.contract.spec.Contract
 import org.springframework.http.MediaType
 import org.springframework.messaging.Message
+import org.springframework.messaging.support.MessageBuilder
 
 /**
  * @author Marcin Grzejszczak
@@ -247,4 +248,27 @@ class StubRunnerStreamMessageSelectorSpec extends Specification {
 		expect:
 			predicate.accept(message)
 	}
+
+	def "should reuse the matched contract for a different message with the same payload and headers"() {
+		given:
+			Contract dsl = Contract.make {
+				input {
+					messageFrom "foo"
+					messageHeaders {
+						header("foo", 123)
+					}
+					messageBody(foo: 123)
+				}
+			}
+		and:
+			StubRunnerStreamMessageSelector predicate = new StubRunnerStreamMessageSelector(dsl)
+		when:
+			boolean first = predicate.accept(MessageBuilder.withPayload([foo: 123]).setHeader("foo", 123).build())
+			boolean second = predicate.accept(MessageBuilder.withPayload([foo: 123]).setHeader("foo", 123).build())
+		then:
+			first
+			second
+			predicate.cache().misses == 1
+			predicate.cache().hits == 1
+	}
 }
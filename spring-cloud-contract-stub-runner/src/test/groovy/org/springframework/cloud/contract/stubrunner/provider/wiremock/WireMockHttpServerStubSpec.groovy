@@ -16,15 +16,24 @@
 
 package org.springframework.cloud.contract.stubrunner.provider.wiremock
 
+import java.nio.file.FileSystem
+import java.nio.file.FileSystems
+import java.nio.file.Path
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
 import com.github.tomakehurst.wiremock.http.RequestMethod
 import com.github.tomakehurst.wiremock.stubbing.StubMapping
 import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.Specification
 
 import org.springframework.boot.test.system.OutputCaptureRule
 import org.springframework.boot.test.web.client.TestRestTemplate
 import org.springframework.cloud.contract.stubrunner.HttpServerStubConfiguration
 import org.springframework.cloud.contract.stubrunner.HttpServerStubConfigurer
+import org.springframework.cloud.contract.stubrunner.StubRunnerOptions
+import org.springframework.cloud.contract.stubrunner.StubRunnerOptionsBuilder
 import org.springframework.http.HttpEntity
 import org.springframework.http.HttpMethod
 import org.springframework.util.SocketUtils
@@ -40,6 +49,9 @@ class WireMockHttpServerStubSpec extends Specification {
 	@Rule
 	OutputCaptureRule capture = new OutputCaptureRule()
 
+	@Rule
+	TemporaryFolder folder = new TemporaryFolder()
+
 	def 'should describe stub mapping'() {
 		given:
 			WireMockHttpServerStub mappingDescriptor = new WireMockHttpServerStub().start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, null,
@@ -85,6 +97,52 @@ class WireMockHttpServerStubSpec extends Specification {
 			mappingDescriptor?.stop()
 	}
 
+	def 'should register health checks and mappings in the embedded server'() {
+		given:
+			WireMockHttpServerStub mappingDescriptor = new WireMockHttpServerStub().start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, null,
+					null, SocketUtils.findAvailableTcpPort())) as WireMockHttpServerStub
+		when:
+			mappingDescriptor.registerMappings([
+					new File(WireMockHttpServerStubSpec.classLoader.getResource("simple.json").toURI()), BROKEN_MAPPING
+			])
+		then:
+			new TestRestTemplate().getForObject("http://localhost:${mappingDescriptor.port()}/health", String) == "OK"
+			new TestRestTemplate().getForObject("http://localhost:${mappingDescriptor.port()}/foobar", String) == "foo"
+			WireMockHttpServerStub.SERVERS.get(mappingDescriptor).mappings.size() == 1
+			capture.toString().contains("Registered [1] stub mappings")
+		cleanup:
+			mappingDescriptor?.stop()
+	}
+
+	def 'should run the stubs in a shared Jetty server on their own ports'() {
+		given:
+			StubRunnerOptions options = new StubRunnerOptionsBuilder()
+					.withProperties(["shared-server.enabled": "true", "shared-server.threads": "10"]).build()
+			WireMockHttpServerStub first = new WireMockHttpServerStub().start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, options,
+					null, SocketUtils.findAvailableTcpPort())) as WireMockHttpServerStub
+			WireMockHttpServerStub second = new WireMockHttpServerStub().start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, options,
+					null, SocketUtils.findAvailableTcpPort())) as WireMockHttpServerStub
+		when:
+			first.registerMappings([new File(WireMockHttpServerStubSpec.classLoader.getResource("simple.json").toURI())])
+			second.registerMappings([MAPPING_DESCRIPTOR])
+		then:
+			first.port() != second.port()
+			SharedJettyServer.INSTANCE.maxThreads() == 12
+			new TestRestTemplate().getForObject("http://localhost:${first.port()}/foobar", String) == "foo"
+			new TestRestTemplate().getForEntity("http://localhost:${second.port()}/foobar", String).statusCodeValue == 404
+			new TestRestTemplate().getForObject("http://localhost:${second.port()}/ping", String) == "pong"
+			new TestRestTemplate().getForObject("http://localhost:${first.port()}/ping", String) == "OK"
+		when:
+			first.stop()
+		then:
+			!first.isRunning()
+			second.isRunning()
+			new TestRestTemplate().getForObject("http://localhost:${second.port()}/health", String) == "OK"
+		cleanup:
+			first?.stop()
+			second?.stop()
+	}
+
 	def 'should accept a valid mapping'() {
 		given:
 			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
@@ -94,6 +152,32 @@ class WireMockHttpServerStubSpec extends Specification {
 			accepted
 	}
 
+	def 'should reuse the mapping parsed while accepting the file when registering it'() {
+		given:
+			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
+			assert httpServerStub.isAccepted(MAPPING_DESCRIPTOR)
+			StubMapping accepted = httpServerStub.acceptedMappings[MAPPING_DESCRIPTOR.toPath()]
+			httpServerStub.start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, null,
+					null, SocketUtils.findAvailableTcpPort()))
+		when:
+			httpServerStub.registerMappings([MAPPING_DESCRIPTOR])
+		then:
+			WireMockHttpServerStub.SERVERS.get(httpServerStub).mappings.first().is(accepted)
+			httpServerStub.acceptedMappings.isEmpty()
+		cleanup:
+			httpServerStub?.stop()
+	}
+
+	def 'should drop the accepted mappings when stopped'() {
+		given:
+			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
+			assert httpServerStub.isAccepted(MAPPING_DESCRIPTOR)
+		when:
+			httpServerStub.stop()
+		then:
+			httpServerStub.acceptedMappings.isEmpty()
+	}
+
 	def 'should not accept an arbitrary JSON file'() {
 		given:
 			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
@@ -120,4 +204,28 @@ class WireMockHttpServerStubSpec extends Specification {
 		then:
 			!accepted
 	}
+
+	def 'should accept and register a mapping read straight from a jar'() {
+		given:
+			File jar = folder.newFile("stubs.jar")
+			new ZipOutputStream(new FileOutputStream(jar)).withCloseable { ZipOutputStream zip ->
+				zip.putNextEntry(new ZipEntry("mappings/transformers.json"))
+				zip.write(MAPPING_DESCRIPTOR.bytes)
+				zip.closeEntry()
+			}
+			FileSystem jarFileSystem = FileSystems.newFileSystem(jar.toPath(), (ClassLoader) null)
+			Path mapping = jarFileSystem.getPath("/mappings/transformers.json")
+			WireMockHttpServerStub httpServerStub = new WireMockHttpServerStub()
+		when:
+			boolean accepted = httpServerStub.isAccepted(mapping)
+			httpServerStub.start(new HttpServerStubConfiguration(HttpServerStubConfigurer.NoOpHttpServerStubConfigurer.INSTANCE, null,
+					null, SocketUtils.findAvailableTcpPort()))
+			httpServerStub.registerMappingPaths([mapping])
+		then:
+			accepted
+			new TestRestTemplate().getForObject("http://localhost:${httpServerStub.port()}/ping", String) == "pong"
+		cleanup:
+			httpServerStub?.stop()
+			jarFileSystem?.close()
+	}
 }
@@ -18,9 +18,11 @@ package org.springframework.cloud.contract.stubrunner;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.eclipse.jgit.api.Git;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -228,6 +230,72 @@ public class GitStubDownloaderTests {
 		}
 	}
 
+	@Test
+	public void should_check_out_only_the_folders_of_the_requested_artifact_when_sparse_checkout_is_on()
+			throws Exception {
+		StubDownloaderBuilder stubDownloaderBuilder = new ScmStubDownloaderBuilder();
+		String contractFolderLocation = (new File(this.temporaryFolder, "contract-git").getAbsolutePath() + "/")
+				.replace(File.separator, "/");
+		StubDownloader stubDownloader = stubDownloaderBuilder.build(new StubRunnerOptionsBuilder()
+				.withStubsMode(StubRunnerProperties.StubsMode.REMOTE)
+				.withStubRepositoryRoot("git://" + contractFolderLocation).withProperties(sparseProps()).build());
+
+		Map.Entry<StubConfiguration, File> entry = stubDownloader
+				.downloadAndUnpackStubJar(new StubConfiguration("com.example:beer-api-producer-external:+"));
+
+		then(entry).isNotNull();
+		then(entry.getValue().getAbsolutePath()).contains("com.example" + File.separator + "beer-api-producer-external"
+				+ File.separator + "1.0.0.BUILD-SNAPSHOT");
+		then(entry.getValue().listFiles()).isNotEmpty();
+		File clonedRepo = GitContractsRepo.CACHED_SPARSE_LOCATIONS
+				.get(new GitResource("git://" + contractFolderLocation));
+		then(new File(clonedRepo, "README.adoc")).doesNotExist();
+		then(new File(clonedRepo, "META-INF/com.issue1305")).doesNotExist();
+
+		entry = stubDownloader
+				.downloadAndUnpackStubJar(new StubConfiguration("com.issue1305:beer-api-producer-external:+"));
+
+		then(entry).isNotNull();
+		then(entry.getValue().getAbsolutePath()).contains(
+				"com.issue1305" + File.separator + "beer-api-producer-external" + File.separator + "0.0.11-SNAPSHOT");
+	}
+
+	@Test
+	public void should_fetch_the_repo_at_most_once_per_downloader() throws Exception {
+		StubDownloaderBuilder stubDownloaderBuilder = new ScmStubDownloaderBuilder();
+		File origin = new File(this.temporaryFolder, "contract-git");
+		String contractFolderLocation = (origin.getAbsolutePath() + "/").replace(File.separator, "/");
+		StubRunnerOptions options = new StubRunnerOptionsBuilder().withStubsMode(StubRunnerProperties.StubsMode.REMOTE)
+				.withStubRepositoryRoot("git://" + contractFolderLocation).withProperties(sparseProps()).build();
+		StubDownloader stubDownloader = stubDownloaderBuilder.build(options);
+		then(stubDownloader.downloadAndUnpackStubJar(new StubConfiguration("foo.bar:bazService:0.0.1-SNAPSHOT")))
+				.isNotNull();
+
+		commitNewArtifact(origin, "META-INF/com.new/new-service/1.0.0/mappings/new.json");
+
+		then(stubDownloader.downloadAndUnpackStubJar(new StubConfiguration("com.new:new-service:1.0.0"))).isNull();
+		Map.Entry<StubConfiguration, File> entry = stubDownloaderBuilder.build(options)
+				.downloadAndUnpackStubJar(new StubConfiguration("com.new:new-service:1.0.0"));
+		then(entry).isNotNull();
+		then(new File(entry.getValue(), "mappings/new.json")).exists();
+	}
+
+	private void commitNewArtifact(File origin, String path) throws Exception {
+		File file = new File(origin, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), "{}".getBytes());
+		try (Git git = Git.open(origin)) {
+			git.add().addFilepattern(path).call();
+			git.commit().setMessage("New artifact").call();
+		}
+	}
+
+	private Map<String, String> sparseProps() {
+		Map<String, String> map = props();
+		map.put("git.sparse-checkout", "true");
+		return map;
+	}
+
 	private Map<String, String> props() {
 		Map<String, String> map = new HashMap<>();
 		map.put("git.branch", "master");
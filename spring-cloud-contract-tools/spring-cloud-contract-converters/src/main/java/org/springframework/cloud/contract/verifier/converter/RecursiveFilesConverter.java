@@ -17,19 +17,24 @@
 package org.springframework.cloud.contract.verifier.converter;
 
 import java.io.File;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,6 +43,7 @@ import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.verifier.file.ContractFileScanner;
 import org.springframework.cloud.contract.verifier.file.ContractFileScannerBuilder;
 import org.springframework.cloud.contract.verifier.file.ContractMetadata;
+import org.springframework.cloud.contract.verifier.util.ContractCache;
 import org.springframework.cloud.contract.verifier.util.NamesUtil;
 import org.springframework.cloud.contract.verifier.wiremock.DslToWireMockClientConverter;
 import org.springframework.util.MultiValueMap;
@@ -52,6 +58,9 @@ public class RecursiveFilesConverter {
 
 	private static final Log log = LogFactory.getLog(RecursiveFilesConverter.class);
 
+	private static final Pattern BUILD_FOLDER = Pattern
+			.compile("^.*" + Pattern.quote(File.separator) + "(target|build)" + Pattern.quote(File.separator) + ".*$");
+
 	private final StubGeneratorProvider holder;
 
 	private final File outMappingsDir;
@@ -64,14 +73,48 @@ public class RecursiveFilesConverter {
 
 	private final boolean excludeBuildFolders;
 
+	private final int parallelism;
+
+	private final File contractsCacheDir;
+
+	private final int contractsCacheMaxEntries;
+
+	/**
+	 * @param parallelism number of threads converting the contracts. The created stubs
+	 * are the same regardless of that setting
+	 * @param contractsCacheDir folder in which the converted contracts are kept between
+	 * builds, the cache is disabled when {@code null}
+	 * @param contractsCacheMaxEntries maximum number of cached contract files
+	 * @since 3.0.1
+	 */
 	public RecursiveFilesConverter(File stubsOutputDir, File contractsDslDir, List<String> excludedFiles,
-			String includedContracts, boolean excludeBuildFolders, StubGeneratorProvider holder) {
+			String includedContracts, boolean excludeBuildFolders, StubGeneratorProvider holder, int parallelism,
+			File contractsCacheDir, int contractsCacheMaxEntries) {
 		this.outMappingsDir = stubsOutputDir;
 		this.contractsDslDir = contractsDslDir;
 		this.excludedFiles = excludedFiles;
 		this.includedContracts = includedContracts;
 		this.excludeBuildFolders = excludeBuildFolders;
 		this.holder = holder == null ? new StubGeneratorProvider() : holder;
+		this.parallelism = parallelism;
+		this.contractsCacheDir = contractsCacheDir;
+		this.contractsCacheMaxEntries = contractsCacheMaxEntries;
+	}
+
+	/**
+	 * @param parallelism number of threads converting the contracts. The created stubs
+	 * are the same regardless of that setting
+	 * @since 3.0.1
+	 */
+	public RecursiveFilesConverter(File stubsOutputDir, File contractsDslDir, List<String> excludedFiles,
+			String includedContracts, boolean excludeBuildFolders, StubGeneratorProvider holder, int parallelism) {
+		this(stubsOutputDir, contractsDslDir, excludedFiles, includedContracts, excludeBuildFolders, holder,
+				parallelism, null, ContractCache.DEFAULT_MAX_ENTRIES);
+	}
+
+	public RecursiveFilesConverter(File stubsOutputDir, File contractsDslDir, List<String> excludedFiles,
+			String includedContracts, boolean excludeBuildFolders, StubGeneratorProvider holder) {
+		this(stubsOutputDir, contractsDslDir, excludedFiles, includedContracts, excludeBuildFolders, holder, 1);
 	}
 
 	public RecursiveFilesConverter(File stubsOutputDir, File contractsDslDir, List<String> excludedFiles,
@@ -80,75 +123,148 @@ public class RecursiveFilesConverter {
 	}
 
 	public void processFiles() {
+		processFiles(null);
+	}
+
+	/**
+	 * Converts only the contract files accepted by the filter.
+	 * @param contractFilter filter of the contract files, accepts all files when
+	 * {@code null}
+	 * @return created stub files by the contract files they were created from
+	 * @since 3.0.1
+	 */
+	public Map<Path, List<Path>> processFiles(Predicate<File> contractFilter) {
 		ContractFileScanner scanner = new ContractFileScannerBuilder().baseDir(contractsDslDir)
 				.excluded(new HashSet<>(excludedFiles)).ignored(new HashSet<>()).included(new HashSet<>())
-				.includeMatcher(includedContracts).build();
+				.includeMatcher(includedContracts).contractFilter(contractFilter).parallelism(parallelism)
+				.contractsCacheDir(contractsCacheDir).contractsCacheMaxEntries(contractsCacheMaxEntries).build();
 		MultiValueMap<Path, ContractMetadata> contracts = scanner.findContractsRecursively();
 		if (log.isDebugEnabled()) {
 			log.debug("Found the following contracts " + contracts);
 		}
+		Collection<StubGenerator> stubGenerators = holder.allOrDefault(new DslToWireMockClientConverter());
+		List<ContractToConvert> contractsToConvert = contractsToConvert(contracts, stubGenerators);
+		Map<Path, List<Path>> createdStubs = new LinkedHashMap<>();
+		if (parallelism <= 1 || contractsToConvert.size() <= 1) {
+			// each contract's stubs are written as soon as it's converted
+			for (ContractToConvert contractToConvert : contractsToConvert) {
+				writeAll(contractToConvert, convert(contractToConvert, stubGenerators), createdStubs);
+			}
+			return createdStubs;
+		}
+		List<List<StubToWrite>> stubs = convertInParallel(contractsToConvert, stubGenerators);
+		// stubs are written in the order of the scanned contracts, so when two contracts
+		// produce a stub with the same name, the result is the same as in a sequential
+		// run
+		for (int i = 0; i < contractsToConvert.size(); i++) {
+			writeAll(contractsToConvert.get(i), stubs.get(i), createdStubs);
+		}
+		return createdStubs;
+	}
+
+	private void writeAll(ContractToConvert contractToConvert, List<StubToWrite> stubs,
+			Map<Path, List<Path>> createdStubs) {
+		for (StubToWrite stub : stubs) {
+			write(contractToConvert, stub);
+			createdStubs.computeIfAbsent(contractToConvert.contract.getPath(), key -> new ArrayList<>())
+					.add(stub.file.toPath());
+		}
+	}
+
+	private List<ContractToConvert> contractsToConvert(MultiValueMap<Path, ContractMetadata> contracts,
+			Collection<StubGenerator> stubGenerators) {
+		List<ContractToConvert> contractsToConvert = new ArrayList<>();
 		for (Map.Entry<Path, List<ContractMetadata>> entry : contracts.entrySet()) {
 			for (ContractMetadata contract : entry.getValue()) {
 				if (log.isDebugEnabled()) {
 					log.debug("Will create a stub for contract [" + contract + "]");
 				}
-				File sourceFile = contract.getPath().toFile();
-				Collection<StubGenerator> stubGenerators = holder.allOrDefault(new DslToWireMockClientConverter());
-				try {
-					String path = sourceFile.getPath();
-					if (excludeBuildFolders && (matchesPath(path, "target") || matchesPath(path, "build"))) {
-						if (log.isDebugEnabled()) {
-							log.debug("Exclude build folder is set. Path [" + path
-									+ "] contains [target] or [build] in its path");
-						}
-
-						continue;
-					}
-					if (nullOrEmpty(contract) && nullOrEmpty(stubGenerators)) {
-						continue;
-					}
-					int contractsSize = contract.getConvertedContract().size();
-					Path entryKey = entry.getKey();
+				String path = contract.getPath().toFile().getPath();
+				if (excludeBuildFolders && BUILD_FOLDER.matcher(path).matches()) {
 					if (log.isDebugEnabled()) {
-						log.debug(
-								"Stub Generators [" + stubGenerators + "] will convert contents of [" + entryKey + "]");
+						log.debug("Exclude build folder is set. Path [" + path
+								+ "] contains [target] or [build] in its path");
 					}
+					continue;
+				}
+				if (nullOrEmpty(contract) && nullOrEmpty(stubGenerators)) {
+					continue;
+				}
+				contractsToConvert.add(new ContractToConvert(entry.getKey(), contract));
+			}
+		}
+		return contractsToConvert;
+	}
 
-					for (StubGenerator stubGenerator : stubGenerators) {
-						Map<Contract, String> convertedContent = stubGenerator
-								.convertContents(last(entryKey).toString(), contract);
-						if (convertedContent == null || convertedContent.isEmpty()) {
-							continue;
-						}
-						Set<Map.Entry<Contract, String>> entrySet = convertedContent.entrySet();
-						Iterator<Map.Entry<Contract, String>> iterator = entrySet.iterator();
-						int index = 0;
-						while (iterator.hasNext()) {
-							Map.Entry<Contract, String> content = iterator.next();
-							Contract dsl = content.getKey();
-							String converted = content.getValue();
-							if (StringUtils.hasText(converted)) {
-								Path absoluteTargetPath = createAndReturnTargetDirectory(sourceFile);
-								File newJsonFile = createTargetFileWithProperName(stubGenerator, absoluteTargetPath,
-										sourceFile, contractsSize, index, dsl);
-								Files.write(newJsonFile.toPath(), Collections.singletonList(converted),
-										StandardCharsets.UTF_8);
-							}
-							index = index + 1;
-						}
+	private List<List<StubToWrite>> convertInParallel(List<ContractToConvert> contractsToConvert,
+			Collection<StubGenerator> stubGenerators) {
+		if (log.isDebugEnabled()) {
+			log.debug("Will convert [" + contractsToConvert.size() + "] contracts using [" + parallelism + "] threads");
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism, workerThreadFactory(), null, false);
+		try {
+			return pool.submit(() -> contractsToConvert.parallelStream()
+					.map(contract -> convert(contract, stubGenerators)).collect(Collectors.toList())).join();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
 
-					}
+	// build plugins load the converter in their own class loader
+	private ForkJoinPool.ForkJoinWorkerThreadFactory workerThreadFactory() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		};
+	}
 
+	private List<StubToWrite> convert(ContractToConvert contractToConvert, Collection<StubGenerator> stubGenerators) {
+		ContractMetadata contract = contractToConvert.contract;
+		File sourceFile = contract.getPath().toFile();
+		try {
+			int contractsSize = contract.getConvertedContract().size();
+			Path entryKey = contractToConvert.directory;
+			if (log.isDebugEnabled()) {
+				log.debug("Stub Generators [" + stubGenerators + "] will convert contents of [" + entryKey + "]");
+			}
+			List<StubToWrite> stubs = new ArrayList<>();
+			for (StubGenerator stubGenerator : stubGenerators) {
+				Map<Contract, String> convertedContent = stubGenerator.convertContents(last(entryKey).toString(),
+						contract);
+				if (convertedContent == null || convertedContent.isEmpty()) {
+					continue;
 				}
-				catch (Exception e) {
-					throw new ConversionContractVerifierException(
-							"Unable to make conversion of " + sourceFile.getName(), e);
+				int index = 0;
+				for (Map.Entry<Contract, String> content : convertedContent.entrySet()) {
+					Contract dsl = content.getKey();
+					String converted = content.getValue();
+					if (StringUtils.hasText(converted)) {
+						String name = generateName(dsl, contractsSize, stubGenerator, sourceFile, index);
+						stubs.add(new StubToWrite(new File(targetDirectory(sourceFile).toFile(), name), converted));
+					}
+					index = index + 1;
 				}
-
 			}
-
+			return stubs;
+		}
+		catch (Exception e) {
+			throw new ConversionContractVerifierException("Unable to make conversion of " + sourceFile.getName(), e);
 		}
+	}
 
+	private void write(ContractToConvert contractToConvert, StubToWrite stub) {
+		try {
+			Files.createDirectories(stub.file.getParentFile().toPath());
+			log.info("Creating new stub [" + stub.file.getPath() + "]");
+			Files.write(stub.file.toPath(), Collections.singletonList(stub.content), StandardCharsets.UTF_8);
+		}
+		catch (Exception e) {
+			throw new ConversionContractVerifierException(
+					"Unable to make conversion of " + contractToConvert.contract.getPath().toFile().getName(), e);
+		}
 	}
 
 	private static <T> T last(Iterable<T> self) {
@@ -171,28 +287,9 @@ public class RecursiveFilesConverter {
 		return collection == null || collection.isEmpty();
 	}
 
-	private boolean matchesPath(String path, String folder) {
-		return path.matches("^.*" + File.separator + folder + File.separator + ".*$");
-	}
-
-	private Path createAndReturnTargetDirectory(File sourceFile) {
+	private Path targetDirectory(File sourceFile) {
 		Path relativePath = Paths.get(contractsDslDir.toURI()).relativize(sourceFile.getParentFile().toPath());
-		Path absoluteTargetPath = outMappingsDir.toPath().resolve(relativePath);
-		try {
-			Files.createDirectories(absoluteTargetPath);
-		}
-		catch (IOException ex) {
-			throw new IllegalStateException(ex);
-		}
-		return absoluteTargetPath;
-	}
-
-	private File createTargetFileWithProperName(StubGenerator stubGenerator, Path absoluteTargetPath, File sourceFile,
-			int contractsSize, int index, Contract dsl) {
-		String name = generateName(dsl, contractsSize, stubGenerator, sourceFile, index);
-		File newJsonFile = new File(absoluteTargetPath.toFile(), name);
-		log.info("Creating new stub [" + newJsonFile.getPath() + "]");
-		return newJsonFile;
+		return outMappingsDir.toPath().resolve(relativePath);
 	}
 
 	private String generateName(Contract dsl, int contractsSize, StubGenerator converter, File sourceFile, int index) {
@@ -208,4 +305,30 @@ public class RecursiveFilesConverter {
 		return index + "_" + generatedName;
 	}
 
+	private static final class ContractToConvert {
+
+		private final Path directory;
+
+		private final ContractMetadata contract;
+
+		private ContractToConvert(Path directory, ContractMetadata contract) {
+			this.directory = directory;
+			this.contract = contract;
+		}
+
+	}
+
+	private static final class StubToWrite {
+
+		private final File file;
+
+		private final String content;
+
+		private StubToWrite(File file, String content) {
+			this.file = file;
+			this.content = content;
+		}
+
+	}
+
 }
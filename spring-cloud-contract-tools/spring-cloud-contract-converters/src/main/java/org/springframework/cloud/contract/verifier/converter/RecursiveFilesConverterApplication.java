@@ -20,6 +20,7 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.cloud.contract.verifier.util.ContractCache;
 import org.springframework.util.StringUtils;
 
 public final class RecursiveFilesConverterApplication {
@@ -28,7 +29,7 @@ public final class RecursiveFilesConverterApplication {
 	}
 
 	public static void main(String[] args) {
-		if (args.length != 5) {
+		if (args.length < 5 || args.length > 8) {
 			throw new RuntimeException("Invalid number of arguments");
 		}
 
@@ -37,9 +38,13 @@ public final class RecursiveFilesConverterApplication {
 		List<String> excludedFiles = Arrays.asList(StringUtils.commaDelimitedListToStringArray(args[2]));
 		String includedContracts = args[3];
 		boolean excludeBuildFolders = Boolean.parseBoolean(args[4]);
+		int parallelism = args.length >= 6 ? Integer.parseInt(args[5]) : 1;
+		File contractsCacheDir = args.length >= 7 && StringUtils.hasText(args[6]) ? new File(args[6]) : null;
+		int contractsCacheMaxEntries = args.length == 8 ? Integer.parseInt(args[7])
+				: ContractCache.DEFAULT_MAX_ENTRIES;
 
 		RecursiveFilesConverter converter = new RecursiveFilesConverter(stubsOutputDir, contractsDslDir, excludedFiles,
-				includedContracts, excludeBuildFolders);
+				includedContracts, excludeBuildFolders, null, parallelism, contractsCacheDir, contractsCacheMaxEntries);
 		converter.processFiles();
 	}
 
@@ -70,6 +70,32 @@ class RecursiveFilesConverterSpec extends Specification {
 			createdFiles.each { assert it.text.contains("uuid") }
 	}
 
+	def "should create the same stubs when converting in parallel"() {
+		given:
+			File originalSourceRootDirectory = new File(this.getClass()
+															.getResource("/converter/source").toURI())
+			File contractsDslDir = tmpFolder.newFolder("source")
+			File sequentialOutputDir = tmpFolder.newFolder("sequential")
+			File parallelOutputDir = tmpFolder.newFolder("parallel")
+			FileSystemUtils
+					.copyRecursively(originalSourceRootDirectory, contractsDslDir)
+		when:
+			new RecursiveFilesConverter(sequentialOutputDir, contractsDslDir, new ArrayList<>(), ".*", false).processFiles()
+			new RecursiveFilesConverter(parallelOutputDir, contractsDslDir, new ArrayList<>(), ".*", false, null, 4).processFiles()
+		then:
+			Collection<File> createdFiles = [] as List
+			parallelOutputDir.
+					eachFileRecurse(FileType.FILES) { createdFiles << it }
+			getRelativePathsForFilesInDirectory(createdFiles, parallelOutputDir) == EXPECTED_TARGET_FILES
+		and:
+			EXPECTED_TARGET_FILES.each { Path path ->
+				String sequential = sequentialOutputDir.toPath().resolve(path).text
+				String parallel = parallelOutputDir.toPath().resolve(path).text
+				// every stub gets a random id
+				assert parallel.replaceAll('"(uuid|id)" : "[^"]*"', '') == sequential.replaceAll('"(uuid|id)" : "[^"]*"', '')
+			}
+	}
+
 	def "should recursively convert matching files with exlusions"() {
 		given:
 			File originalSourceRootDirectory = new File(this.getClass()
@@ -95,6 +121,28 @@ class RecursiveFilesConverterSpec extends Specification {
 			createdFiles.each { assert it.text.contains("uuid") }
 	}
 
+	def "should convert only the files accepted by the filter and return the created stubs"() {
+		given:
+			File originalSourceRootDirectory = new File(this.getClass()
+															.getResource("/converter/source").toURI())
+			File contractsDslDir = tmpFolder.newFolder("source")
+			File stubsOutputDir = tmpFolder.newFolder("target")
+			FileSystemUtils
+					.copyRecursively(originalSourceRootDirectory, contractsDslDir)
+		and:
+			RecursiveFilesConverter recursiveFilesConverter = new RecursiveFilesConverter(stubsOutputDir, contractsDslDir, new ArrayList<>(), ".*", false)
+		when:
+			Map<Path, List<Path>> createdStubs = recursiveFilesConverter.processFiles({ File file -> file.parentFile.name == "dir2" })
+		then:
+			Collection<File> createdFiles = [] as List
+			stubsOutputDir.
+					eachFileRecurse(FileType.FILES) { createdFiles << it }
+			getRelativePathsForFilesInDirectory(createdFiles, stubsOutputDir) == [Paths.get("dir2/dsl2.json")] as Set
+		and:
+			createdStubs.size() == 1
+			createdStubs.values().flatten() == [stubsOutputDir.toPath().resolve("dir2/dsl2.json")]
+	}
+
 	def "on failure should break processing and throw meaningful exception"() {
 		given:
 			File sourceFile = tmpFolder.newFile("test.groovy")
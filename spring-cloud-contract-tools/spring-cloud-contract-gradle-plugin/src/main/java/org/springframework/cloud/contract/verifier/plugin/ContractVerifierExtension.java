@@ -139,6 +139,13 @@ public class ContractVerifierExtension implements Serializable {
 	 */
 	private final Property<Boolean> assertJsonSize;
 
+	/**
+	 * When enabled, all JSON paths of a response body get verified in a single walk over
+	 * the parsed JSON instead of one JSON path query per asserted entry. Disabled by
+	 * default.
+	 */
+	private final Property<Boolean> assertJsonInSinglePass;
+
 	/**
 	 * When enabled, this flag will tell stub runner to throw an exception when no stubs /
 	 * contracts were found.
@@ -153,6 +160,24 @@ public class ContractVerifierExtension implements Serializable {
 	 */
 	private final Property<Boolean> failOnInProgress;
 
+	/**
+	 * Number of threads used to generate the test classes and stubs. Defaults to {@code 1},
+	 * which means that they are generated sequentially.
+	 */
+	private final Property<Integer> generationParallelism;
+
+	/**
+	 * Folder in which the converted contracts are kept between builds, so that unchanged
+	 * contracts don't get evaluated again. The cache is disabled when not set.
+	 */
+	private final DirectoryProperty contractsCacheDir;
+
+	/**
+	 * Maximum number of contract files kept in the {@code contractsCacheDir}. Defaults
+	 * to {@code 10000}.
+	 */
+	private final Property<Integer> contractsCacheMaxEntries;
+
 	private final ContractRepository contractRepository;
 
 	private final PublishStubsToScm publishStubsToScm;
@@ -258,8 +283,12 @@ public class ContractVerifierExtension implements Serializable {
 		this.stubsOutputDir = objects.directoryProperty().convention(layout.getBuildDirectory().dir("stubs"));
 		this.stubsSuffix = objects.property(String.class).convention("stubs");
 		this.assertJsonSize = objects.property(Boolean.class).convention(false);
+		this.assertJsonInSinglePass = objects.property(Boolean.class).convention(false);
 		this.failOnNoContracts = objects.property(Boolean.class).convention(true);
 		this.failOnInProgress = objects.property(Boolean.class).convention(true);
+		this.generationParallelism = objects.property(Integer.class).convention(1);
+		this.contractsCacheDir = objects.directoryProperty();
+		this.contractsCacheMaxEntries = objects.property(Integer.class).convention(10000);
 		this.contractRepository = objects.newInstance(ContractRepository.class);
 		this.publishStubsToScm = objects.newInstance(PublishStubsToScm.class);
 		this.contractDependency = objects.newInstance(Dependency.class);
@@ -438,6 +467,14 @@ public class ContractVerifierExtension implements Serializable {
 		this.assertJsonSize.set(assertJsonSize);
 	}
 
+	public Property<Boolean> getAssertJsonInSinglePass() {
+		return assertJsonInSinglePass;
+	}
+
+	public void setAssertJsonInSinglePass(boolean assertJsonInSinglePass) {
+		this.assertJsonInSinglePass.set(assertJsonInSinglePass);
+	}
+
 	public Property<Boolean> getFailOnNoContracts() {
 		return failOnNoContracts;
 	}
@@ -454,6 +491,30 @@ public class ContractVerifierExtension implements Serializable {
 		this.failOnInProgress.set(failOnInProgress);
 	}
 
+	public Property<Integer> getGenerationParallelism() {
+		return generationParallelism;
+	}
+
+	public void setGenerationParallelism(int generationParallelism) {
+		this.generationParallelism.set(generationParallelism);
+	}
+
+	public DirectoryProperty getContractsCacheDir() {
+		return contractsCacheDir;
+	}
+
+	public void setContractsCacheDir(File contractsCacheDir) {
+		this.contractsCacheDir.set(contractsCacheDir);
+	}
+
+	public Property<Integer> getContractsCacheMaxEntries() {
+		return contractsCacheMaxEntries;
+	}
+
+	public void setContractsCacheMaxEntries(int contractsCacheMaxEntries) {
+		this.contractsCacheMaxEntries.set(contractsCacheMaxEntries);
+	}
+
 	public ContractRepository getContractRepository() {
 		return contractRepository;
 	}
@@ -34,6 +34,7 @@ import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
@@ -62,6 +63,12 @@ class GenerateClientStubsFromDslTask extends DefaultTask {
 
 	private final Property<Boolean> excludeBuildFolders;
 
+	private final Property<Integer> generationParallelism;
+
+	private final DirectoryProperty contractsCacheDir;
+
+	private final Property<Integer> contractsCacheMaxEntries;
+
 	private final ConfigurableFileCollection classpath;
 
 	private final DirectoryProperty stubsOutputDir;
@@ -71,6 +78,9 @@ class GenerateClientStubsFromDslTask extends DefaultTask {
 		contractsDslDir = objects.directoryProperty();
 		excludedFiles = objects.listProperty(String.class);
 		excludeBuildFolders = objects.property(Boolean.class);
+		generationParallelism = objects.property(Integer.class);
+		contractsCacheDir = objects.directoryProperty();
+		contractsCacheMaxEntries = objects.property(Integer.class);
 		classpath = objects.fileCollection();
 
 		stubsOutputDir = objects.directoryProperty();
@@ -92,7 +102,9 @@ class GenerateClientStubsFromDslTask extends DefaultTask {
 			exec.setMain("org.springframework.cloud.contract.verifier.converter.RecursiveFilesConverterApplication");
 			exec.classpath(classpath);
 			exec.args(quoteAndEscape(output.getAbsolutePath()), quoteAndEscape(contractsDslDir.get().getAsFile().getAbsolutePath()),
-					quoteAndEscape(StringUtils.collectionToCommaDelimitedString(excludedFiles.get())), quoteAndEscape(".*"), excludeBuildFolders.get());
+					quoteAndEscape(StringUtils.collectionToCommaDelimitedString(excludedFiles.get())), quoteAndEscape(".*"), excludeBuildFolders.get(),
+					generationParallelism.get(), quoteAndEscape(contractsCacheDir.isPresent() ? contractsCacheDir.get().getAsFile().getAbsolutePath() : ""),
+					contractsCacheMaxEntries.get());
 			exec.setStandardOutput(os);
 			exec.setErrorOutput(os);
 		});
@@ -118,6 +130,21 @@ class GenerateClientStubsFromDslTask extends DefaultTask {
 		return excludeBuildFolders;
 	}
 
+	@Internal
+	public Property<Integer> getGenerationParallelism() {
+		return generationParallelism;
+	}
+
+	@Internal
+	public DirectoryProperty getContractsCacheDir() {
+		return contractsCacheDir;
+	}
+
+	@Internal
+	public Property<Integer> getContractsCacheMaxEntries() {
+		return contractsCacheMaxEntries;
+	}
+
 	@Classpath
 	public ConfigurableFileCollection getClasspath() {
 		return classpath;
@@ -36,6 +36,7 @@ import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.PathSensitive;
@@ -89,8 +90,16 @@ class GenerateServerTestsTask extends DefaultTask {
 
 	private final Property<Boolean> assertJsonSize;
 
+	private final Property<Boolean> assertJsonInSinglePass;
+
 	private final Property<Boolean> failOnInProgress;
 
+	private final Property<Integer> generationParallelism;
+
+	private final DirectoryProperty contractsCacheDir;
+
+	private final Property<Integer> contractsCacheMaxEntries;
+
 	private final ConfigurableFileCollection classpath;
 
 	private final DirectoryProperty generatedTestSourcesDir;
@@ -113,7 +122,11 @@ class GenerateServerTestsTask extends DefaultTask {
 		this.testFramework = objects.property(TestFramework.class);
 		this.baseClassMappings = objects.mapProperty(String.class, String.class);
 		this.assertJsonSize = objects.property(Boolean.class);
+		this.assertJsonInSinglePass = objects.property(Boolean.class);
 		this.failOnInProgress = objects.property(Boolean.class);
+		this.generationParallelism = objects.property(Integer.class);
+		this.contractsCacheDir = objects.directoryProperty();
+		this.contractsCacheMaxEntries = objects.property(Integer.class);
 		this.classpath = objects.fileCollection();
 		this.generatedTestSourcesDir = objects.directoryProperty();
 		this.generatedTestResourcesDir = objects.directoryProperty();
@@ -231,11 +244,31 @@ class GenerateServerTestsTask extends DefaultTask {
 		return assertJsonSize;
 	}
 
+	@Input
+	Property<Boolean> getAssertJsonInSinglePass() {
+		return assertJsonInSinglePass;
+	}
+
 	@Input
 	Property<Boolean> getFailOnInProgress() {
 		return failOnInProgress;
 	}
 
+	@Internal
+	Property<Integer> getGenerationParallelism() {
+		return generationParallelism;
+	}
+
+	@Internal
+	DirectoryProperty getContractsCacheDir() {
+		return contractsCacheDir;
+	}
+
+	@Internal
+	Property<Integer> getContractsCacheMaxEntries() {
+		return contractsCacheMaxEntries;
+	}
+
 	@Classpath
 	ConfigurableFileCollection getClasspath() {
 		return classpath;
@@ -277,7 +310,11 @@ class GenerateServerTestsTask extends DefaultTask {
 		properties.setTestFramework(testFramework.get());
 		properties.setBaseClassMappings(baseClassMappings.get());
 		properties.setAssertJsonSize(assertJsonSize.get());
+		properties.setAssertJsonInSinglePass(assertJsonInSinglePass.get());
 		properties.setFailOnInProgress(failOnInProgress.get());
+		properties.setGenerationParallelism(generationParallelism.get());
+		properties.setContractsCacheDir(contractsCacheDir.getAsFile().getOrNull());
+		properties.setContractsCacheMaxEntries(contractsCacheMaxEntries.get());
 		return properties;
 	}
 
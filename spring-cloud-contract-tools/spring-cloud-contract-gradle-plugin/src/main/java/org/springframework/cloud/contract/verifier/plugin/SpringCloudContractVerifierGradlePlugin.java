@@ -214,7 +214,11 @@ public class SpringCloudContractVerifierGradlePlugin implements Plugin<Project>
 			generateServerTestsTask.getBaseClassMappings()
 					.convention(extension.getBaseClassMappings().getBaseClassMappings());
 			generateServerTestsTask.getAssertJsonSize().convention(extension.getAssertJsonSize());
+			generateServerTestsTask.getAssertJsonInSinglePass().convention(extension.getAssertJsonInSinglePass());
 			generateServerTestsTask.getFailOnInProgress().convention(extension.getFailOnInProgress());
+			generateServerTestsTask.getGenerationParallelism().convention(extension.getGenerationParallelism());
+			generateServerTestsTask.getContractsCacheDir().convention(extension.getContractsCacheDir());
+			generateServerTestsTask.getContractsCacheMaxEntries().convention(extension.getContractsCacheMaxEntries());
 			generateServerTestsTask.getClasspath()
 					.from(project.getConfigurations().getByName(CONTRACT_TEST_GENERATOR_RUNTIME_CLASSPATH_CONFIGURATION_NAME));
 			generateServerTestsTask.getGeneratedTestSourcesDir()
@@ -293,6 +297,9 @@ public class SpringCloudContractVerifierGradlePlugin implements Plugin<Project>
 							.convention(copyContracts.flatMap(ContractsCopyTask::getCopiedContractsFolder));
 					generateClientStubs.getExcludedFiles().convention(extension.getExcludedFiles());
 					generateClientStubs.getExcludeBuildFolders().convention(extension.getExcludeBuildFolders());
+					generateClientStubs.getGenerationParallelism().convention(extension.getGenerationParallelism());
+					generateClientStubs.getContractsCacheDir().convention(extension.getContractsCacheDir());
+					generateClientStubs.getContractsCacheMaxEntries().convention(extension.getContractsCacheMaxEntries());
 					generateClientStubs.getClasspath()
 							.from(project.getConfigurations().getByName(CONTRACT_TEST_GENERATOR_RUNTIME_CLASSPATH_CONFIGURATION_NAME));
 
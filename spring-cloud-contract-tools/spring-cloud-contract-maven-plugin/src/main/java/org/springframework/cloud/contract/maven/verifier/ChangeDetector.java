@@ -48,4 +48,15 @@ final class ChangeDetector {
 		return changeDetected;
 	}
 
+	/**
+	 * @param manifest manifest of the previous build
+	 * @param session maven session
+	 * @return changes of the contracts since the previous build, marked as full rebuild
+	 * when the {@code clean} goal was called
+	 */
+	static GenerationManifest.Changes contractChanges(GenerationManifest manifest, MavenSession session)
+			throws MojoExecutionException {
+		return manifest.changes(session.getGoals().contains("clean"));
+	}
+
 }
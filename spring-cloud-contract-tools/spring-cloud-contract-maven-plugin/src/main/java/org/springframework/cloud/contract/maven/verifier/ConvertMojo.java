@@ -17,8 +17,14 @@
 package org.springframework.cloud.contract.maven.verifier;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
@@ -37,6 +43,7 @@ import org.springframework.cloud.contract.stubrunner.spring.StubRunnerProperties
 import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties;
 import org.springframework.cloud.contract.verifier.converter.RecursiveFilesConverter;
 import org.springframework.cloud.contract.verifier.converter.ToYamlConverter;
+import org.springframework.cloud.contract.verifier.util.ContractCache;
 
 import static org.springframework.cloud.contract.maven.verifier.ChangeDetector.inputFilesChangeDetected;
 
@@ -181,6 +188,29 @@ public class ConvertMojo extends AbstractMojo {
 	@Parameter(property = "failOnNoContracts", defaultValue = "true")
 	private boolean failOnNoContracts;
 
+	/**
+	 * Number of threads used to convert the contracts to stubs. Defaults to {@code 1},
+	 * which means that the contracts are converted sequentially.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.generationParallelism", defaultValue = "1")
+	private int generationParallelism = 1;
+
+	/**
+	 * Folder in which the converted contracts are kept between builds, so that unchanged
+	 * contracts don't get evaluated again, e.g.
+	 * {@code ${project.build.directory}/contracts-cache} or a folder shared by many
+	 * projects. The cache is disabled when not set.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractsCacheDirectory")
+	private File contractsCacheDirectory;
+
+	/**
+	 * Maximum number of contract files kept in the {@code contractsCacheDirectory}. The
+	 * least recently used ones get removed first.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractsCacheMaxEntries", defaultValue = "10000")
+	private int contractsCacheMaxEntries = ContractCache.DEFAULT_MAX_ENTRIES;
+
 	/**
 	 * If set to true then stubs are created only when contracts have changed since last
 	 * build.
@@ -209,16 +239,40 @@ public class ConvertMojo extends AbstractMojo {
 		// download contracts, unzip them and pass as output directory
 		ContractVerifierConfigProperties config = new ContractVerifierConfigProperties();
 		config.setExcludeBuildFolders(this.excludeBuildFolders);
+		config.setGenerationParallelism(this.generationParallelism);
+		config.setContractsCacheDir(this.contractsCacheDirectory);
+		config.setContractsCacheMaxEntries(this.contractsCacheMaxEntries);
 		File contractsDirectory = locationOfContracts(config);
 		contractsDirectory = contractSubfolderIfPresent(contractsDirectory);
 
-		if (this.incrementalContractStubs && !inputFilesChangeDetected(contractsDirectory, mojoExecution, session)) {
+		GenerationManifest manifest = null;
+		GenerationManifest.Changes changes = null;
+		if (this.incrementalContractStubs && isManifestSupported()) {
+			manifest = GenerationManifest.load(
+					GenerationManifest.file(new File(this.project.getBuild().getDirectory()), this.mojoExecution),
+					fingerprint(config, contractsDirectory), contractsDirectory, this.stubsDirectory);
+			changes = ChangeDetector.contractChanges(manifest, this.session);
+			if (changes.isEmpty()) {
+				getLog().info("Nothing to generate - all stubs are up to date");
+				return;
+			}
+		}
+		else if (this.incrementalContractStubs
+				&& !inputFilesChangeDetected(contractsDirectory, mojoExecution, session)) {
 			getLog().info("Nothing to generate - all stubs are up to date");
 			return;
 		}
+		if (changes != null) {
+			deleteCopiesOfRemovedContracts(rootPath, changes);
+		}
+		if (changes != null && !changes.fullRebuild) {
+			generateChangedStubs(rootPath, config, contractsDirectory, manifest, changes);
+			return;
+		}
 
 		File contractsDslDir = contractsDslDir(contractsDirectory);
-		LeftOverPrevention leftOverPrevention = new LeftOverPrevention(this.stubsDirectory, mojoExecution, session);
+		LeftOverPrevention leftOverPrevention = new LeftOverPrevention(this.stubsDirectory, manifest, mojoExecution,
+				session);
 
 		File copiedContracts = copyContracts(rootPath, config, contractsDirectory);
 		if (this.convertToYaml) {
@@ -230,9 +284,74 @@ public class ConvertMojo extends AbstractMojo {
 		logSetup(config, contractsDslDir);
 		RecursiveFilesConverter converter = new RecursiveFilesConverter(config.getStubsOutputDir(),
 				config.getContractsDslDir(), config.getExcludedFiles(), config.getIncludedContracts(),
-				config.isExcludeBuildFolders());
-		converter.processFiles();
+				config.isExcludeBuildFolders(), null, config.getGenerationParallelism(), config.getContractsCacheDir(),
+				config.getContractsCacheMaxEntries());
+		Map<Path, List<Path>> stubs = converter.processFiles(null);
 		leftOverPrevention.deleteLeftOvers();
+		if (manifest != null) {
+			record(manifest, stubs);
+			manifest.store(changes);
+		}
+	}
+
+	/**
+	 * Stubs are generated for each contract file separately. Scenario stubs depend on
+	 * the number of contracts in their directory, so whole directories with added or
+	 * removed contracts get regenerated.
+	 */
+	private void generateChangedStubs(String rootPath, ContractVerifierConfigProperties config,
+			File contractsDirectory, GenerationManifest manifest, GenerationManifest.Changes changes)
+			throws MojoExecutionException {
+		Set<String> addedOrRemoved = new HashSet<>(changes.added);
+		addedOrRemoved.addAll(changes.removed);
+		Set<String> inputs = changes.changed();
+		inputs.addAll(changes.inputsInDirectoriesOf(addedOrRemoved));
+		Set<String> deleted = new HashSet<>(inputs);
+		deleted.addAll(changes.removed);
+		manifest.deleteOutputs(deleted);
+		copyContracts(rootPath, config, contractsDirectory);
+		config.setContractsDslDir(contractsDirectory);
+		config.setStubsOutputDir(stubsOutputDir(rootPath));
+		logSetup(config, contractsDirectory);
+		RecursiveFilesConverter converter = new RecursiveFilesConverter(config.getStubsOutputDir(),
+				config.getContractsDslDir(), config.getExcludedFiles(), config.getIncludedContracts(),
+				config.isExcludeBuildFolders(), null, config.getGenerationParallelism(), config.getContractsCacheDir(),
+				config.getContractsCacheMaxEntries());
+		record(manifest, converter.processFiles(manifest.filter(inputs)));
+		getLog().info("Converted [" + inputs.size() + "] changed files. The remaining stubs are up to date.");
+		manifest.store(changes);
+	}
+
+	private void record(GenerationManifest manifest, Map<Path, List<Path>> stubs) {
+		stubs.forEach((contract, generated) -> generated.forEach(stub -> manifest.record(contract, stub)));
+	}
+
+	private void deleteCopiesOfRemovedContracts(String rootPath, GenerationManifest.Changes changes)
+			throws MojoExecutionException {
+		Path copiedContracts = copiedContractsDirectory(rootPath).toPath();
+		for (String removed : changes.removed) {
+			try {
+				Files.deleteIfExists(copiedContracts.resolve(removed));
+			}
+			catch (IOException ex) {
+				throw new MojoExecutionException("Failed to delete the copy of the removed contract [" + removed + "]",
+						ex);
+			}
+		}
+	}
+
+	/**
+	 * The manifest tracks the contracts from the project. Converted or external
+	 * contracts are always processed as a whole.
+	 */
+	private boolean isManifestSupported() {
+		return isInsideProject() && !this.convertToYaml;
+	}
+
+	private String fingerprint(ContractVerifierConfigProperties config, File contractsDirectory) {
+		return GenerationManifest.fingerprint(this.mojoExecution, contractsDirectory, this.stubsDirectory,
+				this.excludeBuildFolders, config.getExcludedFiles(), config.getIncludedContracts(),
+				config.getIncludedRootFolderAntPattern());
 	}
 
 	private void convertBackedUpDslsToYaml(String rootPath, ContractVerifierConfigProperties config,
@@ -252,13 +371,17 @@ public class ConvertMojo extends AbstractMojo {
 
 	private File copyContracts(String rootPath, ContractVerifierConfigProperties config, File contractsDirectory)
 			throws MojoExecutionException {
-		File outputFolderWithContracts = this.stubsDirectory.getPath().endsWith("contracts") ? this.stubsDirectory
-				: new File(this.stubsDirectory, rootPath + CONTRACTS_PATH);
+		File outputFolderWithContracts = copiedContractsDirectory(rootPath);
 		new CopyContracts(this.project, this.mavenSession, this.mavenResourcesFiltering, config)
 				.copy(contractsDirectory, outputFolderWithContracts);
 		return outputFolderWithContracts;
 	}
 
+	private File copiedContractsDirectory(String rootPath) {
+		return this.stubsDirectory.getPath().endsWith("contracts") ? this.stubsDirectory
+				: new File(this.stubsDirectory, rootPath + CONTRACTS_PATH);
+	}
+
 	private void logSetup(ContractVerifierConfigProperties config, File contractsDslDir) {
 		if (getLog().isDebugEnabled()) {
 			getLog().debug("The contracts dir equals [" + contractsDslDir + "]");
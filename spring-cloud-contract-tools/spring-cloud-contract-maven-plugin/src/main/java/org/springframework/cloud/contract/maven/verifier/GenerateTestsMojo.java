@@ -17,9 +17,13 @@
 package org.springframework.cloud.contract.maven.verifier;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
@@ -41,6 +45,7 @@ import org.springframework.cloud.contract.verifier.TestGenerator;
 import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties;
 import org.springframework.cloud.contract.verifier.config.TestFramework;
 import org.springframework.cloud.contract.verifier.config.TestMode;
+import org.springframework.cloud.contract.verifier.util.ContractCache;
 
 /**
  * From the provided directory with contracts generates the acceptance tests on the
@@ -114,6 +119,13 @@ public class GenerateTestsMojo extends AbstractMojo {
 	@Parameter(property = "spring.cloud.contract.verifier.assert.size", defaultValue = "false")
 	private boolean assertJsonSize;
 
+	/**
+	 * When enabled, all JSON paths of a response body get verified in a single walk over
+	 * the parsed JSON instead of one JSON path query per asserted entry.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.assert.singlePass", defaultValue = "false")
+	private boolean assertJsonInSinglePass;
+
 	/**
 	 * Patterns for which Spring Cloud Contract Verifier should generate @Ignored tests.
 	 */
@@ -235,6 +247,29 @@ public class GenerateTestsMojo extends AbstractMojo {
 	@Parameter(property = "failOnInProgress", defaultValue = "true")
 	private boolean failOnInProgress = true;
 
+	/**
+	 * Number of threads used to generate the test classes. Defaults to {@code 1}, which
+	 * means that the classes are generated sequentially.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.generationParallelism", defaultValue = "1")
+	private int generationParallelism = 1;
+
+	/**
+	 * Folder in which the converted contracts are kept between builds, so that unchanged
+	 * contracts don't get evaluated again, e.g.
+	 * {@code ${project.build.directory}/contracts-cache} or a folder shared by many
+	 * projects. The cache is disabled when not set.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractsCacheDirectory")
+	private File contractsCacheDirectory;
+
+	/**
+	 * Maximum number of contract files kept in the {@code contractsCacheDirectory}. The
+	 * least recently used ones get removed first.
+	 */
+	@Parameter(property = "spring.cloud.contract.verifier.contractsCacheMaxEntries", defaultValue = "10000")
+	private int contractsCacheMaxEntries = ContractCache.DEFAULT_MAX_ENTRIES;
+
 	/**
 	 * If set to true then tests are created only when contracts have changed since last
 	 * build.
@@ -267,6 +302,9 @@ public class GenerateTestsMojo extends AbstractMojo {
 		getLog().info("Generating server tests source code for Spring Cloud Contract Verifier contract verification");
 		final ContractVerifierConfigProperties config = new ContractVerifierConfigProperties();
 		config.setFailOnInProgress(this.failOnInProgress);
+		config.setGenerationParallelism(this.generationParallelism);
+		config.setContractsCacheDir(this.contractsCacheDirectory);
+		config.setContractsCacheMaxEntries(this.contractsCacheMaxEntries);
 		// download contracts, unzip them and pass as output directory
 		File contractsDirectory = new MavenContractsDownloader(this.project, this.contractDependency,
 				this.contractsPath, this.contractsRepositoryUrl, this.contractsMode, getLog(),
@@ -275,13 +313,81 @@ public class GenerateTestsMojo extends AbstractMojo {
 				this.failOnNoContracts).downloadAndUnpackContractsIfRequired(config, this.contractsDirectory);
 		getLog().info("Directory with contract is present at [" + contractsDirectory + "]");
 
-		if (this.incrementalContractTests
-				&& !ChangeDetector.inputFilesChangeDetected(contractsDirectory, mojoExecution, session)) {
-			getLog().info("Nothing to generate - all classes are up to date");
-			return;
+		setupConfig(config, contractsDirectory);
+		GenerationManifest manifest = null;
+		GenerationManifest.Changes changes = null;
+		if (this.incrementalContractTests) {
+			manifest = GenerationManifest.load(
+					GenerationManifest.file(new File(this.project.getBuild().getDirectory()), this.mojoExecution),
+					fingerprint(contractsDirectory), contractsDirectory, this.generatedTestSourcesDir);
+			changes = ChangeDetector.contractChanges(manifest, this.session);
+			if (changes.isEmpty()) {
+				getLog().info("Nothing to generate - all classes are up to date");
+				return;
+			}
+		}
+		addGeneratedSources(config);
+		try {
+			if (changes != null && !changes.fullRebuild) {
+				generateChangedTests(config, manifest, changes);
+				return;
+			}
+			LeftOverPrevention leftOverPrevention = new LeftOverPrevention(this.generatedTestSourcesDir, manifest,
+					mojoExecution, session);
+			TestGenerator generator = new TestGenerator(config);
+			int generatedClasses = generator.generate();
+			getLog().info("Generated " + generatedClasses + " test classes.");
+			leftOverPrevention.deleteLeftOvers();
+			if (manifest != null) {
+				record(manifest, generator, changes.inputs(), contractsDirectory);
+				manifest.store(changes);
+			}
+		}
+		catch (ContractVerifierException e) {
+			throw new MojoExecutionException(
+					String.format("Spring Cloud Contract Verifier Plugin exception: %s", e.getMessage()), e);
 		}
+	}
 
-		setupConfig(config, contractsDirectory);
+	/**
+	 * A test class is generated for all contracts from a directory, so all contracts of
+	 * a directory with any change get regenerated.
+	 */
+	private void generateChangedTests(ContractVerifierConfigProperties config, GenerationManifest manifest,
+			GenerationManifest.Changes changes) throws MojoExecutionException {
+		Set<String> inputs = changes.inputsOfChangedDirectories();
+		Set<String> deleted = new HashSet<>(inputs);
+		deleted.addAll(changes.removed);
+		manifest.deleteOutputs(deleted);
+		TestGenerator generator = new TestGenerator(config, manifest.filter(inputs));
+		int generatedClasses = generator.generate();
+		getLog().info("Generated " + generatedClasses + " test classes for [" + inputs.size()
+				+ "] changed files. The remaining classes are up to date.");
+		record(manifest, generator, inputs, config.getContractsDslDir());
+		manifest.store(changes);
+	}
+
+	private void record(GenerationManifest manifest, TestGenerator generator, Set<String> inputs,
+			File contractsDirectory) {
+		Path root = contractsDirectory.toPath().toAbsolutePath();
+		for (String input : inputs) {
+			Path inputPath = root.resolve(input);
+			Path testClass = generator.getGeneratedClasses().get(inputPath.getParent());
+			if (testClass != null) {
+				manifest.record(inputPath, testClass);
+			}
+		}
+	}
+
+	private String fingerprint(File contractsDirectory) {
+		return GenerationManifest.fingerprint(this.mojoExecution, contractsDirectory, this.generatedTestSourcesDir,
+				this.testFramework, this.testMode, this.basePackageForTests, this.baseClassForTests,
+				this.ruleClassForTests, this.nameSuffixForTests, this.imports, this.staticImports, this.ignoredFiles,
+				this.excludedFiles, this.includedFiles, this.assertJsonSize, this.assertJsonInSinglePass,
+				this.packageWithBaseClasses, new TreeMap<>(mappingsToMap()), this.failOnInProgress);
+	}
+
+	private void addGeneratedSources(ContractVerifierConfigProperties config) {
 		this.project.addTestCompileSourceRoot(this.generatedTestSourcesDir.getAbsolutePath());
 		Resource resource = new Resource();
 		resource.setDirectory(this.generatedTestResourcesDir.getAbsolutePath());
@@ -293,18 +399,6 @@ public class GenerateTestsMojo extends AbstractMojo {
 					+ config.getPackageWithBaseClasses() + "] as package with " + "base classes, base class mappings "
 					+ this.baseClassMappings);
 		}
-		try {
-			LeftOverPrevention leftOverPrevention = new LeftOverPrevention(this.generatedTestSourcesDir, mojoExecution,
-					session);
-			TestGenerator generator = new TestGenerator(config);
-			int generatedClasses = generator.generate();
-			getLog().info("Generated " + generatedClasses + " test classes.");
-			leftOverPrevention.deleteLeftOvers();
-		}
-		catch (ContractVerifierException e) {
-			throw new MojoExecutionException(
-					String.format("Spring Cloud Contract Verifier Plugin exception: %s", e.getMessage()), e);
-		}
 	}
 
 	private void setupConfig(ContractVerifierConfigProperties config, File contractsDirectory) {
@@ -323,6 +417,7 @@ public class GenerateTestsMojo extends AbstractMojo {
 		config.setExcludedFiles(this.excludedFiles);
 		config.setIncludedFiles(this.includedFiles);
 		config.setAssertJsonSize(this.assertJsonSize);
+		config.setAssertJsonInSinglePass(this.assertJsonInSinglePass);
 		config.setPackageWithBaseClasses(this.packageWithBaseClasses);
 		if (this.baseClassMappings != null) {
 			config.setBaseClassMappings(mappingsToMap());
@@ -364,4 +459,12 @@ public class GenerateTestsMojo extends AbstractMojo {
 		this.assertJsonSize = assertJsonSize;
 	}
 
+	public boolean isAssertJsonInSinglePass() {
+		return this.assertJsonInSinglePass;
+	}
+
+	public void setAssertJsonInSinglePass(boolean assertJsonInSinglePass) {
+		this.assertJsonInSinglePass = assertJsonInSinglePass;
+	}
+
 }
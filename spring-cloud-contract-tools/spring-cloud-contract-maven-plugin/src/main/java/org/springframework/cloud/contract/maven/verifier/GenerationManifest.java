@@ -0,0 +1,357 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.maven.verifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Keeps the checksums of the contract files and the files that were generated from them
+ * between builds. That way only the outputs of the changed contracts need to be
+ * regenerated and the outputs of the removed contracts can be deleted.
+ *
+ * Input files are identified by their path relative to the contracts directory and the
+ * outputs by their path relative to the output directory, both with {@code /} as
+ * separator.
+ *
+ * @since 3.0.1
+ */
+final class GenerationManifest {
+
+	private static final String FINGERPRINT_KEY = "fingerprint";
+
+	private static final String CHECKSUM_PREFIX = "checksum.";
+
+	private static final String OUTPUTS_PREFIX = "outputs.";
+
+	private static final String OUTPUTS_SEPARATOR = "\n";
+
+	private final File file;
+
+	private final File inputDirectory;
+
+	private final File outputDirectory;
+
+	private final String fingerprint;
+
+	private final boolean upToDate;
+
+	private final Map<String, String> checksums = new TreeMap<>();
+
+	private final Map<String, Set<String>> outputs = new TreeMap<>();
+
+	private GenerationManifest(File file, File inputDirectory, File outputDirectory, String fingerprint,
+			boolean upToDate) {
+		this.file = file;
+		this.inputDirectory = inputDirectory;
+		this.outputDirectory = outputDirectory;
+		this.fingerprint = fingerprint;
+		this.upToDate = upToDate;
+	}
+
+	/**
+	 * Loads the manifest of the previous build. The manifest is ignored if it was stored
+	 * with a different fingerprint.
+	 * @param file file with the manifest
+	 * @param fingerprint fingerprint of everything apart from the contracts that
+	 * influences the generated files
+	 * @param inputDirectory directory with contracts
+	 * @param outputDirectory directory with generated files
+	 * @return loaded manifest
+	 */
+	static GenerationManifest load(File file, String fingerprint, File inputDirectory, File outputDirectory)
+			throws MojoExecutionException {
+		Properties properties = new Properties();
+		if (file.isFile()) {
+			try (InputStream stream = Files.newInputStream(file.toPath())) {
+				properties.load(stream);
+			}
+			catch (IOException ex) {
+				throw new MojoExecutionException("Failed to read the contracts manifest [" + file + "]", ex);
+			}
+		}
+		boolean upToDate = fingerprint.equals(properties.getProperty(FINGERPRINT_KEY));
+		GenerationManifest manifest = new GenerationManifest(file, inputDirectory, outputDirectory, fingerprint,
+				upToDate);
+		for (String key : properties.stringPropertyNames()) {
+			String value = properties.getProperty(key);
+			if (key.startsWith(CHECKSUM_PREFIX)) {
+				manifest.checksums.put(key.substring(CHECKSUM_PREFIX.length()), value);
+			}
+			else if (key.startsWith(OUTPUTS_PREFIX) && !value.isEmpty()) {
+				manifest.outputs.put(key.substring(OUTPUTS_PREFIX.length()),
+						new TreeSet<>(Arrays.asList(value.split(OUTPUTS_SEPARATOR))));
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * @param buildDirectory build directory of the project
+	 * @param mojoExecution execution of the plugin
+	 * @return file with the manifest of the execution
+	 */
+	static File file(File buildDirectory, MojoExecution mojoExecution) {
+		String goal = mojoExecution != null ? mojoExecution.getGoal() : "default";
+		String executionId = mojoExecution != null ? mojoExecution.getExecutionId() : "default";
+		return new File(buildDirectory,
+				"maven-status/spring-cloud-contract/" + goal + "/" + executionId + "/contracts.properties");
+	}
+
+	/**
+	 * @param mojoExecution execution of the plugin
+	 * @param settings settings that influence the generated files
+	 * @return fingerprint consisting of the plugin version and the settings
+	 */
+	static String fingerprint(MojoExecution mojoExecution, Object... settings) {
+		String version = mojoExecution != null && mojoExecution.getMojoDescriptor() != null
+				? mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion() : "";
+		return version + Arrays.deepToString(settings);
+	}
+
+	/**
+	 * Compares the checksums of the current contracts with the ones from the previous
+	 * build.
+	 * @param forceFullRebuild whether all outputs should be regenerated regardless of
+	 * the changes
+	 * @return changes of the contracts
+	 */
+	Changes changes(boolean forceFullRebuild) throws MojoExecutionException {
+		Map<String, String> current = checksums(this.inputDirectory);
+		Set<String> added = new TreeSet<>();
+		Set<String> modified = new TreeSet<>();
+		current.forEach((input, checksum) -> {
+			String previous = this.checksums.get(input);
+			if (previous == null) {
+				added.add(input);
+			}
+			else if (!previous.equals(checksum)) {
+				modified.add(input);
+			}
+		});
+		Set<String> removed = new TreeSet<>(this.checksums.keySet());
+		removed.removeAll(current.keySet());
+		// changed files that produced no outputs (e.g. shared classes or bodies of other
+		// contracts) can influence any output
+		boolean fullRebuild = forceFullRebuild || !this.upToDate || current.isEmpty()
+				|| Stream.concat(modified.stream(), removed.stream()).anyMatch(input -> !this.outputs.containsKey(input));
+		return new Changes(current, added, modified, removed, fullRebuild);
+	}
+
+	/**
+	 * Deletes the outputs generated from the given inputs.
+	 * @param inputs inputs whose outputs should be deleted
+	 */
+	void deleteOutputs(Collection<String> inputs) throws MojoExecutionException {
+		for (String input : inputs) {
+			Set<String> deleted = this.outputs.remove(input);
+			if (deleted == null) {
+				continue;
+			}
+			for (String output : deleted) {
+				try {
+					Files.deleteIfExists(this.outputDirectory.toPath().resolve(output));
+				}
+				catch (IOException ex) {
+					throw new MojoExecutionException("Failed to delete the generated file [" + output + "]", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes all outputs recorded in the manifest.
+	 */
+	void deleteAllOutputs() throws MojoExecutionException {
+		deleteOutputs(new TreeSet<>(this.outputs.keySet()));
+	}
+
+	/**
+	 * Records a file generated from the given input.
+	 * @param input path to the input file
+	 * @param output path to the generated file
+	 */
+	void record(Path input, Path output) {
+		this.outputs.computeIfAbsent(relativize(this.inputDirectory, input), key -> new TreeSet<>())
+				.add(relativize(this.outputDirectory, output));
+	}
+
+	/**
+	 * @param inputs inputs to accept
+	 * @return filter accepting only the given input files
+	 */
+	Predicate<File> filter(Set<String> inputs) {
+		return file -> inputs.contains(relativize(this.inputDirectory, file.toPath()));
+	}
+
+	/**
+	 * Stores the manifest with the checksums of the current inputs.
+	 * @param changes changes that were processed
+	 */
+	void store(Changes changes) throws MojoExecutionException {
+		this.checksums.clear();
+		this.checksums.putAll(changes.checksums);
+		this.outputs.keySet().retainAll(changes.checksums.keySet());
+		Properties properties = new Properties();
+		properties.setProperty(FINGERPRINT_KEY, this.fingerprint);
+		this.checksums.forEach((input, checksum) -> properties.setProperty(CHECKSUM_PREFIX + input, checksum));
+		this.outputs.forEach((input, generated) -> properties.setProperty(OUTPUTS_PREFIX + input,
+				String.join(OUTPUTS_SEPARATOR, generated)));
+		try {
+			Files.createDirectories(this.file.getParentFile().toPath());
+			try (OutputStream stream = Files.newOutputStream(this.file.toPath())) {
+				properties.store(stream, "Spring Cloud Contract generated files");
+			}
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException("Failed to store the contracts manifest [" + this.file + "]", ex);
+		}
+	}
+
+	private static Map<String, String> checksums(File directory) throws MojoExecutionException {
+		Map<String, String> checksums = new TreeMap<>();
+		if (!directory.isDirectory()) {
+			return checksums;
+		}
+		try (Stream<Path> paths = Files.walk(directory.toPath())) {
+			for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+				checksums.put(relativize(directory, path), checksum(path));
+			}
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException("Failed to compute the checksums of contracts in [" + directory + "]",
+					ex);
+		}
+		return checksums;
+	}
+
+	private static String checksum(Path path) throws IOException {
+		try (InputStream stream = Files.newInputStream(path)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String relativize(File directory, Path path) {
+		Path relative = directory.toPath().toAbsolutePath().normalize()
+				.relativize(path.toAbsolutePath().normalize());
+		return relative.toString().replace(File.separatorChar, '/');
+	}
+
+	private static String parent(String input) {
+		int index = input.lastIndexOf('/');
+		return index == -1 ? "" : input.substring(0, index);
+	}
+
+	/**
+	 * Changes of the contracts since the previous build.
+	 */
+	static final class Changes {
+
+		private final Map<String, String> checksums;
+
+		final Set<String> added;
+
+		final Set<String> modified;
+
+		final Set<String> removed;
+
+		final boolean fullRebuild;
+
+		private Changes(Map<String, String> checksums, Set<String> added, Set<String> modified, Set<String> removed,
+				boolean fullRebuild) {
+			this.checksums = checksums;
+			this.added = Collections.unmodifiableSet(added);
+			this.modified = Collections.unmodifiableSet(modified);
+			this.removed = Collections.unmodifiableSet(removed);
+			this.fullRebuild = fullRebuild;
+		}
+
+		boolean isEmpty() {
+			return !this.fullRebuild && this.added.isEmpty() && this.modified.isEmpty() && this.removed.isEmpty();
+		}
+
+		/**
+		 * @return all current inputs
+		 */
+		Set<String> inputs() {
+			return Collections.unmodifiableSet(this.checksums.keySet());
+		}
+
+		/**
+		 * @return current inputs that were added or modified
+		 */
+		Set<String> changed() {
+			Set<String> changed = new TreeSet<>(this.added);
+			changed.addAll(this.modified);
+			return changed;
+		}
+
+		/**
+		 * @return current inputs from the directories in which any input was added,
+		 * modified or removed
+		 */
+		Set<String> inputsOfChangedDirectories() {
+			return inputsInDirectoriesOf(Stream.of(this.added, this.modified, this.removed).flatMap(Set::stream)
+					.collect(Collectors.toSet()));
+		}
+
+		/**
+		 * @param files added, modified or removed inputs
+		 * @return current inputs from the directories of the given files
+		 */
+		Set<String> inputsInDirectoriesOf(Collection<String> files) {
+			Set<String> directories = files.stream().map(GenerationManifest::parent).collect(Collectors.toSet());
+			return this.checksums.keySet().stream().filter(input -> directories.contains(parent(input)))
+					.collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+
+	}
+
+}
@@ -43,7 +43,19 @@ class LeftOverPrevention {
 
 	LeftOverPrevention(File generatedDirectory, MojoExecution mojoExecution, MavenSession session)
 			throws MojoExecutionException {
+		this(generatedDirectory, null, mojoExecution, session);
+	}
+
+	/**
+	 * Files generated by incremental builds are recorded only in the manifest, so they
+	 * get deleted together with the ones recorded by the previous full build.
+	 */
+	LeftOverPrevention(File generatedDirectory, GenerationManifest manifest, MojoExecution mojoExecution,
+			MavenSession session) throws MojoExecutionException {
 		this.generatedDirectory = generatedDirectory;
+		if (manifest != null) {
+			manifest.deleteAllOutputs();
+		}
 		this.incrementalBuildHelper = new IncrementalBuildHelper(mojoExecution, session);
 		this.incrementalBuildHelper
 				.beforeRebuildExecution(new IncrementalBuildHelperRequest().outputDirectory(generatedDirectory));
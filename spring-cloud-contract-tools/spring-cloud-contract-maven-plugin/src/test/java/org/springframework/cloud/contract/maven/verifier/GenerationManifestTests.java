@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.maven.verifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class GenerationManifestTests {
+
+	@TempDir
+	Path tmp;
+
+	File manifestFile;
+
+	File contracts;
+
+	File output;
+
+	@BeforeEach
+	void setup() throws IOException {
+		this.manifestFile = this.tmp.resolve("status/contracts.properties").toFile();
+		this.contracts = Files.createDirectories(this.tmp.resolve("contracts")).toFile();
+		this.output = Files.createDirectories(this.tmp.resolve("output")).toFile();
+		write("foo/shouldGet.groovy", "get");
+		write("foo/shouldPost.groovy", "post");
+		write("bar/shouldDelete.groovy", "delete");
+	}
+
+	@Test
+	void should_rebuild_everything_when_there_is_no_manifest() throws Exception {
+		GenerationManifest.Changes changes = load("1").changes(false);
+
+		then(changes.fullRebuild).isTrue();
+		then(changes.added).containsExactly("bar/shouldDelete.groovy", "foo/shouldGet.groovy",
+				"foo/shouldPost.groovy");
+	}
+
+	@Test
+	void should_find_no_changes_when_contracts_did_not_change() throws Exception {
+		build("1");
+
+		then(load("1").changes(false).isEmpty()).isTrue();
+	}
+
+	@Test
+	void should_rebuild_everything_when_fingerprint_or_goal_changed() throws Exception {
+		build("1");
+
+		then(load("2").changes(false).fullRebuild).isTrue();
+		then(load("1").changes(true).fullRebuild).isTrue();
+	}
+
+	@Test
+	void should_find_changed_contracts_and_delete_their_outputs() throws Exception {
+		build("1");
+		write("foo/shouldGet.groovy", "changed get");
+		write("baz/shouldPut.groovy", "put");
+		Files.delete(this.contracts.toPath().resolve("bar/shouldDelete.groovy"));
+		GenerationManifest manifest = load("1");
+
+		GenerationManifest.Changes changes = manifest.changes(false);
+
+		then(changes.fullRebuild).isFalse();
+		then(changes.added).containsExactly("baz/shouldPut.groovy");
+		then(changes.modified).containsExactly("foo/shouldGet.groovy");
+		then(changes.removed).containsExactly("bar/shouldDelete.groovy");
+		then(changes.inputsOfChangedDirectories()).containsExactly("baz/shouldPut.groovy", "foo/shouldGet.groovy",
+				"foo/shouldPost.groovy");
+		then(manifest.filter(changes.changed()).test(this.contracts.toPath().resolve("foo/shouldGet.groovy").toFile()))
+				.isTrue();
+		then(manifest.filter(changes.changed()).test(this.contracts.toPath().resolve("foo/shouldPost.groovy").toFile()))
+				.isFalse();
+
+		manifest.deleteOutputs(Collections.singleton("bar/shouldDelete.groovy"));
+
+		then(this.output.toPath().resolve("bar/shouldDelete.json")).doesNotExist();
+		then(this.output.toPath().resolve("foo/shouldGet.json")).exists();
+	}
+
+	@Test
+	void should_rebuild_everything_when_a_file_without_outputs_changed() throws Exception {
+		write("bodies/response.json", "{}");
+		build("1");
+		write("bodies/response.json", "{\"changed\":true}");
+
+		then(load("1").changes(false).fullRebuild).isTrue();
+	}
+
+	private GenerationManifest load(String fingerprint) throws MojoExecutionException {
+		return GenerationManifest.load(this.manifestFile, fingerprint, this.contracts, this.output);
+	}
+
+	private void build(String fingerprint) throws Exception {
+		GenerationManifest manifest = load(fingerprint);
+		GenerationManifest.Changes changes = manifest.changes(false);
+		for (String input : changes.inputs()) {
+			if (!input.endsWith(".groovy")) {
+				continue;
+			}
+			Path output = this.output.toPath().resolve(input.replace(".groovy", ".json"));
+			Files.createDirectories(output.getParent());
+			Files.write(output, input.getBytes(StandardCharsets.UTF_8));
+			manifest.record(this.contracts.toPath().resolve(input), output);
+		}
+		manifest.store(changes);
+	}
+
+	private void write(String path, String content) throws IOException {
+		Path file = this.contracts.toPath().resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
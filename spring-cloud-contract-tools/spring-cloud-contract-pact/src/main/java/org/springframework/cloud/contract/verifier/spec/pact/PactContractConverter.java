@@ -60,18 +60,30 @@ public class PactContractConverter implements ContractConverter<Collection<Pact<
 
 	@Override
 	public boolean isAccepted(File file) {
+		return loadPact(file) != null;
+	}
+
+	@Override
+	public Collection<Contract> convertFrom(File file) {
+		return convertFrom(DefaultPactReader.INSTANCE.loadPact(file));
+	}
+
+	@Override
+	public Collection<Contract> tryConvertFrom(File file) {
+		Pact<?> pact = loadPact(file);
+		return pact != null ? convertFrom(pact) : null;
+	}
+
+	private Pact<?> loadPact(File file) {
 		try {
-			DefaultPactReader.INSTANCE.loadPact(file);
-			return true;
+			return DefaultPactReader.INSTANCE.loadPact(file);
 		}
 		catch (Exception e) {
-			return false;
+			return null;
 		}
 	}
 
-	@Override
-	public Collection<Contract> convertFrom(File file) {
-		Pact<?> pact = DefaultPactReader.INSTANCE.loadPact(file);
+	private Collection<Contract> convertFrom(Pact<?> pact) {
 		if (pact instanceof RequestResponsePact) {
 			return requestResponseSCContractCreator.convertFrom((RequestResponsePact) pact);
 		}
@@ -73,6 +73,15 @@ class PactContractConverterSpec extends Specification {
 			!converter.isAccepted(invalidPact)
 	}
 
+	def "should accept and convert pact files in a single pass"() {
+		given:
+			File invalidPact = new File(PactContractConverterSpec.
+				getResource("/pact/invalid_pact.json").toURI())
+		expect:
+			converter.tryConvertFrom(pactJson) == converter.convertFrom(pactJson)
+			converter.tryConvertFrom(invalidPact) == null
+	}
+
 	def "should convert from pact to contract"() {
 		given:
 			Contract expectedContract = Contract.make {
@@ -18,9 +18,20 @@ package org.springframework.cloud.contract.verifier.file
 
 import java.nio.file.FileSystem
 import java.nio.file.FileSystems
+import java.nio.file.FileVisitOption
+import java.nio.file.FileVisitResult
+import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.PathMatcher
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinWorkerThread
+import java.util.function.Function
+import java.util.function.Predicate
 import java.util.regex.Pattern
+import java.util.stream.Collectors
 
 import groovy.transform.CompileStatic
 import groovy.util.logging.Commons
@@ -32,6 +43,7 @@ import wiremock.com.google.common.collect.Multiset
 import org.springframework.cloud.contract.spec.Contract
 import org.springframework.cloud.contract.spec.ContractConverter
 import org.springframework.cloud.contract.verifier.converter.YamlContractConverter
+import org.springframework.cloud.contract.verifier.util.ContractCache
 import org.springframework.cloud.contract.verifier.util.ContractVerifierDslConverter
 import org.springframework.core.io.support.SpringFactoriesLoader
 import org.springframework.util.CollectionUtils
@@ -61,15 +73,60 @@ class ContractFileScanner {
 	private final Set<PathMatcher> ignoreMatchers
 	private final Set<PathMatcher> includeMatchers
 	private final String includeMatcher
+	private final Predicate<File> contractFilter
+	private final int parallelism
+	private final File contractsCacheDir
+	private final int contractsCacheMaxEntries
 
 	ContractFileScanner(File baseDir, Set<String> excluded, Set<String> ignored,
 			Set<String> included = [],
 			String includeMatcher = "") {
+		this(baseDir, excluded, ignored, included, includeMatcher, null)
+	}
+
+	/**
+	 * @param contractFilter additional filter of the contract files. Files rejected
+	 * by the filter don't get converted, but they still count in the size of their
+	 * contract group. Accepts all files when {@code null}
+	 * @since 3.0.1
+	 */
+	ContractFileScanner(File baseDir, Set<String> excluded, Set<String> ignored,
+			Set<String> included, String includeMatcher,
+			Predicate<File> contractFilter) {
+		this(baseDir, excluded, ignored, included, includeMatcher, contractFilter, 1)
+	}
+
+	/**
+	 * @param parallelism number of threads converting the contract files. The result
+	 * doesn't depend on that setting
+	 * @since 3.0.1
+	 */
+	ContractFileScanner(File baseDir, Set<String> excluded, Set<String> ignored,
+			Set<String> included, String includeMatcher,
+			Predicate<File> contractFilter, int parallelism) {
+		this(baseDir, excluded, ignored, included, includeMatcher, contractFilter, parallelism, null,
+				ContractCache.DEFAULT_MAX_ENTRIES)
+	}
+
+	/**
+	 * @param contractsCacheDir folder of the {@link ContractCache} in which the converted
+	 * contracts are kept between builds. The cache is disabled when {@code null}
+	 * @param contractsCacheMaxEntries maximum number of cached contract files
+	 * @since 3.0.1
+	 */
+	ContractFileScanner(File baseDir, Set<String> excluded, Set<String> ignored,
+			Set<String> included, String includeMatcher,
+			Predicate<File> contractFilter, int parallelism,
+			File contractsCacheDir, int contractsCacheMaxEntries) {
 		this.baseDir = baseDir
 		this.excludeMatchers = processPatterns(excluded ?: [] as Set<String>)
 		this.ignoreMatchers = processPatterns(ignored ?: [] as Set<String>)
 		this.includeMatchers = processPatterns(included ?: [] as Set<String>)
 		this.includeMatcher = includeMatcher
+		this.contractFilter = contractFilter
+		this.parallelism = parallelism
+		this.contractsCacheDir = contractsCacheDir
+		this.contractsCacheMaxEntries = contractsCacheMaxEntries
 	}
 
 	private Set<PathMatcher> processPatterns(Set<String> patterns) {
@@ -217,54 +274,183 @@ class ContractFileScanner {
 
 
 	MultiValueMap<Path, ContractMetadata> findContractsRecursively() {
+		List<ContractConverter> converters = convertersWithYml()
+		if (log.isTraceEnabled()) {
+			log.trace("Found the following contract converters ${converters}")
+		}
+		List<ContractFile> contractFiles = scan()
 		MultiValueMap<Path, ContractMetadata> result = CollectionUtils.toMultiValueMap(new LinkedHashMap<>());
-		appendRecursively(baseDir, result)
+		ContractCache cache = contractsCacheDir != null ?
+				new ContractCache(contractsCacheDir, contractsCacheMaxEntries, converters) : null
+		try {
+			List<Collection<Contract>> convertedContracts = convertAll(contractFiles, converters, cache)
+			// contracts are added in the order of the scan, so the result is the same as
+			// in a sequential run
+			for (int i = 0; i < contractFiles.size(); i++) {
+				ContractFile contractFile = contractFiles.get(i)
+				Collection<Contract> convertedContract = convertedContracts.get(i)
+				if (convertedContract != null) {
+					addContractToTestGeneration(result, contractFile, convertedContract)
+				}
+				else if (log.isDebugEnabled()) {
+					log.debug("File [${contractFile.file}] wasn't ignored but no converter was applicable")
+				}
+			}
+		}
+		finally {
+			cache?.evict()
+		}
 		return result
 	}
 
 	/**
-	 * We iterate over found contracts, filter out those that should be excluded
-	 * and try to convert via pluggable Contract Converters any possible contracts
+	 * Walks the file tree once and collects the files to convert, in the order of the
+	 * sorted directory listings. Excluded directories are not walked into.
 	 */
-	private void appendRecursively(File baseDir, MultiValueMap<Path, ContractMetadata> result) {
-		List<ContractConverter> converters = convertersWithYml()
-		if (log.isTraceEnabled()) {
-			log.trace("Found the following contract converters ${converters}")
+	private List<ContractFile> scan() {
+		Path root = baseDir.toPath()
+		List<ContractFile> contractFiles = []
+		if (!Files.isDirectory(root)) {
+			return contractFiles
 		}
-		File[] files = baseDir.listFiles()
-		if (!files) {
+		Map<Path, List<Entry>> children = new HashMap<>()
+		Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+				new SimpleFileVisitor<Path>() {
+					@Override
+					FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+						if (dir == root) {
+							return FileVisitResult.CONTINUE
+						}
+						addEntry(children, dir, attrs)
+						if (matchesPattern(dir.toFile(), excludeMatchers)) {
+							return FileVisitResult.SKIP_SUBTREE
+						}
+						return FileVisitResult.CONTINUE
+					}
+
+					@Override
+					FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						addEntry(children, file, attrs)
+						return FileVisitResult.CONTINUE
+					}
+
+					@Override
+					FileVisitResult visitFileFailed(Path file, IOException exc) {
+						if (log.isDebugEnabled()) {
+							log.debug("Failed to visit [$file]", exc)
+						}
+						addEntry(children, file, null)
+						return FileVisitResult.CONTINUE
+					}
+				})
+		collect(root, children, contractFiles)
+		return contractFiles
+	}
+
+	private static void addEntry(Map<Path, List<Entry>> children, Path path, BasicFileAttributes attrs) {
+		children.computeIfAbsent(path.parent, { new ArrayList<Entry>() })
+				.add(new Entry(path.toFile(), attrs != null && attrs.isDirectory(),
+						attrs != null && attrs.isRegularFile()))
+	}
+
+	/**
+	 * We iterate over found contracts, filter out those that should be excluded
+	 * and collect the ones that any possible Contract Converter should convert
+	 */
+	private void collect(Path dir, Map<Path, List<Entry>> children, List<ContractFile> contractFiles) {
+		List<Entry> entries = children.get(dir)
+		if (!entries) {
 			return
 		}
-		File[] sortedFiles = files.sort() as File[]
-		for (int i = 0; i < sortedFiles.length; i++) {
-			File file = sortedFiles[i]
-			boolean excluded = matchesPattern(file, excludeMatchers)
-			if (!excluded) {
-				boolean contractFile = isContractFile(file)
-				boolean included = includeMatcher ? file.absolutePath.
-						matches(includeMatcher) : true
-				included = includeMatchers ?
-						matchesPattern(file, includeMatchers) : included
-				if (contractFile && included) {
-					addContractToTestGeneration(result, files, file, i, ContractVerifierDslConverter.
-							convertAsCollection(baseDir, file))
-				}
-				if (!contractFile && included) {
-					addContractToTestGeneration(converters, result, files, file, i)
-				}
-				else {
-					appendRecursively(file, result)
-					if (log.isDebugEnabled()) {
-						log.debug("File [$file] is ignored. Is a contract file? [$contractFile]. Should be included by pattern? [$included]")
-					}
+		entries.sort { Entry entry -> entry.file }
+		for (int i = 0; i < entries.size(); i++) {
+			Entry entry = entries.get(i)
+			File file = entry.file
+			if (contractFilter != null && entry.regularFile && !contractFilter.test(file)) {
+				if (log.isDebugEnabled()) {
+					log.debug("File [$file] is rejected by the contract filter")
 				}
+				continue
 			}
-			else {
+			if (matchesPattern(file, excludeMatchers)) {
 				if (log.isDebugEnabled()) {
-					log.debug("File [$file] is ignored. Should be excluded? [$excluded]")
+					log.debug("File [$file] is ignored. Should be excluded? [true]")
 				}
+				continue
+			}
+			if (entry.directory) {
+				collect(entry.file.toPath(), children, contractFiles)
+				continue
 			}
+			boolean contractFile = entry.regularFile && ContractVerifierDslConverter.INSTANCE.isAccepted(file)
+			boolean included = includeMatcher ? file.absolutePath.
+					matches(includeMatcher) : true
+			included = includeMatchers ?
+					matchesPattern(file, includeMatchers) : included
+			if (included) {
+				contractFiles.add(new ContractFile(file, contractFile, entries.size(),
+						hasScenarioFilenamePattern(file.toPath()) ? i : null,
+						matchesPattern(file, ignoreMatchers)))
+			}
+			else if (log.isDebugEnabled()) {
+				log.debug("File [$file] is ignored. Is a contract file? [$contractFile]. Should be included by pattern? [$included]")
+			}
+		}
+	}
+
+	private List<Collection<Contract>> convertAll(List<ContractFile> contractFiles,
+			List<ContractConverter> converters, ContractCache cache) {
+		if (parallelism <= 1 || contractFiles.size() <= 1) {
+			return contractFiles.collect { ContractFile contractFile -> convert(contractFile, converters, cache) }
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Will convert [${contractFiles.size()}] contract files using [${parallelism}] threads")
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism, workerThreadFactory(), null, false)
+		try {
+			return pool.submit({
+				contractFiles.parallelStream()
+						.map({ ContractFile contractFile -> convert(contractFile, converters, cache) } as Function<ContractFile, Collection<Contract>>)
+						.collect(Collectors.toList())
+			} as Callable<List<Collection<Contract>>>).join()
 		}
+		finally {
+			pool.shutdown()
+		}
+	}
+
+	// build plugins load the scanner in their own class loader
+	private static ForkJoinPool.ForkJoinWorkerThreadFactory workerThreadFactory() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader()
+		return { ForkJoinPool pool ->
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool)
+			thread.setContextClassLoader(classLoader)
+			return thread
+		} as ForkJoinPool.ForkJoinWorkerThreadFactory
+	}
+
+	private Collection<Contract> convert(ContractFile contractFile, List<ContractConverter> converters,
+			ContractCache cache) {
+		if (cache == null) {
+			return convert(contractFile, converters)
+		}
+		return cache.computeIfAbsent(contractFile.file, {
+			File file -> convert(contractFile, converters)
+		} as Function<File, Collection<Contract>>)
+	}
+
+	private Collection<Contract> convert(ContractFile contractFile, List<ContractConverter> converters) {
+		File file = contractFile.file
+		if (contractFile.contractFile) {
+			return ContractVerifierDslConverter.convertAsCollection(file.parentFile, file)
+		}
+		for (ContractConverter converter : converters) {
+			Collection<Contract> contracts = tryConvert(converter, file)
+			if (contracts) {
+				return contracts
+			}
+		}
+		return null
 	}
 
 	protected List<ContractConverter> convertersWithYml() {
@@ -278,51 +464,21 @@ class ContractFileScanner {
 		return SpringFactoriesLoader.loadFactories(ContractConverter, null)
 	}
 
-	private void addContractToTestGeneration(List<ContractConverter> converters, MultiValueMap<Path, ContractMetadata> result,
-			File[] files, File file, int index) {
-		boolean converted = false
-		if (!file.isDirectory()) {
-			for (ContractConverter converter : converters) {
-				Collection<Contract> contracts = tryConvert(converter, file)
-				if (contracts) {
-					addContractToTestGeneration(result, files, file, index, contracts)
-					converted = true
-					break
-				}
-			}
-		}
-		if (!converted) {
-			appendRecursively(file, result)
-			if (log.isDebugEnabled()) {
-				log.debug("File [$file] wasn't ignored but no converter was applicable. The file is a directory [${file.isDirectory()}]")
-			}
-		}
-	}
-
 	private Collection<Contract> tryConvert(ContractConverter converter, File file) {
-		boolean accepted = converter.isAccepted(file)
-		if (!accepted) {
-			return null
-		}
 		try {
-			return converter.convertFrom(file)
+			return converter.tryConvertFrom(file)
 		}
 		catch (Exception e) {
 			throw new IllegalStateException("Failed to convert file [" + file + "]", e)
 		}
 	}
 
-	private void addContractToTestGeneration(MultiValueMap<Path, ContractMetadata> result, File[] files, File file,
-			int index, Collection<Contract> convertedContract) {
-		Path path = file.toPath()
-		Integer order = null
-		if (hasScenarioFilenamePattern(path)) {
-			order = index
-		}
-		Path parent = file.parentFile.toPath()
-		ContractMetadata metadata = new ContractMetadata(path,
-				matchesPattern(file, ignoreMatchers),
-				files.size(), order, convertedContract)
+	private void addContractToTestGeneration(MultiValueMap<Path, ContractMetadata> result,
+			ContractFile contractFile, Collection<Contract> convertedContract) {
+		Path path = contractFile.file.toPath()
+		Path parent = contractFile.file.parentFile.toPath()
+		ContractMetadata metadata = new ContractMetadata(path, contractFile.ignored,
+				contractFile.groupSize, contractFile.order, convertedContract)
 		if (log.isDebugEnabled()) {
 			log.debug("Creating a contract entry for path [" + path + "] and metadata [" + metadata + "]")
 		}
@@ -343,10 +499,6 @@ class ContractFileScanner {
 		return false
 	}
 
-	private boolean isContractFile(File file) {
-		return file.isFile() && ContractVerifierDslConverter.INSTANCE.isAccepted(file)
-	}
-
 	/**
 	 * Decides if the operating system matches.
 	 *
@@ -373,4 +525,57 @@ class ContractFileScanner {
 		}
 		return osName.startsWith(osNamePrefix)
 	}
+
+	/**
+	 * Entry of a directory listing.
+	 */
+	@CompileStatic
+	private static final class Entry {
+
+		final File file
+
+		final boolean directory
+
+		final boolean regularFile
+
+		Entry(File file, boolean directory, boolean regularFile) {
+			this.file = file
+			this.directory = directory
+			this.regularFile = regularFile
+		}
+	}
+
+	/**
+	 * File found by the scan that should get converted.
+	 */
+	@CompileStatic
+	private static final class ContractFile {
+
+		final File file
+
+		/**
+		 * Whether the file is a Groovy / Java DSL file
+		 */
+		final boolean contractFile
+
+		/**
+		 * Number of entries in the directory of the file
+		 */
+		final int groupSize
+
+		/**
+		 * Index of the file in its directory if it's a scenario step
+		 */
+		final Integer order
+
+		final boolean ignored
+
+		ContractFile(File file, boolean contractFile, int groupSize, Integer order, boolean ignored) {
+			this.file = file
+			this.contractFile = contractFile
+			this.groupSize = groupSize
+			this.order = order
+			this.ignored = ignored
+		}
+	}
 }
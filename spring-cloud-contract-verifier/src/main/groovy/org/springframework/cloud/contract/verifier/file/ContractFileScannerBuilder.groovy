@@ -16,9 +16,12 @@
 
 package org.springframework.cloud.contract.verifier.file
 
+import java.util.function.Predicate
 
 import groovy.transform.CompileStatic
 
+import org.springframework.cloud.contract.verifier.util.ContractCache
+
 /**
  * Scans the provided file path for the DSLs. There's a possibility to provide
  * inclusion and exclusion filters.
@@ -35,6 +38,10 @@ class ContractFileScannerBuilder {
 	private Set<String> ignored
 	private Set<String> included = []
 	private String includeMatcher = ""
+	private Predicate<File> contractFilter
+	private int parallelism = 1
+	private File contractsCacheDir
+	private int contractsCacheMaxEntries = ContractCache.DEFAULT_MAX_ENTRIES
 
 	ContractFileScannerBuilder baseDir(File baseDir) {
 		this.baseDir = baseDir
@@ -61,12 +68,53 @@ class ContractFileScannerBuilder {
 		return this
 	}
 
+	/**
+	 * @param contractFilter filter of the contract files to convert
+	 * @since 3.0.1
+	 */
+	ContractFileScannerBuilder contractFilter(Predicate<File> contractFilter) {
+		this.contractFilter = contractFilter
+		return this
+	}
+
+	/**
+	 * @param parallelism number of threads converting the contract files
+	 * @since 3.0.1
+	 */
+	ContractFileScannerBuilder parallelism(int parallelism) {
+		this.parallelism = parallelism
+		return this
+	}
+
+	/**
+	 * @param contractsCacheDir folder in which the converted contracts are kept between
+	 * builds, the cache is disabled when {@code null}
+	 * @since 3.0.1
+	 */
+	ContractFileScannerBuilder contractsCacheDir(File contractsCacheDir) {
+		this.contractsCacheDir = contractsCacheDir
+		return this
+	}
+
+	/**
+	 * @param contractsCacheMaxEntries maximum number of cached contract files
+	 * @since 3.0.1
+	 */
+	ContractFileScannerBuilder contractsCacheMaxEntries(int contractsCacheMaxEntries) {
+		this.contractsCacheMaxEntries = contractsCacheMaxEntries
+		return this
+	}
+
 	ContractFileScanner build() {
 		return new ContractFileScanner(this.baseDir,
 				this.excluded,
 				this.ignored,
 				this.included,
-				this.includeMatcher)
+				this.includeMatcher,
+				this.contractFilter,
+				this.parallelism,
+				this.contractsCacheDir,
+				this.contractsCacheMaxEntries)
 	}
 }
 
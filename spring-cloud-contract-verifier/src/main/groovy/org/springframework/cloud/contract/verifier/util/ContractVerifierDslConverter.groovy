@@ -157,8 +157,11 @@ class ContractVerifierDslConverter implements ContractConverter<Collection<Contr
 	private static Constructor<?> classConstructor(File dsl) {
 		String classText = dsl.text
 		String fqn = fqn(classText)
-		CompilationResult compilationResult = COMPILER
-				.compile(fqn, classText)
+		CompilationResult compilationResult
+		// contract files may be converted in parallel and the compiler is shared
+		synchronized (COMPILER) {
+			compilationResult = COMPILER.compile(fqn, classText)
+		}
 		if (!compilationResult.wasSuccessful()) {
 			throw new IllegalStateException("Exceptions occurred while trying to compile the file " + compilationResult.compilationMessages)
 		}
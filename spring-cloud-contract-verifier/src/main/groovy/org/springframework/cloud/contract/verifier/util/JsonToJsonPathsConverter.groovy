@@ -34,7 +34,6 @@ import org.springframework.cloud.contract.spec.internal.MatchingType
 import org.springframework.cloud.contract.spec.internal.OptionalProperty
 import org.springframework.cloud.contract.spec.internal.RegexProperty
 import org.springframework.cloud.contract.verifier.config.ContractVerifierConfigProperties
-import org.springframework.util.SerializationUtils
 
 /**
  * I would like to apologize to anyone who is reading this class. Since JSON is a hectic structure
@@ -233,8 +232,7 @@ class JsonToJsonPathsConverter {
 
 	// Doing a clone doesn't work for nested lists...
 	private static Object cloneBody(Object object) {
-		byte[] serializedObject = SerializationUtils.serialize(object)
-		return SerializationUtils.deserialize(serializedObject)
+		return CloneUtils.clone(object)
 	}
 
 	/**
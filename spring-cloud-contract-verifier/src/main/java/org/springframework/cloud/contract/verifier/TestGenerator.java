@@ -20,12 +20,18 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -70,9 +76,26 @@ public class TestGenerator {
 
 	private final ContractFileScanner contractFileScanner;
 
+	private final Map<Path, Path> generatedClasses = new LinkedHashMap<>();
+
 	public TestGenerator(ContractVerifierConfigProperties configProperties) {
-		this(configProperties, singleTestGenerator(), new FileSaver(configProperties.getGeneratedTestSourcesDir(),
-				configProperties.getTestFramework().getClassExtension()));
+		this(configProperties, singleTestGenerator(), fileSaver(configProperties));
+	}
+
+	/**
+	 * Generates tests only for the contract files accepted by the filter.
+	 * @param configProperties configuration of the generation
+	 * @param contractFilter filter of the contract files
+	 * @since 3.0.1
+	 */
+	public TestGenerator(ContractVerifierConfigProperties configProperties, Predicate<File> contractFilter) {
+		this(configProperties, singleTestGenerator(), fileSaver(configProperties),
+				contractFileScanner(configProperties, contractFilter));
+	}
+
+	private static FileSaver fileSaver(ContractVerifierConfigProperties configProperties) {
+		return new FileSaver(configProperties.getGeneratedTestSourcesDir(),
+				configProperties.getTestFramework().getClassExtension());
 	}
 
 	private static SingleTestGenerator singleTestGenerator() {
@@ -85,10 +108,18 @@ public class TestGenerator {
 
 	public TestGenerator(ContractVerifierConfigProperties configProperties, SingleTestGenerator generator,
 			FileSaver saver) {
-		this(configProperties, generator, saver, new ContractFileScannerBuilder()
-				.baseDir(configProperties.getContractsDslDir()).excluded(toSet(configProperties.getExcludedFiles()))
-				.ignored(toSet(configProperties.getIgnoredFiles())).included(toSet(configProperties.getIncludedFiles()))
-				.includeMatcher(configProperties.getIncludedContracts()).build());
+		this(configProperties, generator, saver, contractFileScanner(configProperties, null));
+	}
+
+	private static ContractFileScanner contractFileScanner(ContractVerifierConfigProperties configProperties,
+			Predicate<File> contractFilter) {
+		return new ContractFileScannerBuilder().baseDir(configProperties.getContractsDslDir())
+				.excluded(toSet(configProperties.getExcludedFiles())).ignored(toSet(configProperties.getIgnoredFiles()))
+				.included(toSet(configProperties.getIncludedFiles()))
+				.includeMatcher(configProperties.getIncludedContracts()).contractFilter(contractFilter)
+				.parallelism(configProperties.getGenerationParallelism())
+				.contractsCacheDir(configProperties.getContractsCacheDir())
+				.contractsCacheMaxEntries(configProperties.getContractsCacheMaxEntries()).build();
 	}
 
 	private static Set<String> toSet(List<String> files) {
@@ -115,6 +146,14 @@ public class TestGenerator {
 		return counter.get();
 	}
 
+	/**
+	 * @return paths of the generated test classes by the folders with their contracts
+	 * @since 3.0.1
+	 */
+	public Map<Path, Path> getGeneratedClasses() {
+		return Collections.unmodifiableMap(this.generatedClasses);
+	}
+
 	private String basePackageName() {
 		if (StringUtils.isNotEmpty(configProperties.getBasePackageForTests())) {
 			return configProperties.getBasePackageForTests();
@@ -149,8 +188,30 @@ public class TestGenerator {
 	}
 
 	void processAll(MultiValueMap<Path, ContractMetadata> contracts, final String basePackageName) {
-		contracts.entrySet().stream().forEach(
-				entry -> processIncludedDirectory(relativizeContractPath(entry), entry.getValue(), basePackageName));
+		// names, packages and paths are always resolved sequentially, in the order of the
+		// scanned directories
+		List<ClassToGenerate> classes = contracts.entrySet().stream()
+				.map(entry -> classToGenerate(entry.getKey(), relativizeContractPath(entry), entry.getValue(),
+						basePackageName))
+				.filter(Objects::nonNull).collect(Collectors.toList());
+		int parallelism = configProperties.getGenerationParallelism();
+		if (parallelism <= 1 || classes.size() <= 1) {
+			classes.forEach(classToGenerate -> save(classToGenerate, buildClass(classToGenerate)));
+			return;
+		}
+		log.debug("Will generate [{}] test classes using [{}] threads", classes.size(), parallelism);
+		ForkJoinPool pool = new ForkJoinPool(parallelism, workerThreadFactory(), null, false);
+		try {
+			List<byte[]> classBytes = pool
+					.submit(() -> classes.parallelStream().map(this::buildClass).collect(Collectors.toList())).join();
+			// files are saved in the same order as in the sequential run
+			for (int i = 0; i < classes.size(); i++) {
+				save(classes.get(i), classBytes.get(i));
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
 	}
 
 	private String relativizeContractPath(Map.Entry<Path, List<ContractMetadata>> entry) {
@@ -158,24 +219,43 @@ public class TestGenerator {
 		return StringUtils.defaultIfEmpty(relativePath.toString(), DEFAULT_CLASS_PREFIX);
 	}
 
-	private void processIncludedDirectory(final String includedDirectoryRelativePath,
+	// build plugins load the test generator in their own class loader
+	private ForkJoinPool.ForkJoinWorkerThreadFactory workerThreadFactory() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		};
+	}
+
+	private ClassToGenerate classToGenerate(final Path contractsDirectory, final String includedDirectoryRelativePath,
 			final Collection<ContractMetadata> contracts, final String basePackageNameForClass) {
 		log.debug("Collected contracts with metadata {} relative path is [{}]", contracts,
 				includedDirectoryRelativePath);
-		if (!contracts.isEmpty()) {
-			String className = afterLast(includedDirectoryRelativePath, File.separator) + resolveNameSuffix();
-			String convertedClassName = ensureNameDoesNotStartWithNumber(convertIllegalPackageChars(className));
-			String packageName = buildPackage(basePackageNameForClass, includedDirectoryRelativePath);
-			Path dir = saver.generateTestBaseDir(basePackageNameForClass,
-					convertIllegalPackageChars(includedDirectoryRelativePath));
-			Path classPath = saver.pathToClass(dir, convertedClassName);
-			byte[] classBytes = generator
-					.buildClass(configProperties, contracts, includedDirectoryRelativePath,
-							new SingleTestGenerator.GeneratedClassData(convertedClassName, packageName, classPath))
-					.getBytes(StandardCharsets.UTF_8);
-			saver.saveClassFile(classPath, classBytes);
-			counter.incrementAndGet();
+		if (contracts.isEmpty()) {
+			return null;
 		}
+		String className = afterLast(includedDirectoryRelativePath, File.separator) + resolveNameSuffix();
+		String convertedClassName = ensureNameDoesNotStartWithNumber(convertIllegalPackageChars(className));
+		String packageName = buildPackage(basePackageNameForClass, includedDirectoryRelativePath);
+		Path dir = saver.generateTestBaseDir(basePackageNameForClass,
+				convertIllegalPackageChars(includedDirectoryRelativePath));
+		Path classPath = saver.pathToClass(dir, convertedClassName);
+		return new ClassToGenerate(contractsDirectory, includedDirectoryRelativePath, contracts,
+				new SingleTestGenerator.GeneratedClassData(convertedClassName, packageName, classPath));
+	}
+
+	private byte[] buildClass(ClassToGenerate classToGenerate) {
+		return generator.buildClass(configProperties, classToGenerate.contracts,
+				classToGenerate.includedDirectoryRelativePath, classToGenerate.classData)
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private void save(ClassToGenerate classToGenerate, byte[] classBytes) {
+		saver.saveClassFile(classToGenerate.classData.testClassPath, classBytes);
+		generatedClasses.put(classToGenerate.contractsDirectory, classToGenerate.classData.testClassPath);
+		counter.incrementAndGet();
 	}
 
 	private String ensureNameDoesNotStartWithNumber(String convertedClassName) {
@@ -193,4 +273,24 @@ public class TestGenerator {
 		return !directory.isEmpty() ? convertedPackage : packageNameForClass;
 	}
 
+	private static final class ClassToGenerate {
+
+		private final Path contractsDirectory;
+
+		private final String includedDirectoryRelativePath;
+
+		private final Collection<ContractMetadata> contracts;
+
+		private final SingleTestGenerator.GeneratedClassData classData;
+
+		private ClassToGenerate(Path contractsDirectory, String includedDirectoryRelativePath,
+				Collection<ContractMetadata> contracts, SingleTestGenerator.GeneratedClassData classData) {
+			this.contractsDirectory = contractsDirectory;
+			this.includedDirectoryRelativePath = includedDirectoryRelativePath;
+			this.contracts = contracts;
+			this.classData = classData;
+		}
+
+	}
+
 }
@@ -0,0 +1,636 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.assertion;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.toomuchcoding.jsonassert.JsonAssertion;
+import net.minidev.json.JSONArray;
+
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Verifies all JSON paths asserted for a single body in one walk over the parsed JSON.
+ * The paths are merged into a tree of path segments, so every shared prefix of the paths
+ * is visited only once instead of running a separate JSON path query per asserted
+ * entry.
+ *
+ * Only the subset of the JSON path syntax that JSON Assert produces is compiled - fields,
+ * array indexes, wildcards and a trailing filter with an equality or a regular
+ * expression check. A bounded number of compiled paths is cached. Checks with paths
+ * outside of that subset and checks that the walk didn't find satisfied are verified
+ * again with JSON Assert, so the failure messages are the same as the ones of the
+ * regular generated assertions.
+ *
+ * @since 3.0.1
+ */
+public final class JsonAssertionPlan {
+
+	private static final int COMPILED_PATHS_CACHE_SIZE = 256;
+
+	private static final ConcurrentLruCache<String, Optional<CompiledPath>> COMPILED_PATHS = new ConcurrentLruCache<>(
+			COMPILED_PATHS_CACHE_SIZE, path -> Optional.ofNullable(new PathParser(path).parse()));
+
+	private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+	private final DocumentContext parsedJson;
+
+	private final List<Check> checks = new ArrayList<>();
+
+	private JsonAssertionPlan(DocumentContext parsedJson) {
+		this.parsedJson = parsedJson;
+	}
+
+	/**
+	 * @param parsedJson JSON to verify
+	 * @return empty plan for the given JSON
+	 */
+	public static JsonAssertionPlan of(DocumentContext parsedJson) {
+		return new JsonAssertionPlan(parsedJson);
+	}
+
+	/**
+	 * Expects the JSON path to match at least one non empty element. That's the check
+	 * JSON Assert does for the asserted values.
+	 * @param jsonPath JSON path with the asserted value
+	 * @return this
+	 */
+	public JsonAssertionPlan matches(String jsonPath) {
+		CompiledPath path = compile(jsonPath);
+		this.checks.add(new Check(CheckType.MATCHES, jsonPath, path != null && !path.definite ? path : null, 0));
+		return this;
+	}
+
+	/**
+	 * Expects the element under the JSON path to be empty. For a path with wildcards all
+	 * the matched elements need to be empty.
+	 * @param jsonPath JSON path of the element
+	 * @return this
+	 */
+	public JsonAssertionPlan isEmpty(String jsonPath) {
+		this.checks.add(new Check(CheckType.IS_EMPTY, jsonPath, unfiltered(compile(jsonPath)), 0));
+		return this;
+	}
+
+	/**
+	 * Expects the array under the JSON path to have the given size. For a path with
+	 * wildcards the number of matched elements is compared.
+	 * @param jsonPath JSON path of the array
+	 * @param size expected size
+	 * @return this
+	 */
+	public JsonAssertionPlan hasSize(String jsonPath, int size) {
+		this.checks.add(new Check(CheckType.HAS_SIZE, jsonPath, unfiltered(compile(jsonPath)), size));
+		return this;
+	}
+
+	/**
+	 * Walks the JSON once and verifies all the checks.
+	 * @throws IllegalStateException with the JSON Assert message of the first failing
+	 * check
+	 */
+	public void verify() {
+		Node root = new Node(null);
+		for (Check check : this.checks) {
+			if (check.path != null) {
+				root.add(check, 0);
+			}
+		}
+		root.visit(this.parsedJson.json());
+		for (Check check : this.checks) {
+			if (!check.holds()) {
+				check.type.verify(this.parsedJson, check.jsonPath, check.size);
+			}
+		}
+	}
+
+	/**
+	 * Filters are compiled more strictly than JSON Path evaluates them, so they can only
+	 * prove that something matched and not that nothing else did.
+	 */
+	private static CompiledPath unfiltered(CompiledPath path) {
+		return path != null && !path.filtered ? path : null;
+	}
+
+	private static CompiledPath compile(String jsonPath) {
+		return COMPILED_PATHS.get(jsonPath).orElse(null);
+	}
+
+	/**
+	 * Copy of the JSON Assert definition of an empty element.
+	 */
+	private static boolean isObjectEmpty(Object value) {
+		if (value instanceof Map) {
+			return ((Map) value).isEmpty();
+		}
+		else if (value instanceof JSONArray) {
+			return ((JSONArray) value).stream().allMatch(JsonAssertionPlan::isObjectEmpty);
+		}
+		else if (value instanceof List) {
+			return ((List) value).isEmpty();
+		}
+		return value == null;
+	}
+
+	private enum CheckType {
+
+		MATCHES {
+			@Override
+			boolean accepts(Object value, int size) {
+				return !isObjectEmpty(value);
+			}
+
+			@Override
+			boolean acceptsMatches(int matches, boolean anyNotEmpty, int size) {
+				return anyNotEmpty;
+			}
+
+			@Override
+			void verify(DocumentContext parsedJson, String jsonPath, int size) {
+				JsonAssertion.assertThatJson(parsedJson).matchesJsonPath(jsonPath);
+			}
+		},
+
+		IS_EMPTY {
+			@Override
+			boolean accepts(Object value, int size) {
+				return isObjectEmpty(value);
+			}
+
+			@Override
+			boolean acceptsMatches(int matches, boolean anyNotEmpty, int size) {
+				return !anyNotEmpty;
+			}
+
+			@Override
+			void verify(DocumentContext parsedJson, String jsonPath, int size) {
+				if (!isObjectEmpty(parsedJson.read(jsonPath))) {
+					throw new IllegalStateException("Parsed JSON [" + parsedJson.jsonString() + "] with the JSON path ["
+							+ jsonPath + "] is not empty!");
+				}
+			}
+		},
+
+		HAS_SIZE {
+			@Override
+			boolean accepts(Object value, int size) {
+				return value instanceof List && ((List) value).size() == size
+						&& ((List) value).stream().anyMatch(element -> !isObjectEmpty(element));
+			}
+
+			@Override
+			boolean acceptsMatches(int matches, boolean anyNotEmpty, int size) {
+				return anyNotEmpty && matches == size;
+			}
+
+			@Override
+			void verify(DocumentContext parsedJson, String jsonPath, int size) {
+				JsonAssertion.assertThatJson(parsedJson).matchesJsonPath(jsonPath);
+				JSONArray array = parsedJson.read(jsonPath, JSONArray.class);
+				if (array == null || array.size() != size) {
+					throw new IllegalStateException("Parsed JSON <" + parsedJson.jsonString() + "> doesn't have the size <"
+							+ size + "> for JSON path <" + jsonPath + ">. The size is <"
+							+ (array == null ? null : array.size()) + ">");
+				}
+			}
+		};
+
+		/**
+		 * @param value the element under a definite path
+		 */
+		abstract boolean accepts(Object value, int size);
+
+		/**
+		 * @param matches number of elements matched by an indefinite path
+		 * @param anyNotEmpty whether any of the matched elements is not empty
+		 */
+		abstract boolean acceptsMatches(int matches, boolean anyNotEmpty, int size);
+
+		abstract void verify(DocumentContext parsedJson, String jsonPath, int size);
+
+	}
+
+	private static final class Check {
+
+		private final CheckType type;
+
+		private final String jsonPath;
+
+		private final CompiledPath path;
+
+		private final int size;
+
+		/**
+		 * Whether all the elements matched by the path need to be seen to verify the
+		 * check.
+		 */
+		private final boolean collecting;
+
+		private final List<Node> nodes = new ArrayList<>();
+
+		private boolean satisfied;
+
+		private boolean reached;
+
+		private int matches;
+
+		private boolean anyNotEmpty;
+
+		private Check(CheckType type, String jsonPath, CompiledPath path, int size) {
+			this.type = type;
+			this.jsonPath = jsonPath;
+			this.path = path;
+			this.size = size;
+			this.collecting = path != null && !path.definite && type != CheckType.MATCHES;
+		}
+
+		private void offer(Object value) {
+			if (this.collecting) {
+				this.matches++;
+				this.anyNotEmpty |= !isObjectEmpty(value);
+			}
+			else if (!this.satisfied && this.type.accepts(value, this.size)) {
+				this.satisfied = true;
+				this.nodes.forEach(node -> node.pending--);
+			}
+		}
+
+		/**
+		 * Marks that the definite part of the path exists. Otherwise JSON Path fails
+		 * instead of returning no elements.
+		 */
+		private void reach(Object value) {
+			this.reached |= value instanceof Map || value instanceof List;
+		}
+
+		private boolean holds() {
+			if (!this.collecting) {
+				return this.satisfied;
+			}
+			return this.reached && this.type.acceptsMatches(this.matches, this.anyNotEmpty, this.size);
+		}
+
+	}
+
+	/**
+	 * Node of the tree of path segments. Keeps the number of checks below it that are
+	 * not satisfied yet, so that the walk can skip the parts of the JSON that nobody
+	 * needs anymore.
+	 */
+	private static final class Node {
+
+		private final Segment segment;
+
+		private final Map<String, Node> children = new LinkedHashMap<>();
+
+		private final List<Check> checks = new ArrayList<>();
+
+		private final List<Check> reachedChecks = new ArrayList<>();
+
+		private int pending;
+
+		private Node(Segment segment) {
+			this.segment = segment;
+		}
+
+		private void add(Check check, int index) {
+			this.pending++;
+			check.nodes.add(this);
+			List<Segment> segments = check.path.segments;
+			if (check.collecting && index == check.path.firstIndefinite) {
+				this.reachedChecks.add(check);
+			}
+			if (index == segments.size()) {
+				this.checks.add(check);
+				return;
+			}
+			Segment next = segments.get(index);
+			this.children.computeIfAbsent(next.text, text -> new Node(next)).add(check, index + 1);
+		}
+
+		private void visit(Object value) {
+			if (this.pending == 0) {
+				return;
+			}
+			this.reachedChecks.forEach(check -> check.reach(value));
+			this.checks.forEach(check -> check.offer(value));
+			for (Node child : this.children.values()) {
+				if (child.pending > 0) {
+					child.segment.select(value, child::visit);
+				}
+			}
+		}
+
+	}
+
+	private static final class CompiledPath {
+
+		private final List<Segment> segments;
+
+		private final boolean definite;
+
+		private final int firstIndefinite;
+
+		private final boolean filtered;
+
+		private CompiledPath(List<Segment> segments) {
+			this.segments = segments;
+			this.definite = segments.stream().allMatch(segment -> segment.definite);
+			int index = 0;
+			while (index < segments.size() && segments.get(index).definite) {
+				index++;
+			}
+			this.firstIndefinite = index;
+			this.filtered = segments.stream().anyMatch(segment -> segment instanceof Filter);
+		}
+
+	}
+
+	private abstract static class Segment {
+
+		private final String text;
+
+		private final boolean definite;
+
+		private Segment(String text, boolean definite) {
+			this.text = text;
+			this.definite = definite;
+		}
+
+		/**
+		 * Passes the elements of the value selected by this segment to the consumer.
+		 */
+		abstract void select(Object value, Consumer<Object> consumer);
+
+	}
+
+	private static final class Field extends Segment {
+
+		private final String name;
+
+		private Field(String text, String name) {
+			super(text, true);
+			this.name = name;
+		}
+
+		@Override
+		void select(Object value, Consumer<Object> consumer) {
+			if (value instanceof Map && ((Map) value).containsKey(this.name)) {
+				consumer.accept(((Map) value).get(this.name));
+			}
+		}
+
+	}
+
+	private static final class Index extends Segment {
+
+		private final int index;
+
+		private Index(String text, int index) {
+			super(text, true);
+			this.index = index;
+		}
+
+		@Override
+		void select(Object value, Consumer<Object> consumer) {
+			if (value instanceof List && this.index < ((List) value).size()) {
+				consumer.accept(((List) value).get(this.index));
+			}
+		}
+
+	}
+
+	private static final class Wildcard extends Segment {
+
+		private Wildcard(String text) {
+			super(text, false);
+		}
+
+		@Override
+		void select(Object value, Consumer<Object> consumer) {
+			if (value instanceof Map) {
+				((Map<?, ?>) value).values().forEach(consumer);
+			}
+			else if (value instanceof List) {
+				((List<?>) value).forEach(consumer);
+			}
+		}
+
+	}
+
+	/**
+	 * Filter that, as in JSON Path, tests a map itself and the elements of an array.
+	 */
+	private static final class Filter extends Segment {
+
+		private final List<Segment> relativePath;
+
+		private final Predicate<Object> condition;
+
+		private Filter(String text, List<Segment> relativePath, Predicate<Object> condition) {
+			super(text, false);
+			this.relativePath = relativePath;
+			this.condition = condition;
+		}
+
+		@Override
+		void select(Object value, Consumer<Object> consumer) {
+			if (value instanceof Map) {
+				test(value, consumer);
+			}
+			else if (value instanceof List) {
+				((List<?>) value).forEach(element -> test(element, consumer));
+			}
+		}
+
+		private void test(Object candidate, Consumer<Object> consumer) {
+			List<Object> values = Collections.singletonList(candidate);
+			for (Segment segment : this.relativePath) {
+				List<Object> selected = new ArrayList<>(1);
+				values.forEach(value -> segment.select(value, selected::add));
+				values = selected;
+			}
+			if (values.size() == 1 && this.condition.test(values.get(0))) {
+				consumer.accept(candidate);
+			}
+		}
+
+	}
+
+	/**
+	 * Parses the JSON paths produced by JSON Assert. Returns {@code null} for anything
+	 * else, in which case the check is left to JSON Assert.
+	 */
+	private static final class PathParser {
+
+		private final String path;
+
+		private int position;
+
+		private PathParser(String path) {
+			this.path = path;
+		}
+
+		private CompiledPath parse() {
+			if (!this.path.startsWith("$")) {
+				return null;
+			}
+			this.position = 1;
+			List<Segment> segments = new ArrayList<>();
+			while (this.position < this.path.length()) {
+				Segment segment = this.path.startsWith("[?(", this.position) ? filter() : segment(this.path);
+				if (segment == null) {
+					return null;
+				}
+				segments.add(segment);
+			}
+			return new CompiledPath(segments);
+		}
+
+		private Segment segment(String text) {
+			int start = this.position;
+			if (text.startsWith(".[", this.position)) {
+				this.position++;
+			}
+			if (!text.startsWith("[", this.position)) {
+				return null;
+			}
+			int end = text.indexOf(']', this.position);
+			if (end == -1) {
+				return null;
+			}
+			String content = text.substring(this.position + 1, end);
+			this.position = end + 1;
+			String segmentText = text.substring(start, this.position);
+			if ("*".equals(content)) {
+				return new Wildcard(segmentText);
+			}
+			else if (content.matches("\\d+")) {
+				return new Index(segmentText, Integer.parseInt(content));
+			}
+			String name = quoted(content);
+			return name != null ? new Field(segmentText, name) : null;
+		}
+
+		/**
+		 * Filters are compiled only as the last segment, in the form of
+		 * {@code [?(@<relative path> <operator> <value>)]}.
+		 */
+		private Segment filter() {
+			String text = this.path.substring(this.position);
+			if (!text.endsWith(")]")) {
+				return null;
+			}
+			String expression = text.substring(3, text.length() - 2).trim();
+			this.position = this.path.length();
+			if (!expression.startsWith("@")) {
+				return null;
+			}
+			PathParser relative = new PathParser(expression);
+			relative.position = 1;
+			List<Segment> relativePath = new ArrayList<>();
+			while (relative.position < expression.length() && expression.charAt(relative.position) != ' ') {
+				Segment segment = relative.segment(expression);
+				if (!(segment instanceof Field || segment instanceof Index)) {
+					return null;
+				}
+				relativePath.add(segment);
+			}
+			String rest = expression.substring(relative.position).trim();
+			if (rest.length() < 3) {
+				return null;
+			}
+			String operator = rest.substring(0, 2);
+			String operand = rest.substring(2).trim();
+			Predicate<Object> condition = "==".equals(operator) ? equalTo(operand)
+					: "=~".equals(operator) ? matching(operand) : null;
+			return condition != null ? new Filter(text, relativePath, condition) : null;
+		}
+
+		private static Predicate<Object> equalTo(String operand) {
+			if ("null".equals(operand)) {
+				return value -> value == null;
+			}
+			else if ("true".equals(operand) || "false".equals(operand)) {
+				Boolean expected = Boolean.valueOf(operand);
+				return expected::equals;
+			}
+			else if (NUMBER.matcher(operand).matches()) {
+				BigDecimal expected = new BigDecimal(operand);
+				return value -> {
+					BigDecimal actual = value instanceof Number ? toBigDecimal((Number) value) : null;
+					return actual != null && expected.compareTo(actual) == 0;
+				};
+			}
+			String expected = quoted(operand);
+			return expected != null ? expected::equals : null;
+		}
+
+		private static Predicate<Object> matching(String operand) {
+			int end = operand.lastIndexOf('/');
+			if (!operand.startsWith("/") || end == 0 || !(end == operand.length() - 1 || operand.endsWith("/i"))) {
+				return null;
+			}
+			try {
+				Pattern pattern = Pattern.compile(operand.substring(1, end),
+						operand.endsWith("/i") ? Pattern.CASE_INSENSITIVE : 0);
+				return value -> value instanceof String && pattern.matcher((String) value).matches();
+			}
+			catch (PatternSyntaxException ex) {
+				return null;
+			}
+		}
+
+		/**
+		 * Escaped strings are left to JSON Assert.
+		 */
+		private static String quoted(String text) {
+			if (text.length() < 2 || text.indexOf('\\') != -1) {
+				return null;
+			}
+			char quote = text.charAt(0);
+			String value = text.substring(1, text.length() - 1);
+			if ((quote != '\'' && quote != '"') || text.charAt(text.length() - 1) != quote
+					|| value.indexOf(quote) != -1) {
+				return null;
+			}
+			return value;
+		}
+
+		private static BigDecimal toBigDecimal(Number number) {
+			try {
+				return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+			}
+			catch (NumberFormatException ex) {
+				return null;
+			}
+		}
+
+	}
+
+}
@@ -88,8 +88,9 @@ class GenericJsonBodyThen implements Then {
 	private void addJsonBodyVerification(SingleContractMetadata contractMetadata, Object responseBody,
 			BodyMatchers bodyMatchers) {
 		JsonBodyVerificationBuilder jsonBodyVerificationBuilder = new JsonBodyVerificationBuilder(
-				this.generatedClassMetaData.configProperties.getAssertJsonSize(), this.templateProcessor,
-				this.contractTemplate, contractMetadata.getContract(), Optional.of(this.blockBuilder.getLineEnding()),
+				this.generatedClassMetaData.configProperties.getAssertJsonSize(),
+				Boolean.TRUE.equals(this.generatedClassMetaData.configProperties.getAssertJsonInSinglePass()),
+				this.templateProcessor, this.contractTemplate, contractMetadata.getContract(), Optional.of(this.blockBuilder.getLineEnding()),
 				bodyParser::postProcessJsonPath);
 		// TODO: Refactor spock from should comment out bdd blocks
 		Object convertedResponseBody = jsonBodyVerificationBuilder.addJsonResponseBodyCheck(this.blockBuilder,
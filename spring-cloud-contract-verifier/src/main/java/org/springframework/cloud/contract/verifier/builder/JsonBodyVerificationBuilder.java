@@ -17,10 +17,13 @@
 package org.springframework.cloud.contract.verifier.builder;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
@@ -40,6 +43,7 @@ import org.springframework.cloud.contract.verifier.template.TemplateProcessor;
 import org.springframework.cloud.contract.verifier.util.JsonPaths;
 import org.springframework.cloud.contract.verifier.util.JsonToJsonPathsConverter;
 import org.springframework.cloud.contract.verifier.util.MapConverter;
+import org.springframework.cloud.contract.verifier.util.MethodBufferingJsonVerifiable;
 
 /**
  * @author Marcin Grzejszczak
@@ -54,8 +58,12 @@ class JsonBodyVerificationBuilder implements BodyMethodGeneration, ClassVerifier
 
 	private static final String FROM_REQUEST_PATH = "path";
 
+	private static final Pattern HAS_SIZE = Pattern.compile(".*\\.hasSize\\((\\d+)\\)$");
+
 	private final boolean assertJsonSize;
 
+	private final boolean assertJsonInSinglePass;
+
 	private final TemplateProcessor templateProcessor;
 
 	private final ContractTemplate contractTemplate;
@@ -70,10 +78,11 @@ class JsonBodyVerificationBuilder implements BodyMethodGeneration, ClassVerifier
 	// Passing way more arguments here than I would like to, but since we are planning a
 	// major
 	// refactoring of this module for Hoxton release, leaving it this way for now
-	JsonBodyVerificationBuilder(boolean assertJsonSize, TemplateProcessor templateProcessor,
-			ContractTemplate contractTemplate, Contract contract, Optional<String> lineSuffix,
-			Function<String, String> postProcessJsonPathCall) {
+	JsonBodyVerificationBuilder(boolean assertJsonSize, boolean assertJsonInSinglePass,
+			TemplateProcessor templateProcessor, ContractTemplate contractTemplate, Contract contract,
+			Optional<String> lineSuffix, Function<String, String> postProcessJsonPathCall) {
 		this.assertJsonSize = assertJsonSize;
+		this.assertJsonInSinglePass = assertJsonInSinglePass;
 		this.templateProcessor = templateProcessor;
 		this.contractTemplate = contractTemplate;
 		this.contract = contract;
@@ -113,18 +122,60 @@ class JsonBodyVerificationBuilder implements BodyMethodGeneration, ClassVerifier
 				.transformToJsonPathWithTestsSideValues(convertedResponseBody, parsingClosure, includeEmptyCheck);
 
 		DocumentContext finalParsedRequestBody = parsedRequestBody;
+		List<String> plannedChecks = new ArrayList<>();
 		jsonPaths.forEach(it -> {
 			String method = it.method();
 			method = processIfTemplateIsPresent(method, finalParsedRequestBody);
+			if (assertJsonInSinglePass && canBePlanned(method)) {
+				plannedChecks.add(postProcessJsonPathCall.apply(plannedCheck(it)));
+				return;
+			}
 			String postProcessedMethod = templateProcessor.containsJsonPathTemplateEntry(method) ? method
 					: postProcessJsonPathCall.apply(method);
 			bb.addLine("assertThatJson(parsedJson)" + postProcessedMethod);
 			addColonIfRequired(lineSuffix, bb);
 		});
+		appendAssertionPlan(bb, plannedChecks);
 		doBodyMatchingIfPresent(bodyMatchers, bb, copiedBody, shouldCommentOutBDDBlocks);
 		return convertedResponseBody;
 	}
 
+	/**
+	 * Entries referencing the request are resolved only when the test gets generated, so
+	 * they're asserted one by one.
+	 */
+	private boolean canBePlanned(String method) {
+		return !templateProcessor.containsTemplateEntry(method) && !method.contains(".isInstanceOf(");
+	}
+
+	private String plannedCheck(MethodBufferingJsonVerifiable verifiable) {
+		String method = verifiable.method();
+		if (method.endsWith(".isEmpty()")) {
+			return ".isEmpty(" + quotedAndEscaped(verifiable.keyBeforeChecking()) + ")";
+		}
+		Matcher size = HAS_SIZE.matcher(method);
+		if (size.matches()) {
+			return ".hasSize(" + quotedAndEscaped(verifiable.keyBeforeChecking()) + ", " + size.group(1) + ")";
+		}
+		return ".matches(" + quotedAndEscaped(verifiable.jsonPath()) + ")";
+	}
+
+	/**
+	 * Appends a single assertion plan that verifies all the planned JSON paths in one
+	 * walk over the parsed JSON.
+	 */
+	private void appendAssertionPlan(BlockBuilder bb, List<String> plannedChecks) {
+		if (plannedChecks.isEmpty()) {
+			return;
+		}
+		bb.addLine("JsonAssertionPlan.of(parsedJson)");
+		bb.indent();
+		plannedChecks.forEach(bb::addLine);
+		bb.addLine(".verify()");
+		addColonIfRequired(lineSuffix, bb);
+		bb.unindent();
+	}
+
 	private boolean mapOrListBodyReducedToEmpty(Object originalBody, Object convertedBody) {
 		int origSize = originalBody instanceof Map ? ((Map) originalBody).size() : -1;
 		int convertedSize = convertedBody instanceof Map ? ((Map) convertedBody).size() : -1;
@@ -28,6 +28,8 @@ class JsonPathImports implements Imports {
 
 	private static final String[] IMPORTS = { "com.jayway.jsonpath.DocumentContext", "com.jayway.jsonpath.JsonPath" };
 
+	private static final String ASSERTION_PLAN_IMPORT = "org.springframework.cloud.contract.verifier.assertion.JsonAssertionPlan";
+
 	JsonPathImports(BlockBuilder blockBuilder, GeneratedClassMetaData generatedClassMetaData) {
 		this.blockBuilder = blockBuilder;
 		this.generatedClassMetaData = generatedClassMetaData;
@@ -36,6 +38,9 @@ class JsonPathImports implements Imports {
 	@Override
 	public Imports call() {
 		Arrays.stream(IMPORTS).forEach(s -> this.blockBuilder.addLineWithEnding("import " + s));
+		if (Boolean.TRUE.equals(this.generatedClassMetaData.configProperties.getAssertJsonInSinglePass())) {
+			this.blockBuilder.addLineWithEnding("import " + ASSERTION_PLAN_IMPORT);
+		}
 		return this;
 	}
 
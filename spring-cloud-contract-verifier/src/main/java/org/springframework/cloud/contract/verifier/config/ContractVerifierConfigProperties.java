@@ -24,6 +24,8 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.cloud.contract.verifier.util.ContractCache;
+
 /**
  * Represents Contract Verifier configuration properties.
  *
@@ -121,6 +123,13 @@ public class ContractVerifierConfigProperties {
 	 */
 	private Boolean assertJsonSize = false;
 
+	/**
+	 * When enabled, all JSON paths of a response body get verified in a single walk over
+	 * the parsed JSON instead of one JSON path query per asserted entry. Failures are
+	 * reported with the same messages. Disabled by default.
+	 */
+	private Boolean assertJsonInSinglePass = false;
+
 	/**
 	 * A regular expression that matches contracts. Especially useful when using a single
 	 * JAR containing all the contracts in the system. In this case you'd like to take
@@ -175,6 +184,24 @@ public class ContractVerifierConfigProperties {
 	 */
 	private boolean failOnInProgress = true;
 
+	/**
+	 * Number of threads used to convert the contracts and to generate the test classes.
+	 * With the default value of {@code 1} everything happens sequentially. The generated
+	 * classes don't depend on that setting.
+	 */
+	private int generationParallelism = 1;
+
+	/**
+	 * Folder in which the converted contracts are kept between builds, so that unchanged
+	 * contracts don't get evaluated again. The cache is disabled when not set.
+	 */
+	private File contractsCacheDir;
+
+	/**
+	 * Maximum number of contract files kept in the {@code contractsCacheDir} folder.
+	 */
+	private int contractsCacheMaxEntries = ContractCache.DEFAULT_MAX_ENTRIES;
+
 	public TestFramework getTestFramework() {
 		return testFramework;
 	}
@@ -311,6 +338,14 @@ public class ContractVerifierConfigProperties {
 		this.assertJsonSize = assertJsonSize;
 	}
 
+	public Boolean getAssertJsonInSinglePass() {
+		return assertJsonInSinglePass;
+	}
+
+	public void setAssertJsonInSinglePass(Boolean assertJsonInSinglePass) {
+		this.assertJsonInSinglePass = assertJsonInSinglePass;
+	}
+
 	public String getIncludedContracts() {
 		return includedContracts;
 	}
@@ -363,4 +398,28 @@ public class ContractVerifierConfigProperties {
 		this.failOnInProgress = failOnInProgress;
 	}
 
+	public int getGenerationParallelism() {
+		return this.generationParallelism;
+	}
+
+	public void setGenerationParallelism(int generationParallelism) {
+		this.generationParallelism = generationParallelism;
+	}
+
+	public File getContractsCacheDir() {
+		return this.contractsCacheDir;
+	}
+
+	public void setContractsCacheDir(File contractsCacheDir) {
+		this.contractsCacheDir = contractsCacheDir;
+	}
+
+	public int getContractsCacheMaxEntries() {
+		return this.contractsCacheMaxEntries;
+	}
+
+	public void setContractsCacheMaxEntries(int contractsCacheMaxEntries) {
+		this.contractsCacheMaxEntries = contractsCacheMaxEntries;
+	}
+
 }
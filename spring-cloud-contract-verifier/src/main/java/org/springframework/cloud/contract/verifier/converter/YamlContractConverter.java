@@ -56,18 +56,7 @@ public class YamlContractConverter implements ContractConverter<List<YamlContrac
 
 	@Override
 	public boolean isAccepted(File file) {
-		String name = file.getName();
-		boolean acceptFile = name.endsWith(".yml") || name.endsWith(".yaml");
-		if (acceptFile) {
-			try {
-				this.yamlToContracts.convertFrom(file);
-			}
-			catch (Exception e) {
-				log.warn("Error Processing yaml file. Skipping Contract Generation ", e);
-				acceptFile = false;
-			}
-		}
-		return acceptFile;
+		return tryConvertFrom(file) != null;
 	}
 
 	@Override
@@ -75,6 +64,21 @@ public class YamlContractConverter implements ContractConverter<List<YamlContrac
 		return this.yamlToContracts.convertFrom(file);
 	}
 
+	@Override
+	public Collection<Contract> tryConvertFrom(File file) {
+		String name = file.getName();
+		if (!name.endsWith(".yml") && !name.endsWith(".yaml")) {
+			return null;
+		}
+		try {
+			return this.yamlToContracts.convertFrom(file);
+		}
+		catch (Exception e) {
+			log.warn("Error Processing yaml file. Skipping Contract Generation ", e);
+			return null;
+		}
+	}
+
 	@Override
 	public List<YamlContract> convertTo(Collection<Contract> contracts) {
 		return this.contractsToYaml.convertTo(contracts);
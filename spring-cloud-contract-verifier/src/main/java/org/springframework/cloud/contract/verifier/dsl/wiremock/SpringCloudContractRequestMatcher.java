@@ -33,6 +33,7 @@ import org.codehaus.plexus.util.StringUtils;
 
 import org.springframework.cloud.contract.verifier.converter.YamlContract;
 import org.springframework.cloud.contract.verifier.converter.YamlContractConverter;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Provides custom matching for WireMock's stub requests.
@@ -51,6 +52,18 @@ public class SpringCloudContractRequestMatcher extends RequestMatcherExtension {
 
 	private static final Log log = LogFactory.getLog(SpringCloudContractRequestMatcher.class);
 
+	/**
+	 * Max number of parsed contracts kept in memory.
+	 */
+	private static final int CONTRACTS_CACHE_SIZE = 256;
+
+	/**
+	 * The contract is stored as YAML in the stub's parameters. Since the same stub is
+	 * matched against every incoming request we parse it only once.
+	 */
+	private final ConcurrentLruCache<String, List<YamlContract>> contracts = new ConcurrentLruCache<>(
+			CONTRACTS_CACHE_SIZE, contract -> YamlContractConverter.INSTANCE.read(contract.getBytes()));
+
 	@Override
 	public MatchResult match(Request request, Parameters parameters) {
 		if (!parameters.containsKey("contract") || !parameters.containsKey("tool")) {
@@ -66,7 +79,7 @@ public class SpringCloudContractRequestMatcher extends RequestMatcherExtension {
 		String string = parameters.getString("contract");
 		List<YamlContract> contracts;
 		try {
-			contracts = YamlContractConverter.INSTANCE.read(string.getBytes());
+			contracts = this.contracts.get(string);
 		}
 		catch (Exception e) {
 			if (log.isWarnEnabled()) {
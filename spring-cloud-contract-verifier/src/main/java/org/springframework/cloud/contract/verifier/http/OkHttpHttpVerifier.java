@@ -17,12 +17,14 @@
 package org.springframework.cloud.contract.verifier.http;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import okhttp3.Headers;
@@ -30,11 +32,19 @@ import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.RequestBody;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 /**
  * {@link HttpVerifier} implementation that uses {@link OkHttpClient}. Has an inbuilt
  * support for GRPC.
  *
+ * All exchanges go through clients derived from a single base client, one per set of
+ * protocols, so they share its connection pool and dispatcher. That way connections
+ * (including TLS sessions and HTTP/2 connections that multiplex requests) are kept alive
+ * and reused between the generated tests. Pass your own base client to change the pool,
+ * the timeouts or the TLS setup.
+ *
  * Warning! This API is experimental and can change in time.
  *
  * @author Marcin Grzejszczak
@@ -42,20 +52,72 @@ import okhttp3.RequestBody;
  */
 public class OkHttpHttpVerifier implements HttpVerifier {
 
+	private static final Log log = LogFactory.getLog(OkHttpHttpVerifier.class);
+
+	/**
+	 * Base client used when none was passed. Shared between all instances, so that
+	 * connections to the same application get reused.
+	 */
+	private static final OkHttpClient DEFAULT_CLIENT = new OkHttpClient();
+
 	private final String hostAndPort;
 
+	private final OkHttpClient baseClient;
+
+	private final ExchangeListener exchangeListener;
+
+	private final Map<List<Protocol>, OkHttpClient> clients = new ConcurrentHashMap<>();
+
 	/**
 	 * @param hostAndPort - don't pass the scheme, it will be resolved from
 	 * {@link Request#scheme()}. E.g. pass {@code localhost:1234}.
 	 */
 	public OkHttpHttpVerifier(String hostAndPort) {
+		this(hostAndPort, DEFAULT_CLIENT);
+	}
+
+	/**
+	 * @param hostAndPort - don't pass the scheme, it will be resolved from
+	 * {@link Request#scheme()}. E.g. pass {@code localhost:1234}.
+	 * @param baseClient - client whose connection pool, dispatcher and settings will be
+	 * used for all exchanges. The protocols are always set from {@link Request#protocol()}
+	 */
+	public OkHttpHttpVerifier(String hostAndPort, OkHttpClient baseClient) {
+		this(hostAndPort, baseClient, ExchangeListener.LOGGING);
+	}
+
+	/**
+	 * @param hostAndPort - don't pass the scheme, it will be resolved from
+	 * {@link Request#scheme()}. E.g. pass {@code localhost:1234}.
+	 * @param baseClient - client whose connection pool, dispatcher and settings will be
+	 * used for all exchanges. The protocols are always set from {@link Request#protocol()}
+	 * @param exchangeListener - gets notified about the duration of each exchange, both
+	 * successful and failed
+	 */
+	public OkHttpHttpVerifier(String hostAndPort, OkHttpClient baseClient, ExchangeListener exchangeListener) {
 		this.hostAndPort = hostAndPort;
+		this.baseClient = baseClient;
+		this.exchangeListener = exchangeListener;
 	}
 
 	@Override
 	public Response exchange(Request request) {
+		long start = System.nanoTime();
+		Response response;
+		try {
+			response = doExchange(request);
+		}
+		catch (RuntimeException ex) {
+			this.exchangeListener.onFailure(request, ex, Duration.ofNanos(System.nanoTime() - start));
+			throw ex;
+		}
+		this.exchangeListener.onExchange(request, response, Duration.ofNanos(System.nanoTime() - start));
+		return response;
+	}
+
+	private Response doExchange(Request request) {
 		String requestContentType = request.contentType();
-		OkHttpClient client = new OkHttpClient.Builder().protocols(toProtocol(request.protocol().toString())).build();
+		OkHttpClient client = client(toProtocol(request.protocol().toString()));
 		Map<String, String> headers = stringTyped(request.headers());
 		if (!request.cookies().isEmpty()) {
 			headers.put("Set-Cookie", request.cookies().entrySet().stream()
@@ -72,6 +134,10 @@ public class OkHttpHttpVerifier implements HttpVerifier {
 		}
 	}
 
+	private OkHttpClient client(List<Protocol> protocols) {
+		return this.clients.computeIfAbsent(protocols, p -> this.baseClient.newBuilder().protocols(p).build());
+	}
+
 	private String url(Request request) {
 		String url = request.scheme().name().toLowerCase() + ":" + this.hostAndPort
 				+ (request.path().startsWith("/") ? request.path() : "/" + request.path());
@@ -135,4 +201,45 @@ public class OkHttpHttpVerifier implements HttpVerifier {
 		return headers.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()));
 	}
 
+	/**
+	 * Callback invoked after each exchange. Can be used to find slow or failing
+	 * endpoints.
+	 */
+	@FunctionalInterface
+	public interface ExchangeListener {
+
+		/**
+		 * Logs the duration of each exchange at debug level.
+		 */
+		ExchangeListener LOGGING = (request, response, duration) -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Exchange [" + request.method().name() + " " + request.path() + "] returned status ["
+						+ response.statusCode() + "] and took [" + duration.toMillis() + "] ms");
+			}
+		};
+
+		/**
+		 * @param request - sent request
+		 * @param response - received response
+		 * @param duration - time between sending the request and reading the whole
+		 * response
+		 */
+		void onExchange(Request request, Response response, Duration duration);
+
+		/**
+		 * Called when no response was received, e.g. the connection failed. Logs the
+		 * failure at debug level by default.
+		 * @param request - sent request
+		 * @param failure - exception thrown by the exchange
+		 * @param duration - time between sending the request and the failure
+		 */
+		default void onFailure(Request request, Throwable failure, Duration duration) {
+			if (log.isDebugEnabled()) {
+				log.debug("Exchange [" + request.method().name() + " " + request.path() + "] failed after ["
+						+ duration.toMillis() + "] ms", failure);
+			}
+		}
+
+	}
+
 }
@@ -33,6 +33,7 @@ import org.springframework.cloud.contract.spec.internal.CompositeContractTemplat
 import org.springframework.cloud.contract.spec.internal.Request;
 import org.springframework.cloud.contract.verifier.builder.TestSideRequestTemplateModel;
 import org.springframework.cloud.contract.verifier.builder.handlebars.HandlebarsJsonPathHelper;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Default Handlebars template processor.
@@ -59,6 +60,17 @@ public class HandlebarsTemplateProcessor implements TemplateProcessor, ContractT
 
 	private static final String JSON_PATH_TEMPLATE_NAME = WireMockHelpers.jsonPath.name();
 
+	private static final int TEMPLATES_CACHE_SIZE = 256;
+
+	/**
+	 * Handlebars is thread safe once its helpers are registered, so a single, fully
+	 * configured engine is shared by all the processors.
+	 */
+	private static final Handlebars HANDLEBARS = handlebars();
+
+	private static final ConcurrentLruCache<String, Template> TEMPLATES = new ConcurrentLruCache<>(
+			TEMPLATES_CACHE_SIZE, HandlebarsTemplateProcessor::uncheckedCompileTemplate);
+
 	private final ContractTemplate contractTemplate = new CompositeContractTemplate();
 
 	@Override
@@ -66,7 +78,7 @@ public class HandlebarsTemplateProcessor implements TemplateProcessor, ContractT
 		TestSideRequestTemplateModel templateModel = TestSideRequestTemplateModel.from(request);
 		Map<String, TestSideRequestTemplateModel> model = Collections
 				.singletonMap(HandlebarsJsonPathHelper.REQUEST_MODEL_NAME, templateModel);
-		Template bodyTemplate = uncheckedCompileTemplate(testContents);
+		Template bodyTemplate = TEMPLATES.get(testContents);
 		return templatedResponseBody(model, bodyTemplate);
 	}
 
@@ -112,14 +124,18 @@ public class HandlebarsTemplateProcessor implements TemplateProcessor, ContractT
 		}
 	}
 
-	private Template uncheckedCompileTemplate(String content) {
+	private static Handlebars handlebars() {
+		Handlebars handlebars = new Handlebars();
+		handlebars.registerHelper(HandlebarsJsonPathHelper.NAME, new HandlebarsJsonPathHelper());
+		handlebars.registerHelper(WireMockHelpers.jsonPath.name(), new HandlebarsJsonPathHelper());
+		Arrays.stream(WireMockHelpers.values()).filter(helper -> !helper.equals(WireMockHelpers.jsonPath))
+				.forEach(helper -> handlebars.registerHelper(helper.name(), helper));
+		return handlebars;
+	}
+
+	private static Template uncheckedCompileTemplate(String content) {
 		try {
-			final Handlebars handlebars = new Handlebars();
-			handlebars.registerHelper(HandlebarsJsonPathHelper.NAME, new HandlebarsJsonPathHelper());
-			handlebars.registerHelper(WireMockHelpers.jsonPath.name(), new HandlebarsJsonPathHelper());
-			Arrays.stream(WireMockHelpers.values()).filter(helper -> !helper.equals(WireMockHelpers.jsonPath))
-					.forEach(helper -> handlebars.registerHelper(helper.name(), helper));
-			return handlebars.compileInline(content);
+			return HANDLEBARS.compileInline(content);
 		}
 		catch (IOException e) {
 			throw new RuntimeException(e);
@@ -16,11 +16,32 @@
 
 package org.springframework.cloud.contract.verifier.util;
 
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.contract.spec.internal.DslProperty;
+import org.springframework.cloud.contract.spec.internal.RegexProperty;
 import org.springframework.util.SerializationUtils;
 
 /**
  * Creates a clone.
  *
+ * JSON like structures (maps, lists, arrays, simple values and DSL properties) are copied
+ * structurally. Immutable values are not copied at all. Any other object gets cloned via
+ * a serialization round trip.
+ *
  * @author Marcin Grzejszczak
  * @since 2.2.0
  */
@@ -36,8 +57,85 @@ public final class CloneUtils {
 	 * @return a clone of the object
 	 */
 	public static Object clone(Object object) {
-		byte[] serializedObject = SerializationUtils.serialize(object);
-		return SerializationUtils.deserialize(serializedObject);
+		if (isImmutable(object)) {
+			return object;
+		}
+		Class<?> type = object.getClass();
+		if (type == LinkedHashMap.class || type == HashMap.class || type == TreeMap.class) {
+			return copyMap((Map<?, ?>) object);
+		}
+		else if (type == ArrayList.class || type == LinkedList.class || type == LinkedHashSet.class
+				|| type == HashSet.class) {
+			return copyCollection((Collection<?>) object);
+		}
+		else if (type.isArray()) {
+			return copyArray(object);
+		}
+		else if (type == DslProperty.class) {
+			DslProperty<?> property = (DslProperty<?>) object;
+			return new DslProperty<>(clone(property.getClientValue()), clone(property.getServerValue()));
+		}
+		return SerializationUtils.deserialize(SerializationUtils.serialize(object));
+	}
+
+	private static boolean isImmutable(Object object) {
+		return object == null || object instanceof String || object instanceof Boolean || object instanceof Character
+				|| object instanceof Integer || object instanceof Long || object instanceof Double
+				|| object instanceof Float || object instanceof Short || object instanceof Byte
+				|| object instanceof BigDecimal || object instanceof BigInteger || object instanceof Enum
+				|| object instanceof Pattern || object.getClass() == RegexProperty.class;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> copyMap(Map<?, ?> source) {
+		Map<Object, Object> target;
+		if (source instanceof TreeMap) {
+			target = new TreeMap<>((Comparator<Object>) ((TreeMap<?, ?>) source).comparator());
+		}
+		else if (source instanceof LinkedHashMap) {
+			target = new LinkedHashMap<>(capacity(source.size()));
+		}
+		else {
+			target = new HashMap<>(capacity(source.size()));
+		}
+		source.forEach((key, value) -> target.put(clone(key), clone(value)));
+		return target;
+	}
+
+	private static Collection<Object> copyCollection(Collection<?> source) {
+		Collection<Object> target;
+		if (source instanceof ArrayList) {
+			target = new ArrayList<>(source.size());
+		}
+		else if (source instanceof LinkedList) {
+			target = new LinkedList<>();
+		}
+		else if (source instanceof LinkedHashSet) {
+			target = new LinkedHashSet<>(capacity(source.size()));
+		}
+		else {
+			target = new HashSet<>(capacity(source.size()));
+		}
+		source.forEach(element -> target.add(clone(element)));
+		return target;
+	}
+
+	private static int capacity(int size) {
+		return Math.max((int) (size / 0.75f) + 1, 16);
+	}
+
+	private static Object copyArray(Object source) {
+		int length = Array.getLength(source);
+		Class<?> componentType = source.getClass().getComponentType();
+		Object target = Array.newInstance(componentType, length);
+		if (componentType.isPrimitive()) {
+			System.arraycopy(source, 0, target, 0, length);
+			return target;
+		}
+		for (int i = 0; i < length; i++) {
+			Array.set(target, i, clone(Array.get(source, i)));
+		}
+		return target;
 	}
 
 }
@@ -0,0 +1,563 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import groovy.lang.GString;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.groovy.runtime.GStringImpl;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.ContractConverter;
+import org.springframework.cloud.contract.spec.internal.FromFileProperty;
+
+/**
+ * On-disk cache of converted contracts, so that unchanged contract files don't have to
+ * be compiled or evaluated again. The folder can be kept in the build directory or shared
+ * by many builds and JVMs.
+ *
+ * An entry is keyed by the path of the contract file, the content of all files in the
+ * folder of the contract (that folder is on the classpath of the evaluated contract), the
+ * checksums of the jars or class folders of the contract model and of the available
+ * contract converters. Files that the converted contracts reference via
+ * {@link FromFileProperty} (e.g. {@code file("../bodies/foo.json")}) are stored with
+ * their checksums in the entry and the entry is ignored when any of them changed.
+ * Changes to other files that the contracts read while being evaluated (e.g. shared
+ * helper classes in other folders or on the test classpath) are not detected - the cache
+ * folder has to be removed then.
+ *
+ * Files for which no converter was applicable are cached too. Contracts that can't be
+ * serialized are not cached and entries that can't be read are treated as missing. Only
+ * the classes of the contract model, JDK collections, boxed primitives and strings are
+ * read from the entries, anything else makes the entry invalid. The least recently used
+ * entries above the size limit get removed by {@link #evict()}.
+ *
+ * Checksums of the folders are computed once per instance, so a new instance should be
+ * created for each scan of the contracts.
+ *
+ * @since 3.0.1
+ */
+public final class ContractCache {
+
+	/**
+	 * Default maximum number of cached contract files.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	private static final Log log = LogFactory.getLog(ContractCache.class);
+
+	/**
+	 * Version of the layout of the entries.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String ENTRY_SUFFIX = ".bin";
+
+	private static final String STAGING_PREFIX = ".staging-";
+
+	private static final String MODEL_PACKAGE = Contract.class.getPackage().getName() + ".";
+
+	private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(String.class.getName(),
+			Boolean.class.getName(), Byte.class.getName(), Character.class.getName(), Short.class.getName(),
+			Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+			Number.class.getName(), Enum.class.getName(), BigDecimal.class.getName(), BigInteger.class.getName(),
+			ArrayList.class.getName(), LinkedList.class.getName(), HashMap.class.getName(),
+			LinkedHashMap.class.getName(), TreeMap.class.getName(), HashSet.class.getName(),
+			LinkedHashSet.class.getName(), TreeSet.class.getName(), Arrays.asList().getClass().getName(),
+			Random.class.getName(), Pattern.class.getName(), File.class.getName(), GString.class.getName(),
+			GStringImpl.class.getName()));
+
+	/**
+	 * Empty, singleton and unmodifiable collections.
+	 */
+	private static final String COLLECTIONS_PREFIX = Collections.class.getName() + "$";
+
+	/**
+	 * Checksums of the jars and class folders, computed once per JVM.
+	 */
+	private static final Map<String, String> CODE_SOURCE_CHECKSUMS = new ConcurrentHashMap<>();
+
+	private final Path cacheDir;
+
+	private final int maxEntries;
+
+	private final String fingerprint;
+
+	private final Map<Path, String> folderChecksums = new ConcurrentHashMap<>();
+
+	private final Map<Path, String> fileChecksums = new ConcurrentHashMap<>();
+
+	/**
+	 * @param cacheDir folder in which the converted contracts are stored
+	 * @param maxEntries maximum number of cached contract files
+	 * @param converters converters used to convert the contract files
+	 */
+	public ContractCache(File cacheDir, int maxEntries, Collection<? extends ContractConverter> converters) {
+		this.cacheDir = cacheDir.toPath().toAbsolutePath();
+		this.maxEntries = maxEntries;
+		this.fingerprint = fingerprint(converters);
+	}
+
+	/**
+	 * The implementation version is not set when running from classes and is the same
+	 * for all snapshots, so the code of the model and of the converters is checksummed.
+	 * @return fingerprint of the entries or {@code null} if the code can't be checksummed
+	 */
+	private static String fingerprint(Collection<? extends ContractConverter> converters) {
+		List<Class<?>> classes = new ArrayList<>();
+		classes.add(Contract.class);
+		classes.add(ContractCache.class);
+		converters.forEach(converter -> classes.add(converter.getClass()));
+		StringBuilder fingerprint = new StringBuilder("v").append(FORMAT_VERSION);
+		for (Class<?> type : classes) {
+			String checksum = codeSourceChecksum(type);
+			if (checksum == null) {
+				log.warn("Failed to compute the checksum of the code of [" + type.getName()
+						+ "]. The contracts will not be cached");
+				return null;
+			}
+			fingerprint.append("|").append(type.getName()).append("=").append(checksum);
+		}
+		return fingerprint.toString();
+	}
+
+	/**
+	 * Returns the cached contracts of the file or converts the file and stores the result
+	 * if the file is not in the cache.
+	 * @param file contract file
+	 * @param conversion converts the file, returns {@code null} if no converter was
+	 * applicable
+	 * @return converted contracts or {@code null} if no converter was applicable
+	 */
+	public Collection<Contract> computeIfAbsent(File file, Function<File, Collection<Contract>> conversion) {
+		Path entry = entry(file);
+		if (entry == null) {
+			return conversion.apply(file);
+		}
+		Cached cached = read(entry);
+		if (cached != null) {
+			if (log.isDebugEnabled()) {
+				log.debug("Contract file [" + file + "] was read from the cache [" + entry + "]");
+			}
+			return cached.contracts;
+		}
+		Collection<Contract> contracts = conversion.apply(file);
+		write(entry, file, contracts);
+		return contracts;
+	}
+
+	/**
+	 * Removes the least recently used entries above the size limit.
+	 */
+	public void evict() {
+		if (!Files.isDirectory(this.cacheDir)) {
+			return;
+		}
+		List<Path> entries = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.cacheDir, "*" + ENTRY_SUFFIX)) {
+			stream.forEach(entries::add);
+		}
+		catch (IOException ex) {
+			log.warn("Failed to list the entries of the contracts cache [" + this.cacheDir + "]", ex);
+			return;
+		}
+		if (entries.size() <= this.maxEntries) {
+			return;
+		}
+		entries.sort(Comparator.comparing(ContractCache::lastModified));
+		for (Path entry : entries.subList(0, entries.size() - this.maxEntries)) {
+			try {
+				Files.deleteIfExists(entry);
+			}
+			catch (IOException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Failed to remove [" + entry + "] from the contracts cache", ex);
+				}
+			}
+		}
+	}
+
+	private Path entry(File file) {
+		if (this.fingerprint == null) {
+			return null;
+		}
+		try {
+			Path path = file.toPath().toAbsolutePath().normalize();
+			String folderChecksum = this.folderChecksums.computeIfAbsent(path.getParent(),
+					ContractCache::folderChecksum);
+			MessageDigest digest = digest();
+			digest.update((this.fingerprint + "|" + path + "|" + folderChecksum).getBytes(StandardCharsets.UTF_8));
+			return this.cacheDir.resolve(hex(digest.digest()) + ENTRY_SUFFIX);
+		}
+		catch (IllegalStateException ex) {
+			log.warn("Failed to compute the cache key of [" + file + "]. The file will not be cached", ex);
+			return null;
+		}
+	}
+
+	private Cached read(Path entry) {
+		try (InputStream input = new BufferedInputStream(Files.newInputStream(entry))) {
+			DataInputStream header = new DataInputStream(input);
+			boolean converted = header.readBoolean();
+			int referencedFiles = header.readInt();
+			for (int i = 0; i < referencedFiles; i++) {
+				Path referencedFile = Paths.get(header.readUTF());
+				String checksum = header.readUTF();
+				if (!checksum.equals(this.fileChecksums.computeIfAbsent(referencedFile, ContractCache::fileChecksum))) {
+					if (log.isDebugEnabled()) {
+						log.debug("The file [" + referencedFile + "] referenced by the cache entry [" + entry
+								+ "] changed. Will convert the contract again");
+					}
+					return null;
+				}
+			}
+			Collection<Contract> contracts = null;
+			if (converted) {
+				ObjectInputStream stream = new ClassLoaderAwareObjectInputStream(input);
+				@SuppressWarnings("unchecked")
+				Collection<Contract> read = (Collection<Contract>) stream.readObject();
+				contracts = read;
+			}
+			touch(entry);
+			return new Cached(contracts);
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		catch (Exception ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to read the cache entry [" + entry + "]. Will convert the contract again", ex);
+			}
+			return null;
+		}
+	}
+
+	private void write(Path entry, File file, Collection<Contract> contracts) {
+		Path staging = null;
+		try {
+			ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+			Set<Path> referencedFiles = new TreeSet<>();
+			if (contracts != null) {
+				try (ReferencedFilesObjectOutputStream stream = new ReferencedFilesObjectOutputStream(serialized)) {
+					stream.writeObject(new ArrayList<>(contracts));
+					referencedFiles.addAll(stream.referencedFiles);
+				}
+			}
+			Files.createDirectories(this.cacheDir);
+			staging = Files.createTempFile(this.cacheDir, STAGING_PREFIX, ".tmp");
+			try (DataOutputStream stream = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(staging)))) {
+				stream.writeBoolean(contracts != null);
+				stream.writeInt(referencedFiles.size());
+				for (Path referencedFile : referencedFiles) {
+					String checksum = this.fileChecksums.computeIfAbsent(referencedFile, ContractCache::fileChecksum);
+					stream.writeUTF(referencedFile.toString());
+					stream.writeUTF(checksum);
+				}
+				serialized.writeTo(stream);
+			}
+			Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex) {
+			// e.g. a value of the contract is not serializable
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to store the contract file [" + file + "] in the cache", ex);
+			}
+		}
+		finally {
+			deleteQuietly(staging);
+		}
+	}
+
+	private static String folderChecksum(Path folder) {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, Files::isRegularFile)) {
+			stream.forEach(files::add);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+		MessageDigest digest = digest();
+		for (Path file : files) {
+			digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+			try {
+				update(digest, file);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+		return hex(digest.digest());
+	}
+
+	/**
+	 * @return checksum of the file or an empty string if the file can't be read
+	 */
+	private static String fileChecksum(Path file) {
+		MessageDigest digest = digest();
+		try {
+			update(digest, file);
+		}
+		catch (IOException ex) {
+			return "";
+		}
+		return hex(digest.digest());
+	}
+
+	private static String codeSourceChecksum(Class<?> type) {
+		CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+		if (codeSource == null || codeSource.getLocation() == null) {
+			return null;
+		}
+		String location = codeSource.getLocation().toString();
+		String checksum = CODE_SOURCE_CHECKSUMS.computeIfAbsent(location, ContractCache::codeSourceChecksum);
+		return checksum.isEmpty() ? null : checksum;
+	}
+
+	/**
+	 * Jars are checksummed by their content, class folders by the names, sizes and
+	 * modification times of their files.
+	 * @return checksum of the code source or an empty string if it can't be read
+	 */
+	private static String codeSourceChecksum(String location) {
+		try {
+			Path path = Paths.get(new URI(location));
+			if (!Files.isDirectory(path)) {
+				return fileChecksum(path);
+			}
+			MessageDigest digest = digest();
+			try (Stream<Path> files = Files.walk(path)) {
+				files.filter(Files::isRegularFile).sorted().forEach(file -> {
+					try {
+						digest.update((path.relativize(file) + "|" + Files.size(file) + "|"
+								+ Files.getLastModifiedTime(file).toMillis()).getBytes(StandardCharsets.UTF_8));
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+			}
+			return hex(digest.digest());
+		}
+		catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException | IOException
+				| UncheckedIOException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to compute the checksum of [" + location + "]", ex);
+			}
+			return "";
+		}
+	}
+
+	private static void update(MessageDigest digest, Path file) throws IOException {
+		byte[] buffer = new byte[8192];
+		try (InputStream stream = Files.newInputStream(file)) {
+			for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+		}
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder();
+		for (byte b : bytes) {
+			builder.append(String.format("%02x", b));
+		}
+		return builder.toString();
+	}
+
+	private static void touch(Path entry) {
+		try {
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException ex) {
+			// the entry might have been evicted in the meantime
+		}
+	}
+
+	private static FileTime lastModified(Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		}
+		catch (IOException ex) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		if (path == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to delete [" + path + "]", ex);
+			}
+		}
+	}
+
+	/**
+	 * Result of a conversion stored in the cache.
+	 */
+	private static final class Cached {
+
+		private final Collection<Contract> contracts;
+
+		private Cached(Collection<Contract> contracts) {
+			this.contracts = contracts;
+		}
+
+	}
+
+	/**
+	 * Collects the files referenced by the written contracts.
+	 */
+	private static final class ReferencedFilesObjectOutputStream extends ObjectOutputStream {
+
+		private final Set<Path> referencedFiles = new HashSet<>();
+
+		private ReferencedFilesObjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) {
+			if (obj instanceof FromFileProperty) {
+				this.referencedFiles.add(((FromFileProperty) obj).getFile().toPath().toAbsolutePath().normalize());
+			}
+			return obj;
+		}
+
+	}
+
+	/**
+	 * Build plugins load the contract classes in their own class loader. Only the classes
+	 * that the contract model consists of are resolved.
+	 */
+	private static final class ClassLoaderAwareObjectInputStream extends ObjectInputStream {
+
+		private ClassLoaderAwareObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (!isAllowed(desc.getName())) {
+				throw new InvalidClassException(desc.getName(), "Class is not allowed in the contracts cache");
+			}
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			if (classLoader != null) {
+				try {
+					return Class.forName(desc.getName(), false, classLoader);
+				}
+				catch (ClassNotFoundException ex) {
+					// fall back to the class loader of this class
+				}
+			}
+			try {
+				return Class.forName(desc.getName(), false, ContractCache.class.getClassLoader());
+			}
+			catch (ClassNotFoundException ex) {
+				return super.resolveClass(desc);
+			}
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+			throw new InvalidClassException("Proxy classes are not allowed in the contracts cache");
+		}
+
+		private static boolean isAllowed(String className) {
+			String name = className;
+			if (name.startsWith("[")) {
+				// arrays of primitives or of allowed classes
+				name = name.substring(name.lastIndexOf('[') + 1);
+				if (name.length() == 1) {
+					return true;
+				}
+				name = name.substring(1, name.length() - 1);
+			}
+			return name.startsWith(MODEL_PACKAGE) || name.startsWith(COLLECTIONS_PREFIX)
+					|| ALLOWED_CLASSES.contains(name);
+		}
+
+	}
+
+}
@@ -20,10 +20,14 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -66,34 +70,71 @@ public final class ContractScanner {
 	 * @return collection of converted contracts
 	 */
 	public static Collection<Contract> collectContractDescriptors(File rootDirectory, Predicate<File> predicate) {
-		try {
-			return Files.walk(rootDirectory.toPath()).map(Path::toFile).filter(file -> !file.isDirectory())
-					.filter(predicate).map(ContractScanner::doCollectContractDescriptors).flatMap(Collection::stream)
-					.collect(Collectors.toList());
+		return collectContractDescriptors(rootDirectory, predicate,
+				SpringFactoriesLoader.loadFactories(ContractConverter.class, null));
+	}
+
+	/**
+	 * Traverses through the directories, applies the given converters to files that match
+	 * them and converts the files to {@link Contract}. Filters out files not matching a
+	 * predicate. Each file gets parsed at most once per converter.
+	 * @param rootDirectory - directory to traverse through
+	 * @param predicate - test applied against a file
+	 * @param converters - converters to apply, the YAML converter is always applied last
+	 * @return collection of converted contracts
+	 * @since 3.0.1
+	 */
+	public static Collection<Contract> collectContractDescriptors(File rootDirectory, Predicate<File> predicate,
+			List<ContractConverter> converters) {
+		return collectContractDescriptors(rootDirectory, predicate, converters, null);
+	}
+
+	/**
+	 * Traverses through the directories, applies the given converters to files that match
+	 * them and converts the files to {@link Contract}. Filters out files not matching a
+	 * predicate. Files that are present in the cache don't get converted again.
+	 * @param rootDirectory - directory to traverse through
+	 * @param predicate - test applied against a file
+	 * @param converters - converters to apply, the YAML converter is always applied last
+	 * @param cache - cache of the converted contracts, can be {@code null}
+	 * @return collection of converted contracts
+	 * @since 3.0.1
+	 */
+	public static Collection<Contract> collectContractDescriptors(File rootDirectory, Predicate<File> predicate,
+			List<ContractConverter> converters, ContractCache cache) {
+		List<ContractConverter> convertersWithYml = new ArrayList<>(converters);
+		convertersWithYml.add(YamlContractConverter.INSTANCE);
+		try (Stream<Path> paths = Files.walk(rootDirectory.toPath())) {
+			return paths.map(Path::toFile).filter(file -> !file.isDirectory()).filter(predicate)
+					.map(file -> cache != null
+							? cache.computeIfAbsent(file,
+									f -> doCollectContractDescriptors(f, convertersWithYml))
+							: doCollectContractDescriptors(file, convertersWithYml))
+					.filter(Objects::nonNull).flatMap(Collection::stream).collect(Collectors.toList());
 		}
 		catch (IOException e) {
 			log.warn("Exception occurred while trying to parse file", e);
 			return Collections.emptyList();
 		}
+		finally {
+			if (cache != null) {
+				cache.evict();
+			}
+		}
 	}
 
-	private static Collection<Contract> doCollectContractDescriptors(File file) {
+	@SuppressWarnings("unchecked")
+	private static Collection<Contract> doCollectContractDescriptors(File file, List<ContractConverter> converters) {
 		if (isContractDescriptor(file)) {
 			return ContractVerifierDslConverter.convertAsCollection(file.getParentFile(), file);
 		}
-		ContractConverter<?> converter = contractConverter(file);
-		if (converter != null && converter.isAccepted(file)) {
-			return converter.convertFrom(file);
-		}
-		if (YamlContractConverter.INSTANCE.isAccepted(file)) {
-			return YamlContractConverter.INSTANCE.convertFrom(file);
+		for (ContractConverter converter : converters) {
+			Collection<Contract> contracts = converter.tryConvertFrom(file);
+			if (contracts != null) {
+				return contracts;
+			}
 		}
-		return Collections.emptyList();
-	}
-
-	private static ContractConverter<?> contractConverter(File file) {
-		return SpringFactoriesLoader.loadFactories(ContractConverter.class, null).stream()
-				.filter(converter -> converter.isAccepted(file)).findFirst().orElse(null);
+		return null;
 	}
 
 	private static boolean isContractDescriptor(File file) {
@@ -20,8 +20,6 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.wst.xml.xpath2.processor.DOMLoader;
 import org.eclipse.wst.xml.xpath2.processor.XercesLoader;
@@ -36,7 +34,16 @@ import org.w3c.dom.Document;
  */
 public final class XmlAssertion {
 
-	private static final Map<String, XmlCachedObjects> CACHE = new ConcurrentHashMap<>();
+	/**
+	 * System property with the maximum number of parsed XML documents kept in memory.
+	 * Setting it to {@code 0} turns off caching.
+	 */
+	public static final String CACHE_SIZE_SYSTEM_PROP = "spring.cloud.contract.verifier.xml.cache-size";
+
+	static final int DEFAULT_CACHE_SIZE = 256;
+
+	private static final XmlCache CACHE = new XmlCache(
+			Integer.getInteger(CACHE_SIZE_SYSTEM_PROP, DEFAULT_CACHE_SIZE));
 
 	private final XmlCachedObjects cachedObjects;
 
@@ -51,20 +58,19 @@ public final class XmlAssertion {
 	}
 
 	private XmlAssertion(String xml) {
-		XmlCachedObjects cachedObjects = CACHE.get(xml);
-		if (cachedObjects == null && !empty(xml)) {
-			try {
-				InputStream inputXml = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
-				DOMLoader loader = new XercesLoader();
-				Document document = loader.load(inputXml);
-				cachedObjects = new XmlCachedObjects(document, xml);
-			}
-			catch (Exception e) {
-				throw new IllegalStateException("Exception occurred while trying to parse the XML", e);
-			}
-			CACHE.put(xml, cachedObjects);
+		this.cachedObjects = empty(xml) ? null : CACHE.get(xml, XmlAssertion::parse);
+	}
+
+	private static XmlCachedObjects parse(String xml) {
+		try {
+			InputStream inputXml = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+			DOMLoader loader = new XercesLoader();
+			Document document = loader.load(inputXml);
+			return new XmlCachedObjects(document, xml);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Exception occurred while trying to parse the XML", e);
 		}
-		this.cachedObjects = cachedObjects;
 	}
 
 	/**
@@ -105,6 +111,20 @@ public final class XmlAssertion {
 		return assertThat(parsedXml);
 	}
 
+	/**
+	 * Removes all parsed XML documents from the cache.
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+	}
+
+	/**
+	 * @return statistics of the cache of parsed XML documents
+	 */
+	public static CacheStatistics cacheStatistics() {
+		return CACHE.statistics();
+	}
+
 	private boolean empty(String text) {
 		return text == null || text.length() == 0 || text.matches("^\\s*$");
 	}
@@ -114,4 +134,55 @@ public final class XmlAssertion {
 				this.xmlAsserterConfiguration).node("");
 	}
 
+	/**
+	 * Snapshot of the statistics of the cache of parsed XML documents.
+	 */
+	public static final class CacheStatistics {
+
+		private final int size;
+
+		private final int maxSize;
+
+		private final long hits;
+
+		private final long misses;
+
+		private final long evictions;
+
+		CacheStatistics(int size, int maxSize, long hits, long misses, long evictions) {
+			this.size = size;
+			this.maxSize = maxSize;
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+		}
+
+		public int getSize() {
+			return this.size;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public long getHits() {
+			return this.hits;
+		}
+
+		public long getMisses() {
+			return this.misses;
+		}
+
+		public long getEvictions() {
+			return this.evictions;
+		}
+
+		@Override
+		public String toString() {
+			return "CacheStatistics{" + "size=" + this.size + ", maxSize=" + this.maxSize + ", hits=" + this.hits
+					+ ", misses=" + this.misses + ", evictions=" + this.evictions + '}';
+		}
+
+	}
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util.xml;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Least recently used cache of parsed XML documents. The parsing happens outside of the
+ * lock, so concurrent assertions of different documents don't wait for each other.
+ *
+ * @since 3.0.1
+ */
+class XmlCache {
+
+	private final int maxSize;
+
+	private final Map<String, XmlCachedObjects> cache;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	XmlCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.cache = new LinkedHashMap<String, XmlCachedObjects>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, XmlCachedObjects> eldest) {
+				boolean remove = size() > XmlCache.this.maxSize;
+				if (remove) {
+					XmlCache.this.evictions++;
+				}
+				return remove;
+			}
+		};
+	}
+
+	XmlCachedObjects get(String xml, Function<String, XmlCachedObjects> parser) {
+		synchronized (this) {
+			XmlCachedObjects cached = this.cache.get(xml);
+			if (cached != null) {
+				this.hits++;
+				return cached;
+			}
+			this.misses++;
+		}
+		XmlCachedObjects parsed = parser.apply(xml);
+		if (this.maxSize > 0) {
+			synchronized (this) {
+				this.cache.put(xml, parsed);
+			}
+		}
+		return parsed;
+	}
+
+	synchronized void clear() {
+		this.cache.clear();
+	}
+
+	synchronized XmlAssertion.CacheStatistics statistics() {
+		return new XmlAssertion.CacheStatistics(this.cache.size(), this.maxSize, this.hits, this.misses,
+				this.evictions);
+	}
+
+}
@@ -17,11 +17,19 @@
 package org.springframework.cloud.contract.verifier;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 import org.assertj.core.api.BDDAssertions;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.BDDMockito;
 
 import org.springframework.cloud.contract.spec.Contract;
@@ -34,6 +42,9 @@ import org.springframework.util.MultiValueMap;
 
 public class TestGeneratorTests {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	@Test
 	public void should_throw_exception_when_in_progress_contracts_found() {
 		// given:
@@ -111,4 +122,41 @@ public class TestGeneratorTests {
 		// then: noExceptionThrown()
 	}
 
+	@Test
+	public void should_generate_the_same_classes_in_parallel_as_sequentially() throws Exception {
+		// given:
+		File sequentialOutput = this.tmp.newFolder();
+		File parallelOutput = this.tmp.newFolder();
+
+		// when:
+		int sequentiallyGenerated = new TestGenerator(properties(sequentialOutput, 1)).generate();
+		int parallelGenerated = new TestGenerator(properties(parallelOutput, 4)).generate();
+
+		// then:
+		BDDAssertions.then(parallelGenerated).isEqualTo(sequentiallyGenerated).isGreaterThan(1);
+		Map<String, byte[]> sequentialFiles = files(sequentialOutput.toPath());
+		Map<String, byte[]> parallelFiles = files(parallelOutput.toPath());
+		BDDAssertions.then(parallelFiles.keySet()).containsExactlyElementsOf(sequentialFiles.keySet());
+		sequentialFiles.forEach((file, bytes) -> BDDAssertions.then(parallelFiles.get(file)).as(file).isEqualTo(bytes));
+	}
+
+	private ContractVerifierConfigProperties properties(File output, int parallelism) throws URISyntaxException {
+		ContractVerifierConfigProperties properties = new ContractVerifierConfigProperties();
+		properties.setContractsDslDir(new File(TestGeneratorTests.class.getResource("/directory/with/stubs").toURI()));
+		properties.setGeneratedTestSourcesDir(new File(output, "sources"));
+		properties.setGeneratedTestResourcesDir(new File(output, "resources"));
+		properties.setGenerationParallelism(parallelism);
+		return properties;
+	}
+
+	private Map<String, byte[]> files(Path root) throws IOException {
+		Map<String, byte[]> files = new TreeMap<>();
+		try (Stream<Path> paths = Files.walk(root)) {
+			for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+				files.put(root.relativize(path).toString(), Files.readAllBytes(path));
+			}
+		}
+		return files;
+	}
+
 }
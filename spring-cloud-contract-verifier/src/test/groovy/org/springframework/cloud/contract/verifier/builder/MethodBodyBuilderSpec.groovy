@@ -1136,6 +1136,47 @@ class MethodBodyBuilderSpec extends Specification implements WireMockStubVerifie
 			}
 	}
 
+	def 'should verify all json paths in a single pass [#methodBuilderName]'() {
+		given:
+			properties.assertJsonInSinglePass = true
+			Contract contractDsl = Contract.make {
+				request {
+					method GET()
+					url 'test'
+				}
+				response {
+					status OK()
+					body([
+							name     : 'foo',
+							count    : 5,
+							active   : true,
+							nullValue: null,
+							emptyList: [],
+							id       : $(p(regex('[0-9]+')), c('123')),
+							items    : [[name: 'bar', price: 1.5], [name: 'baz', price: 2]]
+					])
+				}
+			}
+			methodBuilder()
+		when:
+			String test = singleTestGenerator(contractDsl)
+		then:
+			test.contains("import org.springframework.cloud.contract.verifier.assertion.JsonAssertionPlan")
+			test.contains("JsonAssertionPlan.of(parsedJson)")
+			test.contains(".verify()")
+			!test.contains("assertThatJson(parsedJson)")
+		and:
+			SyntaxChecker.tryToCompile(methodBuilderName, test)
+		where:
+			methodBuilderName | methodBuilder
+			"spock"           | {
+				properties.testFramework = TestFramework.SPOCK
+			}
+			"mockmvc"         | {
+				properties.testMode = TestMode.MOCKMVC
+			}
+	}
+
 	def 'should not escape a regex pattern when matching raw body value [#methodBuilderName]'() {
 		def pattern = "\\d+\\w?"
 		def escapedPattern = "\\\\d+\\\\w?"
@@ -679,6 +679,17 @@ class YamlContractConverterSpec extends Specification {
 			contracts.groupBy { it.name }.keySet().size() == 3
 	}
 
+	def "should accept and convert YAML in a single pass"() {
+		given:
+			File yml = new File(YamlContractConverterSpec.getResource("/yml/contract_broken_request_headers.yml").toURI())
+			File groovy = new File(YamlContractConverterSpec.getResource("/contract.groovy").toURI())
+		expect:
+			converter.tryConvertFrom(ymlMultiple).size() == 3
+		and:
+			converter.tryConvertFrom(yml) == null
+			converter.tryConvertFrom(groovy) == null
+	}
+
 	def "should dump yml as string"() {
 		given:
 			String expectedYaml1 = '''\
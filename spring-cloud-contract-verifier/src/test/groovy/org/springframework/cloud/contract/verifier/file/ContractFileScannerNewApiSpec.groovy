@@ -103,6 +103,22 @@ class ContractFileScannerNewApiSpec extends Specification {
 			}.order == 2
 	}
 
+	def "should convert only the contract files accepted by the filter and keep their order in the scenario"() {
+		given:
+			File baseDir = new File(this.getClass().getResource("/directory/with/scenario").toURI())
+			ContractFileScanner scanner = new ContractFileScannerBuilder().baseDir(baseDir)
+					.contractFilter({ File file -> file.name.startsWith('02') }).build()
+		when:
+			MultiValueMap<Path, ContractMetadata> contracts = scanner.findContractsRecursively()
+		then:
+			contracts.values().size() == 1
+			def firstEntry = contracts.values().first()
+			firstEntry.size() == 1
+			firstEntry.first().path.fileName.toString().startsWith('02')
+			firstEntry.first().groupSize == 3
+			firstEntry.first().order == 1
+	}
+
 	def "should find contract files with converters"() {
 		given:
 			File baseDir = new File(this.getClass().getResource("/directory/with/mixed").toURI())
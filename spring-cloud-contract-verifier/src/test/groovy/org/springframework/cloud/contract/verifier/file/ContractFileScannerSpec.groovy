@@ -27,6 +27,7 @@ import wiremock.com.google.common.collect.ListMultimap
 import org.springframework.cloud.contract.spec.Contract
 import org.springframework.cloud.contract.spec.ContractConverter
 import org.springframework.util.FileSystemUtils
+import org.springframework.util.MultiValueMap
 
 /**
  * @author Jakub Kubrynski, codearte.io
@@ -202,4 +203,26 @@ class ContractFileScannerSpec extends Specification {
 			result.get(baseDir.toPath().resolve("coupon-sent")) == null
 			result.get(baseDir.toPath().resolve("reward-rules")) == null
 	}
+
+	def "should find the same contracts when converting in parallel"() {
+		given:
+			FileSystemUtils.copyRecursively(
+					new File(this.getClass().getResource("/directory/with").toURI()),
+					tmpFolder)
+		and:
+			Set<String> excluded = ["mixed/**", "custom/**"] as Set
+			Set<String> ignored = ["other/different/**"] as Set
+			ContractFileScanner sequential = new ContractFileScanner(tmpFolder, excluded, ignored, [] as Set, "", null, 1)
+			ContractFileScanner parallel = new ContractFileScanner(tmpFolder, excluded, ignored, [] as Set, "", null, 4)
+		when:
+			MultiValueMap<Path, ContractMetadata> expected = sequential.findContractsRecursively()
+			MultiValueMap<Path, ContractMetadata> result = parallel.findContractsRecursively()
+		then:
+			!expected.isEmpty()
+			result.keySet().toList() == expected.keySet().toList()
+			result.each { Path path, List<ContractMetadata> metadata ->
+				assert metadata.collect { [it.path, it.groupSize, it.order, it.ignored, it.convertedContract.size()] } ==
+						expected.get(path).collect { [it.path, it.groupSize, it.order, it.ignored, it.convertedContract.size()] }
+			}
+	}
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.template
+
+import spock.lang.Specification
+
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.spec.internal.Request
+
+class HandlebarsTemplateProcessorSpec extends Specification {
+
+	def 'should apply the same template to different requests'() {
+		given:
+			String template = '''{"name":"{{{jsonPath request.body '$.name'}}}","url":"{{{request.url}}}"}'''
+		expect:
+			new HandlebarsTemplateProcessor().transform(request("/foo", "foo"), template) ==
+					'''{"name":"foo","url":"/foo"}'''
+			new HandlebarsTemplateProcessor().transform(request("/bar", "bar"), template) ==
+					'''{"name":"bar","url":"/bar"}'''
+	}
+
+	def 'should apply the legacy json path helper'() {
+		expect:
+			new HandlebarsTemplateProcessor().transform(request("/foo", "foo"), '''{{{jsonpath this '$.name'}}}''') ==
+					'foo'
+	}
+
+	private static Request request(String path, String name) {
+		return Contract.make {
+			request {
+				method POST()
+				url path
+				body(name: name)
+			}
+			response {
+				status OK()
+			}
+		}.request
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util
+
+import java.util.regex.Pattern
+
+import spock.lang.Specification
+
+import org.springframework.cloud.contract.spec.internal.DslProperty
+import org.springframework.cloud.contract.spec.internal.RegexProperty
+import org.springframework.util.SerializationUtils
+
+class CloneUtilsSpec extends Specification {
+
+	def "should deep copy a json like structure"() {
+		given:
+			Map body = [
+					name   : "foo",
+					numbers: [1, 2L, 3.5d, new BigDecimal("4.5")],
+					nested : [[a: true], new LinkedList([null, "b"])] as ArrayList,
+					tree   : new TreeMap([z: 1, a: 2]),
+					strings: ["x", "y"] as String[],
+					bytes  : [1, 2] as byte[]]
+		when:
+			Map copy = CloneUtils.clone(body) as Map
+		then:
+			copy == body
+			copy.getClass() == LinkedHashMap
+			copy.keySet().toList() == body.keySet().toList()
+			copy.nested.getClass() == ArrayList
+			copy.nested[1].getClass() == LinkedList
+			copy.tree.getClass() == TreeMap
+			copy.strings.getClass() == String[]
+			copy.bytes == body.bytes
+		when:
+			copy.nested[0].a = false
+			copy.numbers << 5
+			copy.strings[0] = "changed"
+			copy.bytes[0] = 9 as byte
+		then:
+			body.nested[0].a == true
+			body.numbers.size() == 4
+			body.strings[0] == "x"
+			body.bytes[0] == 1 as byte
+	}
+
+	def "should copy dsl properties with mutable values and reuse immutable ones"() {
+		given:
+			RegexProperty regex = new RegexProperty(Pattern.compile("[0-9]+"))
+			DslProperty property = new DslProperty([a: [1]], "b")
+			Map body = [regex: regex, property: property]
+		when:
+			Map copy = CloneUtils.clone(body) as Map
+		then:
+			copy == body
+			copy.regex.is(regex)
+			!copy.property.is(property)
+			!copy.property.clientValue.a.is(property.clientValue.a)
+	}
+
+	def "should return the same result as a serialization round trip"() {
+		given:
+			List body = [[foo: [bar: [1, [baz: "2"]]]], new Date(0), new HashSet(["a", "b"]), UUID.randomUUID()]
+		expect:
+			CloneUtils.clone(body) == SerializationUtils.deserialize(SerializationUtils.serialize(body))
+	}
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.spec.internal.FromFileProperty
+import org.springframework.cloud.contract.spec.internal.RegexProperty
+import org.springframework.cloud.contract.verifier.converter.YamlContractConverter
+import org.springframework.cloud.contract.verifier.file.ContractFileScanner
+import org.springframework.cloud.contract.verifier.file.ContractMetadata
+import org.springframework.util.FileSystemUtils
+import org.springframework.util.MultiValueMap
+
+class ContractCacheSpec extends Specification {
+
+	@Rule
+	TemporaryFolder tmp = new TemporaryFolder()
+
+	File cacheDir
+	File contracts
+	File contract
+	int conversions = 0
+
+	Function<File, Collection<Contract>> conversion = this.&convert
+
+	def setup() {
+		cacheDir = tmp.newFolder("cache")
+		contracts = tmp.newFolder("contracts")
+		contract = new File(contracts, "shouldGet.groovy")
+		contract.text = "get"
+		new File(contracts, "response.json").text = "{}"
+	}
+
+	def "should convert the contract only once"() {
+		when:
+			Collection<Contract> converted = cache().computeIfAbsent(contract, conversion)
+			Collection<Contract> cached = cache().computeIfAbsent(contract, conversion)
+		then:
+			conversions == 1
+			cached == converted
+			cached.first().request.url.clientValue instanceof RegexProperty
+	}
+
+	def "should convert the contract again when a file in its folder changed"() {
+		given:
+			cache().computeIfAbsent(contract, conversion)
+		when:
+			new File(contracts, "response.json").text = '{"changed":true}'
+			cache().computeIfAbsent(contract, conversion)
+		then:
+			conversions == 2
+	}
+
+	def "should cache files that no converter accepted"() {
+		given:
+			Function<File, Collection<Contract>> noConverter = { File file ->
+				conversions++
+				return null
+			}
+		when:
+			Collection<Contract> converted = cache().computeIfAbsent(contract, noConverter)
+			Collection<Contract> cached = cache().computeIfAbsent(contract, noConverter)
+		then:
+			converted == null
+			cached == null
+			conversions == 1
+	}
+
+	def "should convert the contract again when the converters changed"() {
+		given:
+			cache().computeIfAbsent(contract, conversion)
+		when:
+			new ContractCache(cacheDir, 10, [YamlContractConverter.INSTANCE])
+					.computeIfAbsent(contract, conversion)
+		then:
+			conversions == 2
+	}
+
+	def "should not cache contracts that can't be serialized"() {
+		given:
+			Function<File, Collection<Contract>> notSerializable = { File file ->
+				conversions++
+				Contract contract = Contract.make {
+					request {
+						method(GET())
+						url("/foo")
+					}
+					response {
+						status(OK())
+					}
+				}
+				contract.metadata.put("foo", new Object())
+				return [contract] as Collection<Contract>
+			}
+		when:
+			cache().computeIfAbsent(contract, notSerializable)
+			cache().computeIfAbsent(contract, notSerializable)
+		then:
+			conversions == 2
+			cacheDir.listFiles().length == 0
+	}
+
+	def "should convert the contract again when the entry is broken"() {
+		given:
+			cache().computeIfAbsent(contract, conversion)
+			cacheDir.listFiles().first().bytes = "broken".bytes
+		when:
+			Collection<Contract> converted = cache().computeIfAbsent(contract, conversion)
+		then:
+			conversions == 2
+			converted.size() == 1
+	}
+
+	def "should convert the contract again when a referenced file in another folder changed"() {
+		given:
+			File bodyFile = new File(tmp.newFolder("bodies"), "body.json")
+			bodyFile.text = "{}"
+			Function<File, Collection<Contract>> withBodyFromFile = { File file ->
+				conversions++
+				return [Contract.make {
+					request {
+						method(GET())
+						url("/foo")
+						body(new FromFileProperty(bodyFile, String))
+					}
+					response {
+						status(OK())
+					}
+				}] as Collection<Contract>
+			}
+			cache().computeIfAbsent(contract, withBodyFromFile)
+		when:
+			cache().computeIfAbsent(contract, withBodyFromFile)
+		then:
+			conversions == 1
+		when:
+			bodyFile.text = '{"changed":true}'
+			cache().computeIfAbsent(contract, withBodyFromFile)
+		then:
+			conversions == 2
+	}
+
+	def "should not read classes that are not part of the contract model from the cache"() {
+		given:
+			cache().computeIfAbsent(contract, conversion)
+			File entry = cacheDir.listFiles().first()
+			entry.withDataOutputStream { DataOutputStream stream ->
+				stream.writeBoolean(true)
+				stream.writeInt(0)
+				new ObjectOutputStream(stream).withCloseable {
+					it.writeObject([new AtomicInteger(1)])
+				}
+			}
+		when:
+			Collection<Contract> converted = cache().computeIfAbsent(contract, conversion)
+		then:
+			conversions == 2
+			converted.first() instanceof Contract
+	}
+
+	def "should remove the least recently used entries above the limit"() {
+		given:
+			ContractCache cache = new ContractCache(cacheDir, 2, [])
+			List<String> entries = []
+			(1..4).each { int index ->
+				File file = new File(tmp.newFolder("contracts" + index), "contract.groovy")
+				file.text = "contract " + index
+				cache.computeIfAbsent(file, conversion)
+				String entry = cacheDir.list().find { !entries.contains(it) }
+				entries << entry
+				Files.setLastModifiedTime(new File(cacheDir, entry).toPath(), FileTime.fromMillis(index * 100000L))
+			}
+		when:
+			cache.evict()
+		then:
+			cacheDir.list().toList().sort() == entries.takeRight(2).sort()
+	}
+
+	def "should read the same contracts from the cache when scanning"() {
+		given:
+			File baseDir = tmp.newFolder("scanned")
+			FileSystemUtils.copyRecursively(
+					new File(this.getClass().getResource("/directory/with").toURI()), baseDir)
+			Set<String> excluded = ["mixed/**", "custom/**"] as Set
+		when:
+			MultiValueMap<Path, ContractMetadata> converted = scanner(baseDir, excluded).findContractsRecursively()
+			MultiValueMap<Path, ContractMetadata> cached = scanner(baseDir, excluded).findContractsRecursively()
+		then:
+			cacheDir.listFiles().length > 0
+			cached.keySet() == converted.keySet()
+			cached.each { Path path, List<ContractMetadata> metadata ->
+				assert metadata*.convertedContract == converted.get(path)*.convertedContract
+			}
+	}
+
+	private Collection<Contract> convert(File contractFile) {
+		conversions++
+		return [Contract.make {
+			request {
+				method(GET())
+				url($(consumer(regex("/foo/[0-9]+")), producer("/foo/1")))
+				body(name: "foo", tags: ["a", "b"])
+			}
+			response {
+				status(OK())
+				body(id: $(consumer("1"), producer(regex("[0-9]+"))))
+			}
+		}]
+	}
+
+	private ContractCache cache() {
+		return new ContractCache(cacheDir, 10, [])
+	}
+
+	private ContractFileScanner scanner(File baseDir, Set<String> excluded) {
+		return new ContractFileScanner(baseDir, excluded, [] as Set, [] as Set, "", null, 1, cacheDir, 100)
+	}
+
+}
@@ -591,4 +591,20 @@ class XmlAssertionSpec extends Specification {
 			e.message.contains("has size [0] and not [1] for XPath <count(/root/foo)>")
 	}
 
+	def 'should reuse the parsed document for the same xml'() {
+		given:
+			XmlAssertion.clearCache()
+			long hits = XmlAssertion.cacheStatistics().hits
+			String xml = '''<root><id>cached</id></root>'''
+		when:
+			XmlAssertion.assertThat(xml).node("root").node("id").isEqualTo("cached")
+			XmlAssertion.assertThat(xml).node("root").node("id").isEqualTo("cached")
+		then:
+			XmlAssertion.cacheStatistics().hits == hits + 1
+		when:
+			XmlAssertion.clearCache()
+		then:
+			XmlAssertion.cacheStatistics().size == 0
+	}
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.util.xml
+
+import javax.xml.parsers.DocumentBuilder
+import javax.xml.parsers.DocumentBuilderFactory
+
+import spock.lang.Specification
+
+class XmlCacheSpec extends Specification {
+
+	DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+
+	def 'should evict the least recently used document'() {
+		given:
+			XmlCache cache = new XmlCache(2)
+		when:
+			cache.get("<a/>", this.&parse)
+			cache.get("<b/>", this.&parse)
+			cache.get("<a/>", this.&parse)
+			cache.get("<c/>", this.&parse)
+			cache.get("<a/>", this.&parse)
+			cache.get("<b/>", this.&parse)
+		then:
+			XmlAssertion.CacheStatistics statistics = cache.statistics()
+			statistics.hits == 2
+			statistics.misses == 4
+			statistics.evictions == 2
+			statistics.size == 2
+	}
+
+	def 'should not cache documents when the size is zero'() {
+		given:
+			XmlCache cache = new XmlCache(0)
+		when:
+			2.times { cache.get("<a/>", this.&parse) }
+		then:
+			cache.statistics().misses == 2
+			cache.statistics().size == 0
+	}
+
+	def 'should keep a bounded number of parsed documents when asserting on many distinct bodies'() {
+		given:
+			XmlAssertion.clearCache()
+			XmlAssertion.CacheStatistics before = XmlAssertion.cacheStatistics()
+			int bodies = 3 * before.maxSize
+		when:
+			bodies.times {
+				XmlAssertion.assertThat("<root><id>${it}</id></root>".toString()).node("root").node("id")
+						.isEqualTo(String.valueOf(it))
+			}
+		then:
+			XmlAssertion.CacheStatistics statistics = XmlAssertion.cacheStatistics()
+			statistics.size == statistics.maxSize
+			statistics.misses - before.misses == bodies
+			statistics.evictions - before.evictions == bodies - statistics.maxSize
+		cleanup:
+			XmlAssertion.clearCache()
+	}
+
+	private XmlCachedObjects parse(String xml) {
+		return new XmlCachedObjects(
+				this.documentBuilder.parse(new ByteArrayInputStream(xml.getBytes("UTF-8"))), xml)
+	}
+
+}
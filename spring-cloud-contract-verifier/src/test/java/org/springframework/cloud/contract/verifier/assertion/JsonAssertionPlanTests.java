@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.assertion;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.Test;
+
+import static com.toomuchcoding.jsonassert.JsonAssertion.assertThatJson;
+
+public class JsonAssertionPlanTests {
+
+	DocumentContext parsedJson = JsonPath.parse("{\"name\":\"foo\",\"count\":5,\"active\":true,\"nullValue\":null,"
+			+ "\"emptyList\":[],\"id\":\"123\",\"items\":[{\"name\":\"bar\",\"price\":1.5},{\"name\":\"baz\",\"price\":2}],"
+			+ "\"tags\":[\"a\",\"b\"]}");
+
+	@Test
+	public void should_pass_when_all_checks_are_satisfied() {
+		JsonAssertionPlan.of(this.parsedJson).matches("$[?(@.['name'] == 'foo')]").matches("$[?(@.['count'] == 5)]")
+				.matches("$[?(@.['active'] == true)]").matches("$[?(@.['nullValue'] == null)]")
+				.isEmpty("$.['emptyList'][*]").matches("$[?(@.['id'] =~ /[0-9]+/)]")
+				.matches("$.['items'][*][?(@.['name'] == 'bar')]").matches("$.['items'][*][?(@.['price'] == 1.5)]")
+				.matches("$.['items'][*][?(@.['price'] == 2)]").matches("$.['tags'][?(@ == 'b')]")
+				.hasSize("$.['items']", 2).hasSize("$.['items'][*]", 2).verify();
+	}
+
+	@Test
+	public void should_fail_with_the_message_of_json_assert_when_a_value_does_not_match() {
+		thenFailsTheSameWay(() -> JsonAssertionPlan.of(this.parsedJson).matches("$[?(@.['name'] == 'foo')]")
+				.matches("$.['items'][*][?(@.['name'] == 'qux')]").verify(),
+				() -> assertThatJson(this.parsedJson).array("['items']").contains("['name']").isEqualTo("qux"));
+	}
+
+	@Test
+	public void should_fail_with_the_message_of_json_assert_when_a_regex_does_not_match() {
+		thenFailsTheSameWay(() -> JsonAssertionPlan.of(this.parsedJson).matches("$[?(@.['name'] =~ /[0-9]+/)]").verify(),
+				() -> assertThatJson(this.parsedJson).field("['name']").matches("[0-9]+"));
+	}
+
+	@Test
+	public void should_fail_with_the_message_of_json_assert_when_an_element_is_not_empty() {
+		thenFailsTheSameWay(() -> JsonAssertionPlan.of(this.parsedJson).isEmpty("$.['tags'][*]").verify(),
+				() -> assertThatJson(this.parsedJson).array("['tags']").isEmpty());
+	}
+
+	@Test
+	public void should_fail_with_the_message_of_json_assert_when_size_does_not_match() {
+		thenFailsTheSameWay(() -> JsonAssertionPlan.of(this.parsedJson).hasSize("$.['items'][*]", 3).verify(),
+				() -> assertThatJson(this.parsedJson).array("['items']").hasSize(3));
+	}
+
+	@Test
+	public void should_verify_paths_that_are_not_compiled_with_json_assert() {
+		JsonAssertionPlan.of(this.parsedJson).matches("$..[?(@.['name'] == 'baz')]").verify();
+
+		Assertions.assertThatThrownBy(
+				() -> JsonAssertionPlan.of(this.parsedJson).matches("$..[?(@.['name'] == 'qux')]").verify())
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("doesn't match the JSON path");
+	}
+
+	private void thenFailsTheSameWay(ThrowableAssert.ThrowingCallable plan,
+			ThrowableAssert.ThrowingCallable jsonAssert) {
+		Throwable expected = Assertions.catchThrowable(jsonAssert);
+		Assertions.assertThat(expected).isInstanceOf(IllegalStateException.class);
+
+		Assertions.assertThatThrownBy(plan).isInstanceOf(IllegalStateException.class)
+				.hasMessage(expected.getMessage());
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.contract.verifier.dsl.wiremock;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -132,6 +133,30 @@ class SpringCloudContractRequestMatcherTests {
 		BDDAssertions.then(result.isExactMatch()).isTrue();
 	}
 
+	@Test
+	void should_parse_the_contract_only_once_for_subsequent_requests() {
+		List<List<YamlContract>> passedContracts = new ArrayList<>();
+		SpringCloudContractRequestMatcher matcher = new SpringCloudContractRequestMatcher() {
+			@Override
+			List<RequestMatcher> matchers() {
+				return Collections.singletonList(new ApplicableRequestMatcher() {
+					@Override
+					public MatchResult match(List<YamlContract> contracts, Request request, Parameters parameters) {
+						passedContracts.add(contracts);
+						return super.match(contracts, request, parameters);
+					}
+				});
+			}
+		};
+		Parameters parameters = toMap(Tuples.of("tool", "graphql"), Tuples.of("contract", PROPER_YAML));
+
+		matcher.match(BDDMockito.mock(Request.class), parameters);
+		matcher.match(BDDMockito.mock(Request.class), parameters);
+
+		BDDAssertions.then(passedContracts).hasSize(2);
+		BDDAssertions.then(passedContracts.get(0)).isSameAs(passedContracts.get(1));
+	}
+
 	private Parameters toMap(Tuple2<String, Object>... tuple2) {
 		Map<String, Object> map = new HashMap<>();
 		for (Tuple2<String, Object> tuple : tuple2) {
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.contract.verifier.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+class OkHttpHttpVerifierTests {
+
+	HttpServer server;
+
+	Set<Object> connections = Collections.synchronizedSet(new HashSet<>());
+
+	@BeforeEach
+	void setup() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/", exchange -> {
+			this.connections.add(exchange.getRemoteAddress());
+			byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void cleanup() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void should_reuse_connections_between_exchanges() {
+		ConnectionPool connectionPool = new ConnectionPool();
+		List<Duration> durations = new ArrayList<>();
+		OkHttpHttpVerifier verifier = new OkHttpHttpVerifier("localhost:" + this.server.getAddress().getPort(),
+				new OkHttpClient.Builder().connectionPool(connectionPool).build(),
+				(request, response, duration) -> durations.add(duration));
+
+		for (int i = 0; i < 5; i++) {
+			Response response = verifier.exchange(Request.given().get("/foo/" + i).build());
+
+			then(response.statusCode()).isEqualTo(200);
+			then(response.getBody().asString()).isEqualTo("{\"status\":\"OK\"}");
+		}
+
+		then(this.connections).hasSize(1);
+		then(connectionPool.connectionCount()).isEqualTo(1);
+		then(durations).hasSize(5).allSatisfy(duration -> then(duration).isPositive());
+	}
+
+	@Test
+	void should_notify_the_listener_about_failed_exchanges() {
+		int port = this.server.getAddress().getPort();
+		this.server.stop(0);
+		List<Throwable> failures = new ArrayList<>();
+		OkHttpHttpVerifier verifier = new OkHttpHttpVerifier("localhost:" + port, new OkHttpClient(),
+				new OkHttpHttpVerifier.ExchangeListener() {
+					@Override
+					public void onExchange(Request request, Response response, Duration duration) {
+						throw new AssertionError("The exchange should have failed");
+					}
+
+					@Override
+					public void onFailure(Request request, Throwable failure, Duration duration) {
+						failures.add(failure);
+					}
+				});
+
+		thenThrownBy(() -> verifier.exchange(Request.given().get("/foo").build()))
+				.isInstanceOf(IllegalStateException.class);
+		then(failures).hasSize(1).first().isInstanceOf(IllegalStateException.class);
+	}
+
+}